@@ -0,0 +1,9 @@
+package com.tomlucksted.speedcubebattle.backend.anticheat;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AntiCheatProperties.class)
+public class AntiCheatConfig {
+}
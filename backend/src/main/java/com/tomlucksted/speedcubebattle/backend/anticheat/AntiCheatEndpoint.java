@@ -0,0 +1,25 @@
+package com.tomlucksted.speedcubebattle.backend.anticheat;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+// /actuator/anticheat/{playerId} auf dem Management-Port (management.server.port, nicht öffentlich):
+// aktueller Score eines Spielers, nur für Betrieb/Moderation
+@Component
+@Endpoint(id = "anticheat")
+public class AntiCheatEndpoint {
+
+    private final AntiCheatService antiCheat;
+
+    public AntiCheatEndpoint(AntiCheatService antiCheat) {
+        this.antiCheat = antiCheat;
+    }
+
+    // null -> 404
+    @ReadOperation
+    public SuspicionReport player(@Selector String playerId) {
+        return antiCheat.report(playerId);
+    }
+}
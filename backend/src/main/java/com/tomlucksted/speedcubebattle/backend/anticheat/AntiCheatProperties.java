@@ -0,0 +1,15 @@
+package com.tomlucksted.speedcubebattle.backend.anticheat;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.anticheat")
+public record AntiCheatProperties(
+        boolean enabled,
+        int minMoves,               // so viele Intervalle, bevor das Timing bewertet wird
+        double maxBurstTps,         // über 8 Züge am Stück
+        double minIntervalCv,       // Streuung der Zugabstände (sd / mean), darunter wirkt es maschinell
+        double maxModeShare,        // Anteil des häufigsten Intervall-Buckets
+        double minSolutionRatio,    // Lösungszüge / Scramble-Länge
+        double solveDecay,          // Gewicht der bisherigen Intervalle bei jedem neuen Solve (0..1)
+        long idleEvictSeconds
+) {}
@@ -0,0 +1,97 @@
+package com.tomlucksted.speedcubebattle.backend.anticheat;
+
+import com.tomlucksted.speedcubebattle.backend.match.Match;
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams every accepted human move into a per-player {@link MoveSketch} and
+ * raises a {@link SuspicionRaisedEvent} when a superhuman or macro-like
+ * pattern appears that wasn't flagged at the previous move. Ghost moves never
+ * pass through here.
+ */
+@Service
+public class AntiCheatService {
+
+    private static final Logger log = LoggerFactory.getLogger(AntiCheatService.class);
+
+    private final Map<String, MoveSketch> sketches = new ConcurrentHashMap<>();
+
+    private final AntiCheatProperties props;
+    private final RealtimeMetrics metrics;
+    private final ApplicationEventPublisher events;
+
+    public AntiCheatService(AntiCheatProperties props, RealtimeMetrics metrics, ApplicationEventPublisher events) {
+        this.props = props;
+        this.metrics = metrics;
+        this.events = events;
+    }
+
+    // läuft auf dem Zug-Pfad: nur O(1)-Updates, allokiert nur beim Melden
+    public void onMove(String playerId, Match match, long receivedNanos, boolean solved, int moveCount) {
+        if (!props.enabled()) return;
+
+        MoveSketch sketch = sketches.get(playerId);
+        if (sketch == null) {
+            sketch = sketches.computeIfAbsent(playerId, id -> new MoveSketch(props.solveDecay()));
+        }
+
+        SuspicionReport report = null;
+        int fresh;
+        synchronized (sketch) {
+            sketch.move(match.id(), receivedNanos);
+            if (solved) sketch.solved(moveCount, match.scramble().size());
+            fresh = sketch.evaluate(props);
+            if (fresh != 0) report = reportOf(playerId, sketch);
+        }
+        if (report == null) return;
+
+        var newFlags = SuspicionFlag.of(fresh);
+        for (SuspicionFlag flag : newFlags) metrics.suspicionRaised(flag);
+        log.info("Suspicious solve by {} in match {}: score={} new={}", playerId, report.matchId(), report.score(), newFlags);
+        events.publishEvent(new SuspicionRaisedEvent(report, newFlags, System.currentTimeMillis()));
+    }
+
+    public SuspicionReport report(String playerId) {
+        MoveSketch sketch = sketches.get(playerId);
+        if (sketch == null) return null;
+        synchronized (sketch) {
+            return reportOf(playerId, sketch);
+        }
+    }
+
+    private static SuspicionReport reportOf(String playerId, MoveSketch sketch) {
+        return new SuspicionReport(
+                playerId,
+                sketch.matchId(),
+                sketch.score(),
+                SuspicionFlag.of(sketch.flags()),
+                sketch.intervals(),
+                sketch.meanIntervalMs(),
+                sketch.intervalCv(),
+                sketch.modeShare(),
+                sketch.burstTps(),
+                Double.isNaN(sketch.solutionRatio()) ? null : sketch.solutionRatio()
+        );
+    }
+
+    // Spieler ohne Züge fallen irgendwann raus, sonst wächst die Map mit jedem Gast
+    @Scheduled(fixedDelayString = "${scb.anticheat.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.SECONDS.toNanos(props.idleEvictSeconds());
+        sketches.values().removeIf(sketch -> {
+            synchronized (sketch) {
+                return sketch.lastSeenNanos - cutoff < 0;
+            }
+        });
+        metrics.anticheatSketches(sketches.size());
+    }
+}
@@ -0,0 +1,157 @@
+package com.tomlucksted.speedcubebattle.backend.anticheat;
+
+/**
+ * Constant-size timing sketch of one player: a log-scale histogram and running
+ * mean/variance of the intervals between moves, plus per-solve burst speed and
+ * solution length. The interval statistics are exponentially decayed per solve,
+ * so a long honest history can't dilute what the player does now. Every update
+ * is O(1) and allocation free. Not thread safe, {@link AntiCheatService} guards it.
+ */
+final class MoveSketch {
+
+    // zwei Buckets pro Zweierpotenz in Mikrosekunden, deckt 1 µs bis weit über eine Minute ab
+    static final int BUCKETS = 64;
+    static final int BURST_WINDOW = 8;
+
+    // gewichtete Zähler: jeder neue Solve multipliziert die Historie mit decay
+    private final double decay;
+    private final double[] buckets = new double[BUCKETS];
+    private double weight;
+    // ungewichtet: ob überhaupt genug Daten da sind, soll nicht mit jedem Solve kippen
+    private int seen;
+    private double modeWeight;
+    private double meanMs;
+    private double m2;
+
+    // pro Solve
+    private String matchId;
+    private final long[] recent = new long[BURST_WINDOW];
+    private int solveMoves;
+    private long lastMoveNanos;
+    private double burstTps;
+    private double solutionRatio = Double.NaN;
+    private int reportedFlags;
+
+    private int flags;
+    private double score;
+    long lastSeenNanos;
+
+    MoveSketch(double decay) {
+        this.decay = Math.clamp(decay, 0, 1);
+    }
+
+    /** Returns true if this move starts a new solve. */
+    boolean move(String matchId, long nanos) {
+        lastSeenNanos = nanos;
+        boolean newSolve = !matchId.equals(this.matchId);
+        if (newSolve) {
+            this.matchId = matchId;
+            solveMoves = 0;
+            burstTps = 0;
+            solutionRatio = Double.NaN;
+            fade();
+        } else {
+            // der erste Zug eines Solves hat keinen sinnvollen Abstand (Inspection)
+            interval(nanos - lastMoveNanos);
+        }
+
+        recent[solveMoves % BURST_WINDOW] = nanos;
+        solveMoves++;
+        if (solveMoves >= BURST_WINDOW) {
+            long span = nanos - recent[solveMoves % BURST_WINDOW];
+            double tps = (BURST_WINDOW - 1) * 1e9 / Math.max(span, 1);
+            if (tps > burstTps) burstTps = tps;
+        }
+        lastMoveNanos = nanos;
+        return newSolve;
+    }
+
+    void solved(int moveCount, int scrambleLength) {
+        if (scrambleLength > 0) solutionRatio = (double) moveCount / scrambleLength;
+    }
+
+    // einmal pro Solve, BUCKETS ist konstant
+    private void fade() {
+        weight *= decay;
+        m2 *= decay;
+        modeWeight = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] *= decay;
+            if (buckets[i] > modeWeight) modeWeight = buckets[i];
+        }
+    }
+
+    private void interval(long nanos) {
+        int bucket = bucketOf(nanos);
+        double count = ++buckets[bucket];
+        if (count > modeWeight) modeWeight = count;
+
+        // Welford mit Gewichten; der Mittelwert bleibt beim Verblassen stehen
+        weight++;
+        seen++;
+        double ms = nanos / 1e6;
+        double delta = ms - meanMs;
+        meanMs += delta / weight;
+        m2 += delta * (ms - meanMs);
+    }
+
+    static int bucketOf(long nanos) {
+        long us = Math.max(nanos / 1000, 1);
+        int log = 63 - Long.numberOfLeadingZeros(us);
+        int half = log > 0 ? (int) ((us >>> (log - 1)) & 1) : 0;
+        return Math.min(2 * log + half, BUCKETS - 1);
+    }
+
+    /**
+     * Recomputes score and flags; returns the flags that were not set at the
+     * previous evaluation. A flag that stays set is reported once, not again
+     * with every solve.
+     */
+    int evaluate(AntiCheatProperties props) {
+        double burst = ramp(burstTps, 0.75 * props.maxBurstTps(), props.maxBurstTps());
+        double uniform = 0;
+        double repeated = 0;
+        if (seen >= props.minMoves()) {
+            uniform = ramp(2 * props.minIntervalCv() - intervalCv(), 0, props.minIntervalCv());
+            repeated = ramp(modeShare(), 0.75 * props.maxModeShare(), props.maxModeShare());
+        }
+        double shortSolution = Double.isNaN(solutionRatio) ? 0
+                : ramp(2 * props.minSolutionRatio() - solutionRatio, 0, props.minSolutionRatio());
+
+        // noisy-or: ein einzelnes starkes Signal reicht, mehrere schwache summieren sich
+        score = 1 - (1 - burst) * (1 - uniform) * (1 - repeated) * (1 - shortSolution);
+        flags = (burst >= 1 ? SuspicionFlag.SUPERHUMAN_BURST.bit() : 0)
+                | (uniform >= 1 ? SuspicionFlag.UNIFORM_TIMING.bit() : 0)
+                | (repeated >= 1 ? SuspicionFlag.REPEATED_INTERVAL.bit() : 0)
+                | (shortSolution >= 1 ? SuspicionFlag.SHORT_SOLUTION.bit() : 0);
+
+        int fresh = flags & ~reportedFlags;
+        reportedFlags = flags;
+        return fresh;
+    }
+
+    // NaN (z.B. CV bei weniger als zwei gewichteten Intervallen) ist kein Signal, sonst wird der ganze Score NaN
+    private static double ramp(double value, double from, double to) {
+        if (Double.isNaN(value) || value <= from) return 0;
+        if (value >= to) return 1;
+        return (value - from) / (to - from);
+    }
+
+    double intervalCv() {
+        if (weight < 2 || meanMs <= 0) return Double.NaN;
+        return Math.sqrt(m2 / (weight - 1)) / meanMs;
+    }
+
+    double modeShare() {
+        return weight == 0 ? 0 : modeWeight / weight;
+    }
+
+    String matchId() { return matchId; }
+    // effektive (gewichtete) Zahl der Intervalle
+    int intervals() { return (int) Math.round(weight); }
+    double meanIntervalMs() { return meanMs; }
+    double burstTps() { return burstTps; }
+    double solutionRatio() { return solutionRatio; }
+    int flags() { return flags; }
+    double score() { return score; }
+}
@@ -0,0 +1,23 @@
+package com.tomlucksted.speedcubebattle.backend.anticheat;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum SuspicionFlag {
+    SUPERHUMAN_BURST,   // 8 Züge schneller als jeder Mensch
+    UNIFORM_TIMING,     // Zugabstände fast ohne Streuung
+    REPEATED_INTERVAL,  // fast alle Abstände im selben Bucket (Makro)
+    SHORT_SOLUTION;     // kaum länger als der Scramble -> Solver
+
+    int bit() {
+        return 1 << ordinal();
+    }
+
+    static Set<SuspicionFlag> of(int bits) {
+        EnumSet<SuspicionFlag> flags = EnumSet.noneOf(SuspicionFlag.class);
+        for (SuspicionFlag flag : values()) {
+            if ((bits & flag.bit()) != 0) flags.add(flag);
+        }
+        return flags;
+    }
+}
@@ -0,0 +1,6 @@
+package com.tomlucksted.speedcubebattle.backend.anticheat;
+
+import java.util.Set;
+
+// newFlags: erstmals in diesem Solve gesetzt; report.flags(): alle aktuellen
+public record SuspicionRaisedEvent(SuspicionReport report, Set<SuspicionFlag> newFlags, long raisedAt) {}
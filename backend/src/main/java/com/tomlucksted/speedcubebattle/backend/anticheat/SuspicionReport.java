@@ -0,0 +1,16 @@
+package com.tomlucksted.speedcubebattle.backend.anticheat;
+
+import java.util.Set;
+
+public record SuspicionReport(
+        String playerId,
+        String matchId,         // zuletzt gespielter Match
+        double score,           // 0..1
+        Set<SuspicionFlag> flags,
+        int intervals,
+        double meanIntervalMs,
+        double intervalCv,
+        double modeShare,
+        double burstTps,
+        Double solutionRatio    // null bis der Solve fertig ist
+) {}
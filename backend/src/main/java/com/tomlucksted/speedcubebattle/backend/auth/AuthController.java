@@ -0,0 +1,25 @@
+package com.tomlucksted.speedcubebattle.backend.auth;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// wie /ws: jeder Origin darf sich einen Gast-Token holen
+@CrossOrigin
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private final TokenService tokenService;
+
+    public AuthController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    // Es gibt noch keine Accounts: jeder Client bekommt eine eigene Gast-Identität
+    @PostMapping("/guest")
+    public IssuedToken guest() {
+        return tokenService.issueGuest();
+    }
+}
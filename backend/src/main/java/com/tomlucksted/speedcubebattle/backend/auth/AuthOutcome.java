@@ -0,0 +1,8 @@
+package com.tomlucksted.speedcubebattle.backend.auth;
+
+public enum AuthOutcome {
+    CACHED,     // Token war schon geprüft, keine Signaturprüfung
+    VERIFIED,
+    EXPIRED,
+    INVALID     // fehlt, kaputt oder falsche Signatur
+}
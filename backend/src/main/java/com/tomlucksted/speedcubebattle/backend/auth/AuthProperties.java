@@ -0,0 +1,10 @@
+package com.tomlucksted.speedcubebattle.backend.auth;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.auth")
+public record AuthProperties(
+        String secret,          // HMAC-Schlüssel; leer nur mit Profil "dev" erlaubt (dann zufällig pro Start)
+        long tokenTtlSeconds,
+        int cacheSize           // bereits geprüfte Tokens, über alle Segmente
+) {}
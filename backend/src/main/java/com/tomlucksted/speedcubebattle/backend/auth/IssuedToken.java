@@ -0,0 +1,4 @@
+package com.tomlucksted.speedcubebattle.backend.auth;
+
+public record IssuedToken(String playerId, String token, long expiresAt) {
+}
@@ -0,0 +1,141 @@
+package com.tomlucksted.speedcubebattle.backend.auth;
+
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues and checks stateless player tokens:
+ * {@code base64url(playerId).expiresAtSeconds.base64url(HMAC-SHA256)}.
+ * Checked once per connection at the handshake; the result is cached so
+ * reconnects with the same token skip the signature check.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAX_TOKEN_LENGTH = 512;
+    private static final int MAX_PLAYER_ID_LENGTH = 64;
+    private static final String DEV_PROFILE = "dev";
+
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODE = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    // Mac ist nicht threadsicher; getInstance ist teuer -> eine Instanz pro Thread
+    private final ThreadLocal<Mac> macs;
+    private final VerifiedTokenCache cache;
+    private final long ttlSeconds;
+    private final RealtimeMetrics metrics;
+
+    public TokenService(AuthProperties props, RealtimeMetrics metrics, Environment env) {
+        this.key = new SecretKeySpec(secretBytes(props.secret(), env.matchesProfiles(DEV_PROFILE)), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.cache = new VerifiedTokenCache(props.cacheSize());
+        this.ttlSeconds = props.tokenTtlSeconds();
+        this.metrics = metrics;
+    }
+
+    private static byte[] secretBytes(String secret, boolean dev) {
+        if (secret != null && !secret.isBlank()) return secret.getBytes(StandardCharsets.UTF_8);
+        // ohne festen Schlüssel wären Tokens nach jedem Neustart ungültig und pro Instanz verschieden
+        if (!dev) {
+            throw new IllegalStateException("scb.auth.secret (AUTH_SECRET) must be set; only the '" + DEV_PROFILE + "' profile may run without it");
+        }
+
+        log.warn("scb.auth.secret is not set - using a random key, tokens become invalid on restart");
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available", e);
+        }
+    }
+
+    public IssuedToken issueGuest() {
+        return issue("guest-" + UUID.randomUUID());
+    }
+
+    public IssuedToken issue(String playerId) {
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        String body = B64.encodeToString(playerId.getBytes(StandardCharsets.UTF_8)) + "." + expiresAt;
+        return new IssuedToken(playerId, body + "." + B64.encodeToString(sign(body)), expiresAt);
+    }
+
+    /** The player the token was issued for, or {@code null} if it is missing, forged or expired. */
+    public String authenticate(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            metrics.authChecked(AuthOutcome.INVALID);
+            return null;
+        }
+
+        long now = System.currentTimeMillis() / 1000;
+        VerifiedTokenCache.Entry cached = cache.get(token);
+        if (cached != null) {
+            if (cached.expiresAtSeconds() > now) {
+                metrics.authChecked(AuthOutcome.CACHED);
+                return cached.playerId();
+            }
+            cache.remove(token);
+            metrics.authChecked(AuthOutcome.EXPIRED);
+            return null;
+        }
+
+        VerifiedTokenCache.Entry verified = verify(token);
+        if (verified == null) {
+            metrics.authChecked(AuthOutcome.INVALID);
+            return null;
+        }
+        if (verified.expiresAtSeconds() <= now) {
+            metrics.authChecked(AuthOutcome.EXPIRED);
+            return null;
+        }
+
+        // Nur gültige Tokens cachen, sonst verdrängt Müll die echten Einträge
+        cache.put(token, verified);
+        metrics.authChecked(AuthOutcome.VERIFIED);
+        return verified.playerId();
+    }
+
+    private VerifiedTokenCache.Entry verify(String token) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot <= firstDot + 1 || lastDot == token.length() - 1) return null;
+
+        String body = token.substring(0, lastDot);
+        try {
+            byte[] signature = B64_DECODE.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(signature, sign(body))) return null;
+
+            String playerId = new String(B64_DECODE.decode(token.substring(0, firstDot)), StandardCharsets.UTF_8);
+            if (playerId.isBlank() || playerId.length() > MAX_PLAYER_ID_LENGTH) return null;
+            return new VerifiedTokenCache.Entry(playerId, Long.parseLong(token, firstDot + 1, lastDot, 10));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String body) {
+        return macs.get().doFinal(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,63 @@
+package com.tomlucksted.speedcubebattle.backend.auth;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of tokens whose signature was already checked. Split into
+ * independently locked segments so a reconnect storm does not serialize all
+ * handshakes on one monitor.
+ */
+final class VerifiedTokenCache {
+
+    private static final int SEGMENTS = 16;
+
+    record Entry(String playerId, long expiresAtSeconds) {}
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    VerifiedTokenCache(int capacity) {
+        int perSegment = Math.max(1, capacity / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment(perSegment);
+    }
+
+    Entry get(String token) {
+        Segment segment = segmentFor(token);
+        synchronized (segment) {
+            return segment.get(token);
+        }
+    }
+
+    void put(String token, Entry entry) {
+        Segment segment = segmentFor(token);
+        synchronized (segment) {
+            segment.put(token, entry);
+        }
+    }
+
+    void remove(String token) {
+        Segment segment = segmentFor(token);
+        synchronized (segment) {
+            segment.remove(token);
+        }
+    }
+
+    private Segment segmentFor(String token) {
+        int h = token.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment extends LinkedHashMap<String, Entry> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(Math.min(capacity, 1024), 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -1,146 +1,209 @@
 package com.tomlucksted.speedcubebattle.backend.cube;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A cube as 54 facelet bytes (face * 9 + row * 3 + col, value = colour of the
+ * face it belongs to). Moves are precomputed facelet cycles and are applied in
+ * place, so a move neither allocates nor copies rows. The static methods work
+ * on any slot of a larger array, which lets a match keep all its cubes in one
+ * {@code byte[]}.
+ */
 public final class CubeState {
-    
-    private final char[][][] f = new char[6][3][3];
+
+    public static final int FACELETS = 54;
 
     private static final int U=0, R=1, F=2, D=3, L=4, B=5;
+    private static final byte[] COLORS = {'W', 'R', 'G', 'Y', 'O', 'B'};
+
+    // Viewer wants U D L R F B
+    private static final int[] VIEW_ORDER = {U, D, L, R, F, B};
+
+    // pro Zug (Move.ordinal) die bewegten Facelets als Zyklen: f[c0] <- f[c1] <- ... <- f[c0]
+    private static final byte[][][] CYCLES = buildCycles();
+
+    private final byte[] f = new byte[FACELETS];
 
     public CubeState() {
         reset();
     }
 
-    public void reset() {
-        fill(U,'W');
-        fill(R,'R');
-        fill(F,'G');
-        fill(D,'Y');
-        fill(L,'O');
-        fill(B,'B');
+    public CubeState(CubeState other) {
+        System.arraycopy(other.f, 0, f, 0, FACELETS);
     }
 
-    private void fill(int face, char c) {
-        for(int r=0;r<3;r++)
-            for(int c2=0;c2<3;c2++)
-                f[face][r][c2]=c;
+    public void reset() {
+        reset(f, 0);
     }
 
     public void apply(Move m) {
-        switch(m) {
-            case U  -> turnU();
-            case Up -> { turnU(); turnU(); turnU(); }
-
-            case D  -> turnD();
-            case Dp -> { turnD(); turnD(); turnD(); }
+        apply(f, 0, m);
+    }
 
-            case R  -> turnR();
-            case Rp -> { turnR(); turnR(); turnR(); }
+    public boolean isSolved() {
+        return isSolved(f, 0);
+    }
 
-            case L  -> turnL();
-            case Lp -> { turnL(); turnL(); turnL(); }
+    public String facelets() {
+        return facelets(f, 0);
+    }
 
-            case F  -> turnF();
-            case Fp -> { turnF(); turnF(); turnF(); }
+    public void copyTo(byte[] slots, int offset) {
+        System.arraycopy(f, 0, slots, offset, FACELETS);
+    }
 
-            case B  -> turnB();
-            case Bp -> { turnB(); turnB(); turnB(); }
+    public static void reset(byte[] slots, int offset) {
+        for (int face = 0; face < 6; face++) {
+            Arrays.fill(slots, offset + face * 9, offset + face * 9 + 9, (byte) face);
+        }
+    }
 
-            case U2 -> { turnU(); turnU(); }
-            case D2 -> { turnD(); turnD(); }
-            case R2 -> { turnR(); turnR(); }
-            case L2 -> { turnL(); turnL(); }
-            case F2 -> { turnF(); turnF(); }
-            case B2 -> { turnB(); turnB(); }
+    public static void apply(byte[] slots, int offset, Move m) {
+        for (byte[] cycle : CYCLES[m.ordinal()]) {
+            int last = cycle.length - 1;
+            byte first = slots[offset + cycle[0]];
+            for (int i = 0; i < last; i++) {
+                slots[offset + cycle[i]] = slots[offset + cycle[i + 1]];
+            }
+            slots[offset + cycle[last]] = first;
         }
     }
 
-    public boolean isSolved() {
-        for(int face=0;face<6;face++) {
-            char c = f[face][0][0];
-            for(int r=0;r<3;r++)
-                for(int col=0;col<3;col++)
-                    if(f[face][r][col]!=c) return false;
+    public static boolean isSolved(byte[] slots, int offset) {
+        for (int face = 0; face < 6; face++) {
+            int start = offset + face * 9;
+            byte c = slots[start];
+            for (int i = 1; i < 9; i++)
+                if (slots[start + i] != c) return false;
         }
         return true;
     }
 
-    // Viewer wants U D L R F B
-    public String facelets() {
-        return faceToString(U)
-                + faceToString(D)
-                + faceToString(L)
-                + faceToString(R)
-                + faceToString(F)
-                + faceToString(B);
-    }
-
-    private String faceToString(int face) {
-        StringBuilder sb=new StringBuilder(9);
-        for(int r=0;r<3;r++)
-            for(int c=0;c<3;c++)
-                sb.append(f[face][r][c]);
-        return sb.toString();
-    }
-
-    private void rotateCW(int face) {
-        char[][] t=new char[3][3];
-        for(int r=0;r<3;r++)
-            for(int c=0;c<3;c++)
-                t[c][2-r]=f[face][r][c];
-        f[face]=t;
-    }
-
-    private void turnU() {
-        rotateCW(U);
-        char[] temp=f[F][0].clone();
-        f[F][0]=f[R][0].clone();
-        f[R][0]=f[B][0].clone();
-        f[B][0]=f[L][0].clone();
-        f[L][0]=temp;
-    }
-
-    private void turnD() {
-        rotateCW(D);
-        char[] temp=f[F][2].clone();
-        f[F][2]=f[L][2].clone();
-        f[L][2]=f[B][2].clone();
-        f[B][2]=f[R][2].clone();
-        f[R][2]=temp;
-    }
-
-    private void turnR() {
-        rotateCW(R);
-        char[] temp=new char[]{f[U][0][2],f[U][1][2],f[U][2][2]};
-        for(int i=0;i<3;i++) f[U][i][2]=f[F][i][2];
-        for(int i=0;i<3;i++) f[F][i][2]=f[D][i][2];
-        for(int i=0;i<3;i++) f[D][i][2]=f[B][2-i][0];
-        for(int i=0;i<3;i++) f[B][2-i][0]=temp[i];
-    }
-
-    private void turnL() {
-        rotateCW(L);
-        char[] temp=new char[]{f[U][0][0],f[U][1][0],f[U][2][0]};
-        for(int i=0;i<3;i++) f[U][i][0]=f[B][2-i][2];
-        for(int i=0;i<3;i++) f[B][2-i][2]=f[D][i][0];
-        for(int i=0;i<3;i++) f[D][i][0]=f[F][i][0];
-        for(int i=0;i<3;i++) f[F][i][0]=temp[i];
-    }
-
-    private void turnF() {
-        rotateCW(F);
-        char[] temp=f[U][2].clone();
-        for(int i=0;i<3;i++) f[U][2][i]=f[L][2-i][2];
-        for(int i=0;i<3;i++) f[L][i][2]=f[D][0][i];
-        for(int i=0;i<3;i++) f[D][0][i]=f[R][2-i][0];
-        for(int i=0;i<3;i++) f[R][i][0]=temp[i];
-    }
-
-    private void turnB() {
-        rotateCW(B);
-        char[] temp=f[U][0].clone();
-        for(int i=0;i<3;i++) f[U][0][i]=f[R][i][2];
-        for(int i=0;i<3;i++) f[R][i][2]=f[D][2][2-i];
-        for(int i=0;i<3;i++) f[D][2][i]=f[L][i][0];
-        for(int i=0;i<3;i++) f[L][i][0]=temp[2-i];
-    }
-}
\ No newline at end of file
+    public static String facelets(byte[] slots, int offset) {
+        byte[] out = new byte[FACELETS];
+        int n = 0;
+        for (int face : VIEW_ORDER) {
+            for (int i = 0; i < 9; i++) out[n++] = COLORS[slots[offset + face * 9 + i]];
+        }
+        return new String(out, StandardCharsets.ISO_8859_1);
+    }
+
+    // --- Zugtabellen, einmalig beim Laden der Klasse ---
+
+    private static byte[][][] buildCycles() {
+        int[][] quarter = new int[6][];
+        quarter[U] = quarterTurn(U);
+        quarter[D] = quarterTurn(D);
+        quarter[R] = quarterTurn(R);
+        quarter[L] = quarterTurn(L);
+        quarter[F] = quarterTurn(F);
+        quarter[B] = quarterTurn(B);
+
+        byte[][][] cycles = new byte[Move.values().length][][];
+        for (Move m : Move.values()) {
+            int[] q = quarter[faceOf(m)];
+            int turns = switch (m) {
+                case U, D, L, R, F, B -> 1;
+                case U2, D2, L2, R2, F2, B2 -> 2;
+                default -> 3;
+            };
+            int[] perm = q;
+            for (int t = 1; t < turns; t++) perm = then(perm, q);
+            cycles[m.ordinal()] = toCycles(perm);
+        }
+        return cycles;
+    }
+
+    private static int faceOf(Move m) {
+        return switch (m) {
+            case U, Up, U2 -> U;
+            case D, Dp, D2 -> D;
+            case L, Lp, L2 -> L;
+            case R, Rp, R2 -> R;
+            case F, Fp, F2 -> F;
+            case B, Bp, B2 -> B;
+        };
+    }
+
+    private static int at(int face, int row, int col) {
+        return face * 9 + row * 3 + col;
+    }
+
+    // src[i] = Facelet, dessen Farbe nach einer Vierteldrehung im Uhrzeigersinn auf i liegt
+    private static int[] quarterTurn(int face) {
+        int[] src = new int[FACELETS];
+        for (int i = 0; i < FACELETS; i++) src[i] = i;
+
+        for (int r = 0; r < 3; r++)
+            for (int c = 0; c < 3; c++)
+                src[at(face, c, 2 - r)] = at(face, r, c);
+
+        for (int i = 0; i < 3; i++) {
+            switch (face) {
+                case U -> {
+                    src[at(F, 0, i)] = at(R, 0, i);
+                    src[at(R, 0, i)] = at(B, 0, i);
+                    src[at(B, 0, i)] = at(L, 0, i);
+                    src[at(L, 0, i)] = at(F, 0, i);
+                }
+                case D -> {
+                    src[at(F, 2, i)] = at(L, 2, i);
+                    src[at(L, 2, i)] = at(B, 2, i);
+                    src[at(B, 2, i)] = at(R, 2, i);
+                    src[at(R, 2, i)] = at(F, 2, i);
+                }
+                case R -> {
+                    src[at(U, i, 2)] = at(F, i, 2);
+                    src[at(F, i, 2)] = at(D, i, 2);
+                    src[at(D, i, 2)] = at(B, 2 - i, 0);
+                    src[at(B, 2 - i, 0)] = at(U, i, 2);
+                }
+                case L -> {
+                    src[at(U, i, 0)] = at(B, 2 - i, 2);
+                    src[at(B, 2 - i, 2)] = at(D, i, 0);
+                    src[at(D, i, 0)] = at(F, i, 0);
+                    src[at(F, i, 0)] = at(U, i, 0);
+                }
+                case F -> {
+                    src[at(U, 2, i)] = at(L, 2 - i, 2);
+                    src[at(L, i, 2)] = at(D, 0, i);
+                    src[at(D, 0, i)] = at(R, 2 - i, 0);
+                    src[at(R, i, 0)] = at(U, 2, i);
+                }
+                case B -> {
+                    src[at(U, 0, i)] = at(R, i, 2);
+                    src[at(R, i, 2)] = at(D, 2, 2 - i);
+                    src[at(D, 2, i)] = at(L, i, 0);
+                    src[at(L, i, 0)] = at(U, 0, 2 - i);
+                }
+            }
+        }
+        return src;
+    }
+
+    // erst first, dann second
+    private static int[] then(int[] first, int[] second) {
+        int[] src = new int[FACELETS];
+        for (int i = 0; i < FACELETS; i++) src[i] = first[second[i]];
+        return src;
+    }
+
+    private static byte[][] toCycles(int[] src) {
+        boolean[] seen = new boolean[FACELETS];
+        byte[][] cycles = new byte[0][];
+        for (int start = 0; start < FACELETS; start++) {
+            if (seen[start] || src[start] == start) continue;
+
+            byte[] cycle = new byte[0];
+            for (int i = start; !seen[i]; i = src[i]) {
+                seen[i] = true;
+                cycle = Arrays.copyOf(cycle, cycle.length + 1);
+                cycle[cycle.length - 1] = (byte) i;
+            }
+            cycles = Arrays.copyOf(cycles, cycles.length + 1);
+            cycles[cycles.length - 1] = cycle;
+        }
+        return cycles;
+    }
+}
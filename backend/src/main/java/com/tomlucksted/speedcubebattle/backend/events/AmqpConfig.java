@@ -0,0 +1,29 @@
+package com.tomlucksted.speedcubebattle.backend.events;
+
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(EventsProperties.class)
+public class AmqpConfig {
+
+    @Bean
+    public TopicExchange matchEventsExchange(EventsProperties props) {
+        return new TopicExchange(props.exchange(), true, false);
+    }
+
+    @Bean
+    public MessageConverter amqpMessageConverter() {
+        return new JacksonJsonMessageConverter();
+    }
+
+    @Bean(destroyMethod = "close")
+    public EventDispatcher eventDispatcher(EventsProperties props, RealtimeMetrics metrics) {
+        return new EventDispatcher(props.dispatchThreads(), props.dispatchQueue(), props.retryBackoffMs(), metrics);
+    }
+}
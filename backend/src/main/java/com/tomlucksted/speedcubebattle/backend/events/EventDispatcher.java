@@ -0,0 +1,107 @@
+package com.tomlucksted.speedcubebattle.backend.events;
+
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the slow side effects of domain events (broker publishes, DB writes) on a
+ * small bounded pool instead of the thread that finished the match, which may be
+ * a WebSocket or Netty event loop thread. A full queue or a task that still
+ * fails after its attempts is counted and dropped, so the realtime path never
+ * waits for RabbitMQ or the database and one failing sink cannot suppress the
+ * others. Retries wait on a timer, not on a pool thread. Nothing is persisted:
+ * events still queued or waiting for a retry are lost if the process dies.
+ */
+public final class EventDispatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EventDispatcher.class);
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService retries;
+    private final long retryBackoffMs;
+    private final RealtimeMetrics metrics;
+
+    public EventDispatcher(int threads, int queueCapacity, long retryBackoffMs, RealtimeMetrics metrics) {
+        this.metrics = metrics;
+        this.retryBackoffMs = Math.max(retryBackoffMs, 1);
+        int size = Math.max(threads, 1);
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                Thread.ofPlatform().name("domain-events-", 0).daemon(true).factory());
+        this.retries = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("domain-events-retry").daemon(true).factory());
+    }
+
+    public void dispatch(EventHandoff handoff, Runnable task) {
+        dispatch(handoff, task, 1);
+    }
+
+    /**
+     * Like {@link #dispatch(EventHandoff, Runnable)}, but a failing task is tried up
+     * to {@code attempts} times, with the backoff doubling after each failure.
+     */
+    public void dispatch(EventHandoff handoff, Runnable task, int attempts) {
+        submit(handoff, task, 1, Math.max(attempts, 1));
+    }
+
+    private void submit(EventHandoff handoff, Runnable task, int attempt, int attempts) {
+        try {
+            executor.execute(() -> run(handoff, task, attempt, attempts));
+        } catch (RejectedExecutionException e) {
+            // Queue voll (Broker/DB hängt) oder Shutdown -> verwerfen statt den Aufrufer zu blockieren
+            metrics.eventHandoffDropped(handoff);
+            log.debug("Dropped {}: event queue full", handoff);
+        }
+    }
+
+    private void run(EventHandoff handoff, Runnable task, int attempt, int attempts) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            if (attempt < attempts && retry(handoff, task, attempt, attempts)) {
+                log.debug("{} failed (attempt {}/{}), retrying: {}", handoff, attempt, attempts, e.toString());
+                return;
+            }
+            metrics.eventHandoffFailed(handoff);
+            log.warn("{} failed: {}", handoff, e.toString());
+        }
+    }
+
+    private boolean retry(EventHandoff handoff, Runnable task, int attempt, int attempts) {
+        long delayMs = retryBackoffMs << Math.min(attempt - 1, 10);
+        try {
+            retries.schedule(() -> submit(handoff, task, attempt + 1, attempts), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return false; // Shutdown
+        }
+        metrics.eventHandoffRetried(handoff);
+        return true;
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    // bereits angenommene Events beim Shutdown noch kurz abarbeiten, ausstehende Retries verfallen
+    @Override
+    public void close() {
+        int abandoned = retries.shutdownNow().size();
+        if (abandoned > 0) log.warn("Abandoned {} event retries on shutdown", abandoned);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) executor.shutdownNow();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.tomlucksted.speedcubebattle.backend.events;
+
+// Seiteneffekte von Domain-Events, die auf dem EventDispatcher laufen (Tag der Metriken)
+public enum EventHandoff {
+    MATCH_FINISHED_PUBLISH,
+    SUSPICION_PUBLISH,
+    REPLAY_SAVE,
+    HISTORY_SAVE
+}
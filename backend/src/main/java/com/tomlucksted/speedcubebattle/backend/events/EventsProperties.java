@@ -0,0 +1,8 @@
+package com.tomlucksted.speedcubebattle.backend.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.events")
+public record EventsProperties(String exchange, String matchFinishedRoutingKey, String suspicionRoutingKey,
+                               int dispatchThreads, int dispatchQueue,
+                               int publishAttempts, long publishConfirmTimeoutMs, long retryBackoffMs) {}
@@ -0,0 +1,62 @@
+package com.tomlucksted.speedcubebattle.backend.events;
+
+import com.tomlucksted.speedcubebattle.backend.anticheat.SuspicionRaisedEvent;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+public class MatchEventPublisher {
+
+    private final RabbitTemplate rabbit;
+    private final EventsProperties props;
+    private final EventDispatcher dispatcher;
+
+    public MatchEventPublisher(RabbitTemplate rabbit, EventsProperties props, EventDispatcher dispatcher) {
+        this.rabbit = rabbit;
+        this.props = props;
+        this.dispatcher = dispatcher;
+    }
+
+    // Publish kommt vom Thread, der das Match beendet hat -> nie dort auf den Broker warten.
+    // Ratings/Stats hängen daran: erst das Broker-Confirm zählt, sonst neuer Versuch.
+    // Doppelte Zustellung ist harmlos, der Worker verbucht jede match id nur einmal.
+    @EventListener
+    public void onMatchFinished(MatchFinishedEvent event) {
+        dispatcher.dispatch(EventHandoff.MATCH_FINISHED_PUBLISH,
+                () -> publishConfirmed(props.matchFinishedRoutingKey(), event), props.publishAttempts());
+    }
+
+    // für Moderation/Dashboards; der Worker bindet (noch) keine Queue darauf -> best effort
+    @EventListener
+    public void onSuspicionRaised(SuspicionRaisedEvent event) {
+        dispatcher.dispatch(EventHandoff.SUSPICION_PUBLISH,
+                () -> rabbit.convertAndSend(props.exchange(), props.suspicionRoutingKey(), event));
+    }
+
+    private void publishConfirmed(String routingKey, Object event) {
+        CorrelationData correlation = new CorrelationData();
+        rabbit.convertAndSend(props.exchange(), routingKey, event, correlation);
+
+        CorrelationData.Confirm confirm;
+        try {
+            confirm = correlation.getFuture().get(props.publishConfirmTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted waiting for publisher confirm", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new AmqpException("No publisher confirm for " + routingKey, e);
+        }
+        if (!confirm.ack()) throw new AmqpException("Broker nacked " + routingKey + ": " + confirm.reason());
+        // Return kommt vor dem Confirm: ack, aber keine Queue gebunden
+        if (correlation.getReturned() != null) {
+            throw new AmqpException("Unroutable " + routingKey + ": " + correlation.getReturned().getReplyText());
+        }
+    }
+}
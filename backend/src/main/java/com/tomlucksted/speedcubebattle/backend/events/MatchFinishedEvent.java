@@ -0,0 +1,15 @@
+package com.tomlucksted.speedcubebattle.backend.events;
+
+import java.util.List;
+
+// Vertrag mit dem Worker (JSON über RabbitMQ) - Felder nur additiv ändern
+public record MatchFinishedEvent(
+        String matchId,
+        long startedAt,
+        long endedAt,
+        long scrambleSeed,
+        List<Result> results
+) {
+    // dnf: nicht gelöst (verlassen, Grace-Period abgelaufen, Zeitlimit) -> Platz hinter allen Lösern, solveTimeMs 0
+    public record Result(String playerId, int placement, long solveTimeMs, int moveCount, boolean dnf) {}
+}
@@ -0,0 +1,17 @@
+package com.tomlucksted.speedcubebattle.backend.ghost;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(GhostProperties.class)
+public class GhostConfig {
+
+    @Bean(destroyMethod = "close")
+    public TimerWheel ghostTimerWheel(GhostProperties props) {
+        return new TimerWheel(TimeUnit.MILLISECONDS.toNanos(props.tickMs()), props.wheelSize(), props.threads(), "ghost");
+    }
+}
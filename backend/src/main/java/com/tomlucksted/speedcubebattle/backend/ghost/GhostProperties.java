@@ -0,0 +1,6 @@
+package com.tomlucksted.speedcubebattle.backend.ghost;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.ghost")
+public record GhostProperties(long tickMs, int wheelSize, int threads) {}
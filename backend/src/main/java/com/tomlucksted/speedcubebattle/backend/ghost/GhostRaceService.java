@@ -0,0 +1,93 @@
+package com.tomlucksted.speedcubebattle.backend.ghost;
+
+import com.tomlucksted.speedcubebattle.backend.match.Match;
+import com.tomlucksted.speedcubebattle.backend.match.MatchService;
+import com.tomlucksted.speedcubebattle.backend.match.participant.GhostParticipant;
+import com.tomlucksted.speedcubebattle.backend.match.result.MoveResult;
+import com.tomlucksted.speedcubebattle.backend.match.result.MoveResultType;
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import com.tomlucksted.speedcubebattle.backend.replay.Replay;
+import com.tomlucksted.speedcubebattle.backend.replay.ReplayService;
+import com.tomlucksted.speedcubebattle.backend.replay.StoredReplay;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Consumer;
+
+@Service
+public class GhostRaceService {
+
+    private final MatchService matchService;
+    private final ReplayService replayService;
+    private final RealtimeMetrics metrics;
+    private final TimerWheel wheel;
+
+    public GhostRaceService(MatchService matchService, ReplayService replayService, RealtimeMetrics metrics, TimerWheel wheel) {
+        this.matchService = matchService;
+        this.replayService = replayService;
+        this.metrics = metrics;
+        this.wheel = wheel;
+    }
+
+    public StoredReplay resolve(GhostSource source, String playerId, String replayMatchId, String replayPlayerId) {
+        return switch (source) {
+            case PERSONAL_BEST -> replayService.personalBest(playerId);
+            case FASTEST -> replayService.fastest();
+            case REPLAY -> replayMatchId == null || replayPlayerId == null
+                    ? null
+                    : replayService.find(replayMatchId, replayPlayerId);
+        };
+    }
+
+    /** Starts playback of all ghosts of a just started match; sink receives every applied ghost move. */
+    public void start(Match match, Consumer<MoveResult> sink) {
+        for (GhostParticipant ghost : match.ghosts()) {
+            if (ghost.replay().moveCount() == 0) continue;
+            metrics.ghostStarted();
+            new Playback(match.id(), match.startNanos(), ghost, sink).scheduleNext();
+        }
+    }
+
+    // Ein Timer pro Ghost und Zug; der nächste wird erst nach dem aktuellen Zug geplant
+    private final class Playback implements Runnable {
+        private final String matchId;
+        private final long startNanos;
+        private final String sessionId;
+        private final Replay replay;
+        private final Consumer<MoveResult> sink;
+        private int next;
+        private long deadlineNanos;
+
+        Playback(String matchId, long startNanos, GhostParticipant ghost, Consumer<MoveResult> sink) {
+            this.matchId = matchId;
+            this.startNanos = startNanos;
+            this.sessionId = ghost.sessionId();
+            this.replay = ghost.replay();
+            this.sink = sink;
+        }
+
+        void scheduleNext() {
+            deadlineNanos = startNanos + replay.atMs(next) * 1_000_000L;
+            wheel.schedule(deadlineNanos, this);
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            metrics.recordGhostLag(now - deadlineNanos);
+
+            MoveResult result = matchService.applyMove(matchId, sessionId, replay.move(next).notation(), now);
+            // Match weg, beendet oder Ghost schon fertig -> Playback endet
+            if (result.type() != MoveResultType.OK) {
+                metrics.ghostStopped();
+                return;
+            }
+
+            try {
+                sink.accept(result);
+            } finally {
+                if (++next < replay.moveCount()) scheduleNext();
+                else metrics.ghostStopped();
+            }
+        }
+    }
+}
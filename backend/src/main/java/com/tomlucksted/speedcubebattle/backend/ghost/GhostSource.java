@@ -0,0 +1,7 @@
+package com.tomlucksted.speedcubebattle.backend.ghost;
+
+public enum GhostSource {
+    PERSONAL_BEST,
+    FASTEST,
+    REPLAY
+}
@@ -0,0 +1,140 @@
+package com.tomlucksted.speedcubebattle.backend.ghost;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel. One ticker thread advances the wheel every tick and hands
+ * due tasks to a small worker pool; scheduling is a lock-free enqueue and no
+ * thread is parked per timer. Tasks fire at most one tick late, never early.
+ * <p>
+ * Timers further out than one wheel revolution stay in their bucket and count
+ * down the remaining revolutions.
+ */
+public final class TimerWheel implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+    private static final class Timeout {
+        final long deadlineNanos;
+        final Runnable task;
+        long rounds;
+
+        Timeout(long deadlineNanos, Runnable task) {
+            this.deadlineNanos = deadlineNanos;
+            this.task = task;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<Timeout>[] buckets; // nur vom Ticker-Thread angefasst
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger scheduled = new AtomicInteger();
+    private final ExecutorService workers;
+    private final Thread ticker;
+    private final long originNanos;
+    private volatile boolean running = true;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickNanos, int wheelSize, int workerThreads, String name) {
+        if (tickNanos <= 0) throw new IllegalArgumentException("tickNanos must be > 0");
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+
+        this.tickNanos = tickNanos;
+        this.mask = size - 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) buckets[i] = new ArrayList<>();
+
+        AtomicInteger workerIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, r -> Thread.ofPlatform()
+                .name(name + "-" + workerIds.getAndIncrement())
+                .daemon(true)
+                .unstarted(r));
+
+        this.originNanos = System.nanoTime();
+        this.ticker = Thread.ofPlatform().name(name + "-ticker").daemon(true).start(this::tickLoop);
+    }
+
+    public void schedule(long deadlineNanos, Runnable task) {
+        if (!running) throw new RejectedExecutionException("Timer wheel is closed");
+        scheduled.incrementAndGet();
+        pending.add(new Timeout(deadlineNanos, task));
+    }
+
+    /** Timers scheduled but not yet fired. */
+    public int scheduled() {
+        return scheduled.get();
+    }
+
+    private void tickLoop() {
+        long tick = 0;
+        while (running) {
+            long tickEnd = originNanos + (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = tickEnd - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(sleep);
+                if (!running) return;
+            }
+
+            transferPending(tick);
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferPending(long currentTick) {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            long due = Math.max((timeout.deadlineNanos - originNanos) / tickNanos, currentTick);
+            timeout.rounds = (due - currentTick) / buckets.length;
+            buckets[(int) (due & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket) {
+        int keep = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.rounds <= 0) {
+                fire(timeout);
+            } else {
+                timeout.rounds--;
+                bucket.set(keep++, timeout);
+            }
+        }
+        bucket.subList(keep, bucket.size()).clear();
+    }
+
+    private void fire(Timeout timeout) {
+        scheduled.decrementAndGet();
+        try {
+            workers.execute(() -> {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    log.warn("Timer task failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutdown läuft
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+// aus Sicht von playerId; Zeiten null, solange es keine gelöste Begegnung gab
+public record HeadToHead(
+        String playerId,
+        String opponentId,
+        int matches,
+        int wins,
+        int losses,
+        Integer bestTimeMs,
+        Integer averageTimeMs,
+        Long lastPlayedAt
+) {}
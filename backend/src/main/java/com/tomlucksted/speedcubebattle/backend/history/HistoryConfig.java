@@ -0,0 +1,9 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(HistoryProperties.class)
+public class HistoryConfig {
+}
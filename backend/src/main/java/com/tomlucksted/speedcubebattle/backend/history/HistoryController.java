@@ -0,0 +1,39 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/history")
+public class HistoryController {
+
+    private final HistoryService historyService;
+
+    public HistoryController(HistoryService historyService) {
+        this.historyService = historyService;
+    }
+
+    // ?before= ist der nextCursor der vorigen Seite
+    @GetMapping("/players/{playerId}/matches")
+    public ResponseEntity<HistoryPage> matches(@PathVariable String playerId,
+                                               @RequestParam(defaultValue = "20") int limit,
+                                               @RequestParam(required = false) String before) {
+        HistoryPage page = historyService.recentMatches(playerId, limit, before);
+        return page == null ? ResponseEntity.badRequest().build() : ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/players/{playerId}/vs/{opponentId}")
+    public HeadToHead headToHead(@PathVariable String playerId, @PathVariable String opponentId) {
+        return historyService.headToHead(playerId, opponentId);
+    }
+
+    @GetMapping("/matches/{matchId}")
+    public ResponseEntity<MatchDetails> match(@PathVariable String matchId) {
+        MatchDetails details = historyService.match(matchId);
+        return details == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(details);
+    }
+}
@@ -0,0 +1,30 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the (finished_at, match_id) of the last row of a page.
+ * The next page starts strictly after it, so deep pages cost the same as the
+ * first one and rows inserted meanwhile neither repeat nor shift the page.
+ */
+record HistoryCursor(long finishedAt, String matchId) {
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((finishedAt + ":" + matchId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** {@code null} for a missing or malformed cursor. */
+    static HistoryCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            if (colon <= 0 || colon == raw.length() - 1) return null;
+            return new HistoryCursor(Long.parseLong(raw, 0, colon, 10), raw.substring(colon + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import java.util.List;
+
+// nextCursor == null: keine älteren Matches mehr
+public record HistoryPage(List<MatchSummary> matches, String nextCursor) {}
@@ -0,0 +1,10 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.history")
+public record HistoryProperties(
+        int maxPageSize,
+        int cacheSize,          // Einträge pro Cache (Profilseiten, Head-to-Head, Match-Details)
+        long cacheTtlSeconds
+) {}
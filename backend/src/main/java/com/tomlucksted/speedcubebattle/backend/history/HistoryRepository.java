@@ -0,0 +1,134 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import com.tomlucksted.speedcubebattle.backend.events.MatchFinishedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Plain JDBC projections: every query selects exactly the columns of its
+ * result record and is answered from one index (see V3__match_history.sql).
+ */
+@Repository
+public class HistoryRepository {
+
+    private static final RowMapper<MatchSummary> SUMMARY = (rs, i) -> new MatchSummary(
+            rs.getString(1), rs.getTimestamp(2).getTime(), rs.getInt(3), nullableInt(rs, 4), rs.getInt(5), rs.getString(6));
+
+    private final JdbcTemplate jdbc;
+
+    public HistoryRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Stores a finished match; returns false if it was already stored. */
+    public boolean save(MatchFinishedEvent event) {
+        Timestamp finishedAt = Timestamp.from(Instant.ofEpochMilli(event.endedAt()));
+        int inserted = jdbc.update(
+                "INSERT INTO matches (match_id, started_at, finished_at, scramble_seed, player_count) VALUES (?, ?, ?, ?, ?) ON CONFLICT (match_id) DO NOTHING",
+                event.matchId(), Timestamp.from(Instant.ofEpochMilli(event.startedAt())), finishedAt,
+                event.scrambleSeed(), event.results().size());
+        if (inserted == 0) return false;
+
+        List<MatchFinishedEvent.Result> results = event.results();
+        jdbc.batchUpdate(
+                "INSERT INTO match_participants (match_id, player_id, finished_at, placement, solve_time_ms, move_count, opponent_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                results,
+                results.size(),
+                (ps, r) -> {
+                    ps.setString(1, event.matchId());
+                    ps.setString(2, r.playerId());
+                    ps.setTimestamp(3, finishedAt);
+                    ps.setInt(4, r.placement());
+                    if (r.dnf()) ps.setNull(5, Types.INTEGER);
+                    else ps.setInt(5, (int) Math.min(r.solveTimeMs(), Integer.MAX_VALUE));
+                    ps.setInt(6, r.moveCount());
+                    ps.setString(7, opponentOf(r.playerId(), results));
+                }
+        );
+        return true;
+    }
+
+    private static String opponentOf(String playerId, List<MatchFinishedEvent.Result> results) {
+        if (results.size() != 2) return null;
+        String first = results.get(0).playerId();
+        return first.equals(playerId) ? results.get(1).playerId() : first;
+    }
+
+    // (finished_at, match_id) < (?, ?) ist ein Row-Vergleich, Postgres setzt ihn direkt als Index-Grenze ein
+    public List<MatchSummary> recentMatches(String playerId, HistoryCursor before, int limit) {
+        if (before == null) {
+            return jdbc.query("""
+                    SELECT match_id, finished_at, placement, solve_time_ms, move_count, opponent_id
+                    FROM match_participants
+                    WHERE player_id = ?
+                    ORDER BY finished_at DESC, match_id DESC
+                    LIMIT ?""",
+                    SUMMARY, playerId, limit);
+        }
+        return jdbc.query("""
+                SELECT match_id, finished_at, placement, solve_time_ms, move_count, opponent_id
+                FROM match_participants
+                WHERE player_id = ? AND (finished_at, match_id) < (?, ?)
+                ORDER BY finished_at DESC, match_id DESC
+                LIMIT ?""",
+                SUMMARY, playerId, Timestamp.from(Instant.ofEpochMilli(before.finishedAt())), before.matchId(), limit);
+    }
+
+    public MatchDetails match(String matchId) {
+        var heads = jdbc.query(
+                "SELECT started_at, finished_at, scramble_seed FROM matches WHERE match_id = ?",
+                (rs, i) -> new long[]{rs.getTimestamp(1).getTime(), rs.getTimestamp(2).getTime(), rs.getLong(3)},
+                matchId);
+        if (heads.isEmpty()) return null;
+
+        long[] head = heads.getFirst();
+        var results = jdbc.query(
+                "SELECT player_id, placement, solve_time_ms, move_count FROM match_participants WHERE match_id = ? ORDER BY placement",
+                (rs, i) -> new MatchDetails.Participant(rs.getString(1), rs.getInt(2), nullableInt(rs, 3), rs.getInt(4)),
+                matchId);
+        return new MatchDetails(matchId, head[0], head[1], head[2], results);
+    }
+
+    public HeadToHead headToHead(String playerId, String opponentId) {
+        return jdbc.queryForObject("""
+                SELECT count(*),
+                       count(*) FILTER (WHERE placement = 1 AND solve_time_ms IS NOT NULL),
+                       min(solve_time_ms),
+                       avg(solve_time_ms),
+                       max(finished_at)
+                FROM match_participants
+                WHERE player_id = ? AND opponent_id = ?""",
+                (rs, i) -> {
+                    int matches = rs.getInt(1);
+                    int wins = rs.getInt(2);
+                    Integer best = nullableInt(rs, 3);
+                    double average = rs.getDouble(4);
+                    boolean timed = !rs.wasNull();
+                    Timestamp last = rs.getTimestamp(5);
+                    return new HeadToHead(
+                            playerId,
+                            opponentId,
+                            matches,
+                            wins,
+                            matches - wins,
+                            best,
+                            timed ? (int) Math.round(average) : null,
+                            last == null ? null : last.getTime());
+                },
+                playerId, opponentId);
+    }
+
+    // NULL bei DNF
+    private static Integer nullableInt(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,105 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import com.tomlucksted.speedcubebattle.backend.events.EventDispatcher;
+import com.tomlucksted.speedcubebattle.backend.events.EventHandoff;
+import com.tomlucksted.speedcubebattle.backend.events.MatchFinishedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes finished matches into the history tables and serves the read side.
+ * Hot reads (first profile page, head-to-head, match details) go through
+ * bounded TTL caches; a new match invalidates the entries of its players.
+ */
+@Service
+public class HistoryService {
+
+    private final HistoryRepository repository;
+    private final TransactionTemplate tx;
+    private final EventDispatcher dispatcher;
+    private final int maxPageSize;
+
+    // erste Seite mit maxPageSize Zeilen, kleinere Limits werden daraus geschnitten
+    private final TtlCache<String, List<MatchSummary>> firstPages;
+    private final TtlCache<String, HeadToHead> headToHead;
+    private final TtlCache<String, MatchDetails> details;
+
+    public HistoryService(HistoryRepository repository, TransactionTemplate tx, EventDispatcher dispatcher,
+                          HistoryProperties props) {
+        this.repository = repository;
+        this.tx = tx;
+        this.dispatcher = dispatcher;
+        this.maxPageSize = props.maxPageSize();
+        long ttlNanos = TimeUnit.SECONDS.toNanos(props.cacheTtlSeconds());
+        this.firstPages = new TtlCache<>(props.cacheSize(), ttlNanos);
+        this.headToHead = new TtlCache<>(props.cacheSize(), ttlNanos);
+        this.details = new TtlCache<>(props.cacheSize(), ttlNanos);
+    }
+
+    // kommt vom Thread des letzten Zugs -> Transaktion auf dem EventDispatcher
+    @EventListener
+    public void onMatchFinished(MatchFinishedEvent event) {
+        if (event.results() == null || event.results().isEmpty()) return;
+        dispatcher.dispatch(EventHandoff.HISTORY_SAVE, () -> save(event));
+    }
+
+    private void save(MatchFinishedEvent event) {
+        Boolean saved = tx.execute(status -> repository.save(event));
+        if (!Boolean.TRUE.equals(saved)) return;
+
+        List<MatchFinishedEvent.Result> results = event.results();
+        for (var r : results) firstPages.invalidate(r.playerId());
+        if (results.size() == 2) {
+            String a = results.get(0).playerId();
+            String b = results.get(1).playerId();
+            headToHead.invalidate(pairKey(a, b));
+            headToHead.invalidate(pairKey(b, a));
+        }
+    }
+
+    /** {@code null} if the cursor is malformed. */
+    public HistoryPage recentMatches(String playerId, int limit, String cursor) {
+        int size = Math.clamp(limit, 1, maxPageSize);
+
+        if (cursor == null || cursor.isEmpty()) {
+            List<MatchSummary> first = firstPages.get(playerId, id -> repository.recentMatches(id, null, maxPageSize));
+            List<MatchSummary> page = first.subList(0, Math.min(size, first.size()));
+            // bei genau maxPageSize gecachten Zeilen ist unbekannt, ob es mehr gibt -> Cursor ausgeben
+            boolean more = first.size() > size || first.size() == maxPageSize;
+            return pageOf(page, more);
+        }
+
+        HistoryCursor before = HistoryCursor.decode(cursor);
+        if (before == null) return null;
+
+        List<MatchSummary> rows = repository.recentMatches(playerId, before, size + 1);
+        boolean more = rows.size() > size;
+        return pageOf(more ? rows.subList(0, size) : rows, more);
+    }
+
+    private static HistoryPage pageOf(List<MatchSummary> rows, boolean more) {
+        String next = null;
+        if (more && !rows.isEmpty()) {
+            MatchSummary last = rows.getLast();
+            next = new HistoryCursor(last.finishedAt(), last.matchId()).encode();
+        }
+        return new HistoryPage(new ArrayList<>(rows), next);
+    }
+
+    public MatchDetails match(String matchId) {
+        return details.get(matchId, repository::match);
+    }
+
+    public HeadToHead headToHead(String playerId, String opponentId) {
+        return headToHead.get(pairKey(playerId, opponentId), key -> repository.headToHead(playerId, opponentId));
+    }
+
+    private static String pairKey(String playerId, String opponentId) {
+        return playerId + '\n' + opponentId;
+    }
+}
@@ -0,0 +1,13 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import java.util.List;
+
+public record MatchDetails(
+        String matchId,
+        long startedAt,
+        long finishedAt,
+        long scrambleSeed,
+        List<Participant> results
+) {
+    public record Participant(String playerId, int placement, Integer solveTimeMs, int moveCount) {}  // Zeit null bei DNF
+}
@@ -0,0 +1,11 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+// eine Zeile der Profil-Historie aus Sicht des Spielers
+public record MatchSummary(
+        String matchId,
+        long finishedAt,
+        int placement,
+        Integer solveTimeMs,  // null bei DNF
+        int moveCount,
+        String opponentId   // null bei mehr als zwei Spielern
+) {}
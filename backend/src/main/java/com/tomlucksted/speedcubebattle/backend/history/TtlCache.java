@@ -0,0 +1,83 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded read-through cache: LRU eviction per segment plus a time to live per
+ * entry. Segments are locked independently; the loader runs outside the lock, so
+ * two concurrent misses on the same key may both load, and a load racing an
+ * {@link #invalidate} may put back the older value - the TTL bounds how long.
+ */
+final class TtlCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private record Entry<V>(V value, long expiresAtNanos) {}
+
+    private final Segment<K, V>[] segments;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    TtlCache(int capacity, long ttlNanos) {
+        this(capacity, ttlNanos, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TtlCache(int capacity, long ttlNanos, LongSupplier nanoClock) {
+        this.ttlNanos = ttlNanos;
+        this.nanoClock = nanoClock;
+        this.segments = new Segment[SEGMENTS];
+        int perSegment = Math.max(1, capacity / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment<>(perSegment);
+    }
+
+    // null-Ergebnisse werden nicht gecacht (z.B. unbekanntes Match)
+    V get(K key, Function<K, V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = nanoClock.getAsLong();
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry != null) {
+                if (entry.expiresAtNanos() - now > 0) return entry.value();
+                segment.remove(key);
+            }
+        }
+
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (segment) {
+                segment.put(key, new Entry<>(value, now + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(Math.min(capacity, 1024), 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            return size() > capacity;
+        }
+    }
+}
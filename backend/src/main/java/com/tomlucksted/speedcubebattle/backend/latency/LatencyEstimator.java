@@ -0,0 +1,55 @@
+package com.tomlucksted.speedcubebattle.backend.latency;
+
+/**
+ * Per-session RTT / clock-offset estimate. Keeps a small window of ping samples
+ * and, like the NTP clock filter, trusts the sample with the lowest round trip
+ * since queueing delay only ever makes a sample worse.
+ */
+final class LatencyEstimator {
+
+    private static final int WINDOW = 8;
+
+    private final long[] rttNanos = new long[WINDOW];
+    private final long[] offsetMillis = new long[WINDOW];
+    private int samples = 0;
+    private int next = 0;
+
+    private long pendingPingId = -1;
+    private long pendingSentNanos;
+    private long pendingSentMillis;
+
+    private volatile long filteredRttNanos = -1;
+    private volatile long filteredOffsetMillis = 0;
+
+    synchronized void pingSent(long pingId, long sentNanos, long sentMillis) {
+        pendingPingId = pingId;
+        pendingSentNanos = sentNanos;
+        pendingSentMillis = sentMillis;
+    }
+
+    /** @return the measured round trip in nanos, or -1 if the pong did not match the outstanding ping */
+    synchronized long pongReceived(long pingId, long clientMillis, long receivedNanos, long receivedMillis) {
+        if (pingId != pendingPingId) return -1;
+        pendingPingId = -1;
+
+        long rtt = receivedNanos - pendingSentNanos;
+        // t0 = sent, t3 = received, the client answers immediately so t1 == t2 == clientMillis
+        long offset = clientMillis - (pendingSentMillis + receivedMillis) / 2;
+
+        rttNanos[next] = rtt;
+        offsetMillis[next] = offset;
+        next = (next + 1) % WINDOW;
+        if (samples < WINDOW) samples++;
+
+        int best = 0;
+        for (int i = 1; i < samples; i++) {
+            if (rttNanos[i] < rttNanos[best]) best = i;
+        }
+        filteredRttNanos = rttNanos[best];
+        filteredOffsetMillis = offsetMillis[best];
+        return rtt;
+    }
+
+    long rttNanos() { return filteredRttNanos; }
+    long offsetMillis() { return filteredOffsetMillis; }
+}
@@ -0,0 +1,75 @@
+package com.tomlucksted.speedcubebattle.backend.latency;
+
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class LatencyTracker {
+
+    private final Map<String, LatencyEstimator> estimators = new ConcurrentHashMap<>();
+    private final AtomicLong pingIds = new AtomicLong();
+    private final RealtimeMetrics metrics;
+    private final long maxOneWayNanos;
+
+    public LatencyTracker(RealtimeMetrics metrics,
+                          @Value("${scb.latency.max-compensation-ms:250}") long maxCompensationMs) {
+        this.metrics = metrics;
+        // ein Solve wird an Start und Ziel kompensiert, jedes Ende bekommt die Hälfte des Budgets
+        this.maxOneWayNanos = TimeUnit.MILLISECONDS.toNanos(maxCompensationMs) / 2;
+    }
+
+    public void register(String sessionId) {
+        estimators.put(sessionId, new LatencyEstimator());
+    }
+
+    public void unregister(String sessionId) {
+        estimators.remove(sessionId);
+    }
+
+    /** @return the id of the ping to send, or -1 if the session is unknown */
+    public long nextPing(String sessionId, long sentNanos, long sentMillis) {
+        LatencyEstimator estimator = estimators.get(sessionId);
+        if (estimator == null) return -1;
+        long pingId = pingIds.incrementAndGet();
+        estimator.pingSent(pingId, sentNanos, sentMillis);
+        return pingId;
+    }
+
+    public void pong(String sessionId, long pingId, long clientMillis, long receivedNanos, long receivedMillis) {
+        LatencyEstimator estimator = estimators.get(sessionId);
+        if (estimator == null) return;
+        long rtt = estimator.pongReceived(pingId, clientMillis, receivedNanos, receivedMillis);
+        if (rtt >= 0) metrics.recordRtt(rtt);
+    }
+
+    /** Filtered round trip in millis, -1 while no sample has been taken yet. */
+    public long rttMillis(String sessionId) {
+        LatencyEstimator estimator = estimators.get(sessionId);
+        if (estimator == null || estimator.rttNanos() < 0) return -1;
+        return TimeUnit.NANOSECONDS.toMillis(estimator.rttNanos());
+    }
+
+    /** Estimated client clock minus server clock in millis. */
+    public long offsetMillis(String sessionId) {
+        LatencyEstimator estimator = estimators.get(sessionId);
+        return estimator == null ? 0 : estimator.offsetMillis();
+    }
+
+    /**
+     * One-way delay used to compensate solve times. Capped at half of
+     * {@code scb.latency.max-compensation-ms}: start and finish are both
+     * compensated, so a client holding back its pongs gains at most the
+     * configured budget per solve in total.
+     */
+    public long oneWayNanos(String sessionId) {
+        LatencyEstimator estimator = estimators.get(sessionId);
+        if (estimator == null || estimator.rttNanos() < 0) return 0;
+        return Math.min(estimator.rttNanos() / 2, maxOneWayNanos);
+    }
+}
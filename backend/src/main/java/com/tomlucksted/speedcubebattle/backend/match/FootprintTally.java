@@ -0,0 +1,71 @@
+package com.tomlucksted.speedcubebattle.backend.match;
+
+/**
+ * Adds up estimated heap sizes for {@link MatchFootprint}. Sizes are shallow
+ * layouts of a 64-bit JVM with compressed oops and class pointers (12 byte
+ * object header, 16 byte array header, 8 byte alignment) - close enough to
+ * compare layouts and to size a node, not a heap dump.
+ */
+final class FootprintTally {
+
+    static final int REF = 4;
+    static final int LONG = 8;
+    static final int INT = 4;
+
+    // ConcurrentHashMap.Node plus sein Anteil an der Tabelle
+    static final int MAP_ENTRY = 40;
+
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+
+    int lobbies;
+    int running;
+    int finished;
+    int participants;
+
+    long lobbyBytes;
+    long runningBytes;
+    long matchBytes;
+    long cubeBytes;
+    long recordingBytes;
+    long eventLogBytes;
+
+    static long object(int fieldBytes) {
+        return align(HEADER + fieldBytes);
+    }
+
+    static long array(int elementBytes, int length) {
+        return align(ARRAY_HEADER + (long) elementBytes * length);
+    }
+
+    // Latin-1, wie alle Ids und JSON-Frames hier
+    static long string(String s) {
+        return s == null ? 0 : string(s.length());
+    }
+
+    static long string(long chars) {
+        return object(REF + INT + 2) + array(1, (int) chars);
+    }
+
+    static long boxed(Long value) {
+        return value == null ? 0 : object(LONG);
+    }
+
+    void add(MatchState state, int seats, long match, long cubes, long recordings, long eventLog) {
+        long total = match + cubes + recordings + eventLog;
+        switch (state) {
+            case LOBBY -> { lobbies++; lobbyBytes += total; }
+            case RUNNING -> { running++; runningBytes += total; }
+            case FINISHED -> finished++;
+        }
+        participants += seats;
+        matchBytes += match;
+        cubeBytes += cubes;
+        recordingBytes += recordings;
+        eventLogBytes += eventLog;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
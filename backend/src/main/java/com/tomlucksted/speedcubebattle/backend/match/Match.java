@@ -2,135 +2,302 @@ package com.tomlucksted.speedcubebattle.backend.match;
 
 import com.tomlucksted.speedcubebattle.backend.cube.CubeState;
 import com.tomlucksted.speedcubebattle.backend.cube.Move;
+import com.tomlucksted.speedcubebattle.backend.match.participant.GhostParticipant;
 import com.tomlucksted.speedcubebattle.backend.match.participant.MatchParticipant;
 import com.tomlucksted.speedcubebattle.backend.match.participant.ParticipantRole;
+import com.tomlucksted.speedcubebattle.backend.replay.SolveRecording;
 import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.PlayerInfo;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.PlayerResult;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+
+/**
+ * One match and its seats. Per-seat state lives in small parallel arrays indexed
+ * by seat instead of maps keyed by player id: the participants themselves, all
+ * cubes back to back in one {@code byte[]}, move counts and recordings. Seats are
+ * replaced copy-on-write under the match lock, so readers without the lock always
+ * see a consistent set.
+ */
 public class Match {
+    private static final MatchParticipant[] NO_SEATS = new MatchParticipant[0];
+    private static final Departed[] NONE_DEPARTED = new Departed[0];
+
+    // wer ein laufendes Match verlässt, behält sein Ergebnis (gelöst oder DNF) bis zum Ende
+    private record Departed(MatchParticipant participant, int moveCount, SolveRecording recording) {}
+
     private final String id;
+    private final MatchEventLog events;
 
     private volatile MatchState state = MatchState.LOBBY;
     private volatile Long startTime;
+    private volatile long startNanos;
     private volatile Long endTime;
 
-    private final Map<String, MatchParticipant> participants = new ConcurrentHashMap<>();
+    private volatile MatchParticipant[] seats = NO_SEATS;
+    private volatile Departed[] departed = NONE_DEPARTED;
     private volatile String hostPlayerId;
     private long moveSeq = 0;
 
     private volatile Long scrambleSeed;
     private volatile List<Move> scramble = List.of();
 
-    // pro Spieler eigener Cube
-    private final Map<String, CubeState> cubes = new ConcurrentHashMap<>();
-    private final Map<String, Integer> moveCounts = new ConcurrentHashMap<>();
+    // fest vorgegebener Scramble, z.B. beim Ghost-Rennen der des aufgezeichneten Solves
+    private volatile Long presetScrambleSeed;
+    private volatile int presetScrambleLength;
+
+    // pro Sitz eigener Cube (CubeState.FACELETS Bytes ab seat * FACELETS), erst beim Start angelegt
+    private volatile byte[] cubes;
+    private int[] moveCounts;
+    private SolveRecording[] recordings;
 
     public Long scrambleSeed() { return scrambleSeed; }
     public List<Move> scramble() { return scramble; }
+    public Long presetScrambleSeed() { return presetScrambleSeed; }
+    public int presetScrambleLength() { return presetScrambleLength; }
+
+    /** Facelets of the player's cube, or null before the start. */
+    public String faceletsOf(String playerId) {
+        byte[] slots = cubes;
+        int offset = cubeOffset(slots, playerId);
+        return offset < 0 ? null : CubeState.facelets(slots, offset);
+    }
 
-    public CubeState cubeOf(String playerId) {
-        return cubes.get(playerId);
+    public boolean isCubeSolved(String playerId) {
+        byte[] slots = cubes;
+        int offset = cubeOffset(slots, playerId);
+        return offset >= 0 && CubeState.isSolved(slots, offset);
+    }
+
+    // ohne Lock können Sitze und Cubes kurz auseinanderlaufen (Spieler verlässt das Match) -> Grenzen prüfen
+    private int cubeOffset(byte[] slots, String playerId) {
+        int seat = seatOf(seats, playerId);
+        if (slots == null || seat < 0 || (seat + 1) * CubeState.FACELETS > slots.length) return -1;
+        return seat * CubeState.FACELETS;
     }
 
     public int moveCountOf(String playerId) {
-        return moveCounts.getOrDefault(playerId, 0);
+        int[] counts = moveCounts;
+        int seat = seatOf(playerId);
+        if (seat < 0) {
+            Departed gone = departedOf(playerId);
+            return gone == null ? 0 : gone.moveCount();
+        }
+        return counts == null || seat >= counts.length ? 0 : counts[seat];
     }
 
+    public SolveRecording recordingOf(String playerId) {
+        SolveRecording[] current = recordings;
+        int seat = seatOf(playerId);
+        if (seat < 0) {
+            Departed gone = departedOf(playerId);
+            return gone == null ? null : gone.recording();
+        }
+        return current == null || seat >= current.length ? null : current[seat];
+    }
+
+    private Departed departedOf(String playerId) {
+        for (Departed d : departed) {
+            if (d.participant().playerId().equals(playerId)) return d;
+        }
+        return null;
+    }
 
-    public Match(String id) {
+    private int seatOf(String playerId) {
+        return seatOf(seats, playerId);
+    }
+
+    private static int seatOf(MatchParticipant[] current, String playerId) {
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].playerId().equals(playerId)) return i;
+        }
+        return -1;
+    }
+
+
+    public Match(String id, int eventLogCapacity) {
         this.id = id;
+        this.events = new MatchEventLog(eventLogCapacity);
     }
 
     public String id() { return id; }
     public MatchState state() { return state; }
     public Long startTime() { return startTime; }
+    public long startNanos() { return startNanos; }
     public Long endTime() { return endTime; }
     public String hostPlayerId() { return hostPlayerId; }
-    public Collection<MatchParticipant> participants() { return participants.values(); }
+    public MatchEventLog events() { return events; }
+    public List<MatchParticipant> participants() { return List.of(seats); }
 
     public List<String> playerIds() {
-        return new ArrayList<>(participants.keySet());
+        List<String> ids = new ArrayList<>(seats.length);
+        for (MatchParticipant p : seats) ids.add(p.playerId());
+        return ids;
     }
 
     public MatchParticipant participant(String playerId) {
-        return participants.get(playerId);
+        MatchParticipant[] current = seats;
+        int seat = seatOf(current, playerId);
+        return seat < 0 ? null : current[seat];
     }
 
     public boolean containsPlayer(String playerId) {
-        return participants.containsKey(playerId);
+        return seatOf(playerId) >= 0;
+    }
+
+    public List<GhostParticipant> ghosts() {
+        List<GhostParticipant> ghosts = new ArrayList<>(1);
+        for (MatchParticipant p : seats) {
+            if (p instanceof GhostParticipant ghost) ghosts.add(ghost);
+        }
+        return ghosts;
+    }
+
+    public boolean hasGhosts() {
+        for (MatchParticipant p : seats) {
+            if (p instanceof GhostParticipant) return true;
+        }
+        return false;
     }
 
+    boolean onlyGhostsLeft() {
+        for (MatchParticipant p : seats) {
+            if (!(p instanceof GhostParticipant)) return false;
+        }
+        return true;
+    }
+
+    void presetScramble(long seed, int length) {
+        this.presetScrambleSeed = seed;
+        this.presetScrambleLength = length;
+    }
+
+    // nur vor dem Start; danach haben die Sitz-Arrays ihre feste Größe
     void addParticipant(MatchParticipant participant) {
-        if(hostPlayerId == null && participants.isEmpty()) {
+        if(hostPlayerId == null && seats.length == 0) {
             hostPlayerId = participant.playerId();
         }
-        participants.put(participant.playerId(), participant);
+        int seat = seatOf(participant.playerId());
+        MatchParticipant[] next = seat < 0 ? Arrays.copyOf(seats, seats.length + 1) : seats.clone();
+        next[seat < 0 ? seats.length : seat] = participant;
+        seats = next;
     }
 
     void removeParticipant(String playerId) {
-        participants.remove(playerId);
+        int seat = seatOf(playerId);
+        if(seat < 0) return;
+
+        // Ghosts werden nicht gewertet, in der Lobby gibt es noch nichts zu werten
+        MatchParticipant leaving = seats[seat];
+        if (state == MatchState.RUNNING && !(leaving instanceof GhostParticipant)) {
+            Departed[] next = Arrays.copyOf(departed, departed.length + 1);
+            next[departed.length] = new Departed(leaving, moveCounts[seat], recordings[seat]);
+            departed = next;
+        }
+
+        // Sitz-Arrays gemeinsam zusammenschieben, damit die Indizes passen
+        if(cubes != null) {
+            byte[] nextCubes = new byte[(seats.length - 1) * CubeState.FACELETS];
+            System.arraycopy(cubes, 0, nextCubes, 0, seat * CubeState.FACELETS);
+            System.arraycopy(cubes, (seat + 1) * CubeState.FACELETS, nextCubes, seat * CubeState.FACELETS,
+                    (seats.length - seat - 1) * CubeState.FACELETS);
+            moveCounts = without(moveCounts, seat);
+            recordings = without(recordings, seat);
+            cubes = nextCubes;
+        }
+        seats = without(seats, seat);
 
-        if(participants.isEmpty()) {
+        if(seats.length == 0) {
             hostPlayerId = null;
             return;
         }
 
         if(playerId.equals(hostPlayerId)) {
-            hostPlayerId = participants.keySet().iterator().next();
+            hostPlayerId = seats[0].playerId();
         }
     }
 
+    private static <T> T[] without(T[] array, int index) {
+        T[] next = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, next, index, array.length - index - 1);
+        return next;
+    }
+
+    private static int[] without(int[] array, int index) {
+        int[] next = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, next, index, array.length - index - 1);
+        return next;
+    }
+
     void setReady(String playerId, boolean ready) {
-        MatchParticipant participant = participants.get(playerId);
+        MatchParticipant participant = participant(playerId);
         if(participant == null) return;
         participant.setReady(ready);
     }
 
     boolean allReady(int expectedPlayers) {
-        if(participants.size() < expectedPlayers) return false;
-        for(MatchParticipant participant : participants.values()) {
+        if(seats.length < expectedPlayers) return false;
+        for(MatchParticipant participant : seats) {
             if(!participant.ready()) return false;
         }
         return true;
     }
 
-    void start(long seed, List<Move> scrambleMoves) {
+    void start(long seed, List<Move> scrambleMoves, ToLongFunction<String> oneWayNanosBySession) {
+        CubeState scrambled = new CubeState();
+        for (Move m : scrambleMoves) scrambled.apply(m);
+        start(seed, scrambleMoves, scrambled, oneWayNanosBySession);
+    }
+
+    // scrambled ist nur Vorlage und wird pro Teilnehmer kopiert
+    void start(long seed, List<Move> scrambleMoves, CubeState scrambled, ToLongFunction<String> oneWayNanosBySession) {
         state = MatchState.RUNNING;
         startTime = System.currentTimeMillis();
+        startNanos = System.nanoTime();
 
         this.scrambleSeed = seed;
         this.scramble = List.copyOf(scrambleMoves);
 
-        // Für alle Teilnehmer: neuen Cube initialisieren und scramble anwenden
-        for (var p : participants.values()) {
-            CubeState cube = new CubeState();
-            for (Move m : scrambleMoves) cube.apply(m);
-
-            cubes.put(p.playerId(), cube);
-            moveCounts.put(p.playerId(), 0);
+        // Für alle Teilnehmer: eigenen gescrambelten Cube anlegen
+        MatchParticipant[] current = seats;
+        byte[] slots = new byte[current.length * CubeState.FACELETS];
+        moveCounts = new int[current.length];
+        recordings = new SolveRecording[current.length];
+        for (int seat = 0; seat < current.length; seat++) {
+            var p = current[seat];
+            scrambled.copyTo(slots, seat * CubeState.FACELETS);
+            recordings[seat] = new SolveRecording();
 
             // optional: ready resetten, damit lobby-state sauber ist
             p.setReady(false);
+            p.started(oneWayNanosBySession.applyAsLong(p.sessionId()));
         }
+        cubes = slots;
     }
 
-    void applyMoveFor(String playerId, Move move) {
-        CubeState cube = cubes.get(playerId);
-        if (cube == null) {
-            // sollte in RUNNING eigentlich nicht passieren, aber defensive
-            cube = new CubeState();
-            for (Move m : scramble) cube.apply(m);
-            cubes.put(playerId, cube);
-            moveCounts.put(playerId, 0);
-        }
+    // false, wenn der Spieler keinen Sitz mit Cube hat (sollte in RUNNING nicht vorkommen)
+    boolean applyMoveFor(String playerId, Move move, long elapsedMs) {
+        byte[] slots = cubes;
+        int offset = cubeOffset(slots, playerId);
+        if (offset < 0) return false;
 
-        cube.apply(move);
-        moveCounts.put(playerId, moveCountOf(playerId) + 1);
+        int seat = offset / CubeState.FACELETS;
+        CubeState.apply(slots, offset, move);
+        moveCounts[seat]++;
+        recordings[seat].record(move, elapsedMs);
+        return true;
+    }
+
+    boolean allSolved() {
+        if (seats.length == 0) return false;
+        for (MatchParticipant participant : seats) {
+            if (!participant.hasSolved()) return false;
+        }
+        return true;
     }
 
     void finish() {
@@ -138,21 +305,107 @@ public class Match {
         endTime = System.currentTimeMillis();
     }
 
+    // Platzierung nach latenz-kompensierter Zeit, nicht nach Ankunft am Server;
+    // ungelöst oder ausgestiegen = DNF, gemeinsam hinter allen, die gelöst haben
+    public List<PlayerResult> toResults() {
+        List<MatchParticipant> everyone = new ArrayList<>(participants());
+        for (Departed d : departed) everyone.add(d.participant());
+
+        var solved = everyone.stream()
+                .filter(MatchParticipant::hasSolved)
+                .sorted(Comparator.comparingLong(p -> p.compensatedSolveNanos(startNanos)))
+                .toList();
+
+        List<PlayerResult> results = new ArrayList<>(everyone.size());
+        for (int i = 0; i < solved.size(); i++) {
+            MatchParticipant p = solved.get(i);
+            results.add(new PlayerResult(
+                    p.playerId(),
+                    i + 1,
+                    p.compensatedSolveNanos(startNanos) / 1_000_000,
+                    p.rawSolveNanos(startNanos) / 1_000_000,
+                    moveCountOf(p.playerId()),
+                    false
+            ));
+        }
+        for (MatchParticipant p : everyone) {
+            if (!p.hasSolved()) results.add(new PlayerResult(p.playerId(), solved.size() + 1, 0, 0, moveCountOf(p.playerId()), true));
+        }
+        return results;
+    }
+
     public List<PlayerInfo> toPlayerInfos() {
         return participants().stream()
-                .map(p -> new PlayerInfo(p.playerId(), p.ready(), p.playerId().equals(hostPlayerId) ? ParticipantRole.HOST :  ParticipantRole.GUEST))
+                .map(p -> new PlayerInfo(p.playerId(), p.ready(), p.playerId().equals(hostPlayerId) ? ParticipantRole.HOST :  ParticipantRole.GUEST, p.connected()))
                 .toList();
     }
 
     public MatchParticipant participantBySession(String sessionId) {
-        return participants().stream()
-                .filter(p -> p.sessionId().equals(sessionId))
-                .findFirst()
-                .orElse(null);
+        for (MatchParticipant p : seats) {
+            if (p.sessionId().equals(sessionId)) return p;
+        }
+        return null;
     }
 
+    public MatchParticipant participantByResumeToken(String resumeToken) {
+        UUID token;
+        try {
+            token = UUID.fromString(resumeToken);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+        for (MatchParticipant p : seats) {
+            if (p.hasResumeToken(token)) return p;
+        }
+        return null;
+    }
 
     long nextMoveSeq() {
         return ++moveSeq;
     }
+
+    // ohne Match-Lock, siehe MatchService#footprint
+    void estimateFootprint(FootprintTally tally) {
+        MatchParticipant[] current = seats;
+
+        // 14 Referenzen, 2 long, 1 int
+        long own = FootprintTally.object(14 * FootprintTally.REF + 2 * FootprintTally.LONG + FootprintTally.INT)
+                + FootprintTally.string(id)
+                + FootprintTally.boxed(startTime) + FootprintTally.boxed(endTime)
+                + FootprintTally.boxed(scrambleSeed) + FootprintTally.boxed(presetScrambleSeed)
+                + (scramble.isEmpty() ? 0 : FootprintTally.object(2 * FootprintTally.REF) + FootprintTally.array(FootprintTally.REF, scramble.size()))
+                + FootprintTally.array(FootprintTally.REF, current.length);
+        for (MatchParticipant p : current) {
+            // 2 Referenzen, 6 long, 2 boolean (+ Quelle beim Ghost)
+            own += FootprintTally.object(2 * FootprintTally.REF + 6 * FootprintTally.LONG + 2
+                    + (p instanceof GhostParticipant ? FootprintTally.REF : 0))
+                    + FootprintTally.string(p.playerId());
+        }
+
+        // ohne Match-Lock: moveCounts/recordings werden immer vor dem volatile cubes geschrieben,
+        // nach dem Lesen von cubes sind sie also mindestens so aktuell; ein Zug mehr oder weniger ist egal
+        byte[] slots = cubes;
+        int[] counts = moveCounts;
+        SolveRecording[] solves = recordings;
+        long cubeBytes = slots == null ? 0 : FootprintTally.array(1, slots.length)
+                + FootprintTally.array(FootprintTally.INT, counts.length);
+
+        long recordingBytes = 0;
+        if (slots != null) {
+            recordingBytes = FootprintTally.array(FootprintTally.REF, solves.length);
+            for (SolveRecording r : solves) {
+                recordingBytes += FootprintTally.object(FootprintTally.REF + FootprintTally.INT)
+                        + FootprintTally.array(FootprintTally.INT, r.capacity());
+            }
+        }
+
+        // Ring + Frames; Frame-Header geschätzt über die Zahl der gehaltenen Frames
+        int slotsInLog = events.slots();
+        long frames = Math.min(events.lastSeq(), slotsInLog);
+        long eventLogBytes = FootprintTally.object(FootprintTally.INT + FootprintTally.REF + FootprintTally.LONG)
+                + (slotsInLog == 0 ? 0 : FootprintTally.array(FootprintTally.REF, slotsInLog))
+                + frames * FootprintTally.string(0) + events.retainedChars();
+
+        tally.add(state, current.length, own, cubeBytes, recordingBytes, eventLogBytes);
+    }
 }
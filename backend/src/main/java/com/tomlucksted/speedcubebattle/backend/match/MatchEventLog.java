@@ -0,0 +1,103 @@
+package com.tomlucksted.speedcubebattle.backend.match;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Fixed-size ring of the last frames broadcast to a match, keyed by their seq.
+ * A resuming client only gets what it missed; if that has already been
+ * overwritten, {@link #since(long)} returns null and the caller sends a snapshot.
+ * The ring starts small and doubles up to its capacity, so idle lobbies with a
+ * handful of frames don't hold a full ring.
+ */
+public final class MatchEventLog {
+
+    private static final int INITIAL_SIZE = 8;
+
+    private final int capacity;
+    private String[] frames;
+    private long lastSeq = 0;
+
+    public MatchEventLog(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Assigns the next seq, renders the frame for it and hands it to {@code deliver}
+     * while still holding the lock, so every recipient sees frames in seq order.
+     */
+    public synchronized long append(LongFunction<String> render, Consumer<String> deliver) {
+        long seq = ++lastSeq;
+        if (frames == null) frames = new String[Math.min(INITIAL_SIZE, capacity)];
+        else if (seq > frames.length && frames.length < capacity) grow();
+
+        String frame = render.apply(seq);
+        frames[(int) (seq % frames.length)] = frame;
+        deliver.accept(frame);
+        return seq;
+    }
+
+    /**
+     * Brings a resuming recipient up to date and attaches it in one step: hands
+     * everything after {@code seq} to {@code deliver} (or, if that is no longer
+     * in the ring, the snapshot rendered for the current seq) and runs
+     * {@code attach} under the same lock {@link #append} delivers under. A
+     * concurrent frame therefore reaches the recipient after the replay, never
+     * before it or twice.
+     *
+     * @return number of replayed frames, or -1 if a snapshot was delivered
+     */
+    public synchronized int resume(long seq, Runnable attach, LongFunction<String> snapshot, Consumer<String> deliver) {
+        List<String> missed = since(seq);
+        attach.run();
+        if (missed == null) {
+            deliver.accept(snapshot.apply(lastSeq));
+            return -1;
+        }
+        missed.forEach(deliver);
+        return missed.size();
+    }
+
+    public synchronized List<String> since(long seq) {
+        if (seq >= lastSeq) return List.of();
+
+        long oldest = Math.max(1, lastSeq - frames.length + 1);
+        if (seq + 1 < oldest) return null;
+
+        List<String> missed = new ArrayList<>((int) (lastSeq - seq));
+        for (long s = seq + 1; s <= lastSeq; s++) {
+            missed.add(frames[(int) (s % frames.length)]);
+        }
+        return missed;
+    }
+
+    /** Slots of the ring allocated so far, for the footprint report. */
+    public synchronized int slots() {
+        return frames == null ? 0 : frames.length;
+    }
+
+    /** Characters of all frames held, for the footprint report. */
+    public synchronized long retainedChars() {
+        if (frames == null) return 0;
+        long chars = 0;
+        for (String frame : frames) {
+            if (frame != null) chars += frame.length();
+        }
+        return chars;
+    }
+
+    // nur solange der Ring noch nie übergelaufen ist, also liegen genau die Seqs 1..lastSeq-1 drin
+    private void grow() {
+        String[] grown = new String[Math.min(frames.length * 2, capacity)];
+        for (long s = 1; s < lastSeq; s++) {
+            grown[(int) (s % grown.length)] = frames[(int) (s % frames.length)];
+        }
+        frames = grown;
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+}
@@ -0,0 +1,23 @@
+package com.tomlucksted.speedcubebattle.backend.match;
+
+/**
+ * Estimated heap held by the matches in memory, split by what holds it, next to
+ * the JVM's actual heap usage. The event log counts the retained JSON frames
+ * used for resume, which dominate running matches.
+ */
+public record MatchFootprint(
+        int lobbies,
+        int running,
+        int finished,
+        int participants,
+        long matchBytes,
+        long cubeBytes,
+        long recordingBytes,
+        long eventLogBytes,
+        long indexBytes,
+        long totalBytes,
+        long bytesPerLobby,
+        long bytesPerRunningMatch,
+        long heapUsedBytes,
+        long heapMaxBytes
+) {}
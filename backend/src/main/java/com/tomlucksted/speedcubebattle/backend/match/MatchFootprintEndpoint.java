@@ -0,0 +1,22 @@
+package com.tomlucksted.speedcubebattle.backend.match;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// /actuator/matchfootprint auf dem Management-Port: Speicherbedarf der Matches im Speicher
+@Component
+@Endpoint(id = "matchfootprint")
+public class MatchFootprintEndpoint {
+
+    private final MatchService matchService;
+
+    public MatchFootprintEndpoint(MatchService matchService) {
+        this.matchService = matchService;
+    }
+
+    @ReadOperation
+    public MatchFootprint footprint() {
+        return matchService.footprint();
+    }
+}
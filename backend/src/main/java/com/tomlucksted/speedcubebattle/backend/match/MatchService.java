@@ -1,43 +1,148 @@
 package com.tomlucksted.speedcubebattle.backend.match;
 
+import com.tomlucksted.speedcubebattle.backend.cube.CubeState;
 import com.tomlucksted.speedcubebattle.backend.cube.Move;
 import com.tomlucksted.speedcubebattle.backend.cube.ScrambleGenerator;
+import com.tomlucksted.speedcubebattle.backend.events.MatchFinishedEvent;
+import com.tomlucksted.speedcubebattle.backend.latency.LatencyTracker;
+import com.tomlucksted.speedcubebattle.backend.match.participant.GhostParticipant;
 import com.tomlucksted.speedcubebattle.backend.match.participant.MatchParticipant;
 import com.tomlucksted.speedcubebattle.backend.match.participant.ParticipantRole;
 import com.tomlucksted.speedcubebattle.backend.match.result.*;
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import com.tomlucksted.speedcubebattle.backend.replay.SolveRecording;
+import com.tomlucksted.speedcubebattle.backend.replay.SolvesRecordedEvent;
+import com.tomlucksted.speedcubebattle.backend.replay.StoredReplay;
 import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.CubeStatePayload;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.MatchEndedPayload;
 import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.MoveAppliedPayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class MatchService {
 
+    private static final Logger log = LoggerFactory.getLogger(MatchService.class);
+
     private static final int MAX_PLAYERS = 2;
+    private static final int SCRAMBLE_LENGTH = 20;
 
     private final Map<String, Match> matches = new ConcurrentHashMap<>();
     private final Map<String, String> sessionToMatchId = new ConcurrentHashMap<>();
 
+    private final RealtimeMetrics metrics;
+    private final LatencyTracker latency;
+    private final ApplicationEventPublisher events;
+    private final int eventLogCapacity;
+
+    public MatchService(RealtimeMetrics metrics, LatencyTracker latency, ApplicationEventPublisher events,
+                        @Value("${scb.session.event-log-capacity:128}") int eventLogCapacity) {
+        this.metrics = metrics;
+        this.latency = latency;
+        this.events = events;
+        this.eventLogCapacity = eventLogCapacity;
+    }
+
     public String createMatch() {
         String id = UUID.randomUUID().toString();
-        matches.put(id, new Match(id));
+        matches.put(id, new Match(id, eventLogCapacity));
+        metrics.matchStateChanged(null, MatchState.LOBBY);
         return id;
     }
 
+    // Solo gegen einen Ghost: sieht für Clients wie ein normales 2-Spieler-Match aus
+    public JoinResult createGhostMatch(String sessionId, String playerId, StoredReplay source) {
+        String id = UUID.randomUUID().toString();
+        Match match = new Match(id, eventLogCapacity);
+        match.presetScramble(source.replay().scrambleSeed(), source.replay().scrambleLength());
+        match.addParticipant(new MatchParticipant(playerId, sessionId));
+        match.addParticipant(new GhostParticipant(source));
+
+        matches.put(id, match);
+        sessionToMatchId.put(sessionId, id);
+        metrics.matchStateChanged(null, MatchState.LOBBY);
+        return new JoinResult(JoinResultType.OK, match);
+    }
+
+    // Vom System gepaarte Spieler (Turnier): ohne Lobby sofort gestartet, Scramble kommt vom Aufrufer.
+    // Die Session zeigt danach auf das neue Match; ihr Sitz im vorigen wird geräumt, sonst bliebe
+    // jedes beendete Spiel der Serie (und eine verlassene Lobby) für immer in matches
+    public SystemMatchResult startSystemMatch(Map<String, String> sessionByPlayer, long seed, List<Move> scramble, CubeState scrambled) {
+        String id = UUID.randomUUID().toString();
+        Match match = new Match(id, eventLogCapacity);
+
+        synchronized (match) {
+            sessionByPlayer.forEach((playerId, sessionId) -> match.addParticipant(new MatchParticipant(playerId, sessionId)));
+            match.start(seed, scramble, scrambled, latency::oneWayNanos);
+        }
+
+        matches.put(id, match);
+        metrics.matchStateChanged(null, MatchState.RUNNING);
+
+        List<LeaveMatchResult> released = new ArrayList<>(0);
+        for (String sessionId : sessionByPlayer.values()) {
+            String previous = sessionToMatchId.put(sessionId, id);
+            if (previous == null) continue;
+            LeaveMatchResult left = leave(previous, sessionId);
+            if (left.type() == LeaveMatchResultType.OK) released.add(left);
+        }
+        return new SystemMatchResult(match, released);
+    }
+
     public Match getMatch(String matchId) {
         return matches.get(matchId);
     }
 
+    // läuft einmal über alle Matches, ohne deren Locks: eine Schätzung darf einen Zug hinterherhinken
+    public MatchFootprint footprint() {
+        FootprintTally tally = new FootprintTally();
+        for (Match match : matches.values()) {
+            match.estimateFootprint(tally);
+        }
+
+        long indexBytes = (long) (matches.size() + sessionToMatchId.size()) * FootprintTally.MAP_ENTRY;
+        long total = tally.matchBytes + tally.cubeBytes + tally.recordingBytes + tally.eventLogBytes + indexBytes;
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        return new MatchFootprint(
+                tally.lobbies,
+                tally.running,
+                tally.finished,
+                tally.participants,
+                tally.matchBytes,
+                tally.cubeBytes,
+                tally.recordingBytes,
+                tally.eventLogBytes,
+                indexBytes,
+                total,
+                tally.lobbies == 0 ? 0 : tally.lobbyBytes / tally.lobbies,
+                tally.running == 0 ? 0 : tally.runningBytes / tally.running,
+                heap.getUsed(),
+                heap.getMax()
+        );
+    }
+
     public JoinResult joinMatch(String matchId, String sessionId, String playerId) {
         Match match = matches.get(matchId);
         if(match == null) return new JoinResult(JoinResultType.MATCH_NOT_FOUND, null);
 
+        long waitStart = System.nanoTime();
         synchronized (match) {
+            metrics.recordMonitorWait(System.nanoTime() - waitStart);
             if (match.state() != MatchState.LOBBY) return new JoinResult(JoinResultType.NOT_IN_LOBBY, match);
             if (match.containsPlayer(playerId)) return new JoinResult(JoinResultType.ALREADY_IN_MATCH, match);
             if (match.participants().size() >= MAX_PLAYERS) return new JoinResult(JoinResultType.MATCH_FULL, match);
@@ -52,7 +157,9 @@ public class MatchService {
         Match match = matches.get(matchId);
         if (match == null) return new ReadyResult(ReadyResultType.NOT_FOUND, null);
 
+        long waitStart = System.nanoTime();
         synchronized (match) {
+            metrics.recordMonitorWait(System.nanoTime() - waitStart);
             if (match.state() != MatchState.LOBBY) return new ReadyResult(ReadyResultType.NOT_IN_LOBBY, match);
             if (!match.containsPlayer(playerId)) return new ReadyResult(ReadyResultType.NOT_IN_MATCH, match);;
 
@@ -65,7 +172,9 @@ public class MatchService {
         Match match = matches.get(matchId);
         if (match == null) return new StartMatchResult(StartMatchResultType.NOT_FOUND, null);
 
+        long waitStart = System.nanoTime();
         synchronized (match) {
+            metrics.recordMonitorWait(System.nanoTime() - waitStart);
             if (match.state() != MatchState.LOBBY)
                 return new StartMatchResult(StartMatchResultType.NOT_IN_LOBBY, match);
 
@@ -79,10 +188,18 @@ public class MatchService {
             if (!match.allReady(MAX_PLAYERS))
                 return new StartMatchResult(StartMatchResultType.NOT_READY, match);
 
-            long seed = System.nanoTime(); // oder Random/UUID
-            List<Move> scramble = ScrambleGenerator.generate(seed, 20);
+            long seed;
+            List<Move> scramble;
+            if (match.presetScrambleSeed() != null) {
+                seed = match.presetScrambleSeed();
+                scramble = ScrambleGenerator.generate(seed, match.presetScrambleLength());
+            } else {
+                seed = System.nanoTime(); // oder Random/UUID
+                scramble = ScrambleGenerator.generate(seed, SCRAMBLE_LENGTH);
+            }
 
-            match.start(seed, scramble);
+            match.start(seed, scramble, latency::oneWayNanos);
+            metrics.matchStateChanged(MatchState.LOBBY, MatchState.RUNNING);
             return new StartMatchResult(StartMatchResultType.OK, match);
         }
     }
@@ -92,67 +209,223 @@ public class MatchService {
         if(matchId == null) {
             return new LeaveMatchResult(LeaveMatchResultType.NOT_IN_MATCH, null, null, null);
         }
+        return leave(matchId, sessionId);
+    }
 
+    private LeaveMatchResult leave(String matchId, String sessionId) {
         Match match = matches.get(matchId);
         if(match == null) {
             return new LeaveMatchResult(LeaveMatchResultType.MATCH_NOT_FOUND, matchId, null, null);
         }
 
+        LeaveMatchResult result;
+        long waitStart = System.nanoTime();
         synchronized (match) {
+            metrics.recordMonitorWait(System.nanoTime() - waitStart);
             MatchParticipant participant = match.participantBySession(sessionId);
             if(participant == null) {
                 return new LeaveMatchResult(LeaveMatchResultType.NOT_IN_MATCH, matchId, null, match);
             }
 
-            String playerId = participant.playerId();
+            result = removeParticipant(match, participant.playerId());
+        }
+        if (result.ended() != null) publishFinishedSafely(match, result.ended());
+        return result;
+    }
+
+    // Verbindung weg, Slot bleibt aber bis zum Ablauf der Grace-Period reserviert
+    public DisconnectResult disconnectBySessionId(String sessionId) {
+        String matchId = sessionToMatchId.remove(sessionId);
+        if(matchId == null) return new DisconnectResult(DisconnectResultType.NOT_IN_MATCH, null, null);
+
+        Match match = matches.get(matchId);
+        if(match == null) return new DisconnectResult(DisconnectResultType.MATCH_NOT_FOUND, null, null);
+
+        long waitStart = System.nanoTime();
+        synchronized (match) {
+            metrics.recordMonitorWait(System.nanoTime() - waitStart);
+            MatchParticipant participant = match.participantBySession(sessionId);
+            if(participant == null) return new DisconnectResult(DisconnectResultType.NOT_IN_MATCH, match, null);
+
+            participant.disconnected(System.nanoTime());
+            return new DisconnectResult(DisconnectResultType.OK, match, participant.playerId());
+        }
+    }
+
+    // Verpasstes nachschicken und neue Session binden passiert atomar im Event-Log, siehe MatchEventLog#resume
+    public ResumeResult resume(String matchId, String resumeToken, String playerId, String sessionId, long lastSeq,
+                               Function<Match, String> snapshot, Consumer<String> deliver) {
+        Match match = matches.get(matchId);
+        if(match == null) return new ResumeResult(ResumeResultType.NOT_FOUND, null, null);
+
+        long waitStart = System.nanoTime();
+        synchronized (match) {
+            metrics.recordMonitorWait(System.nanoTime() - waitStart);
+            MatchParticipant participant = match.participantByResumeToken(resumeToken);
+            // Resume-Token allein reicht nicht, er muss zum angemeldeten Spieler gehören
+            if(participant == null || !participant.playerId().equals(playerId)) {
+                return new ResumeResult(ResumeResultType.INVALID_TOKEN, match, null);
+            }
+
+            // alte Session (falls der Server den Abbruch noch nicht bemerkt hat) verliert den Slot
+            sessionToMatchId.remove(participant.sessionId());
+            int replayed = match.events().resume(lastSeq, () -> participant.reconnected(sessionId),
+                    seq -> snapshot.apply(match), deliver);
+            sessionToMatchId.put(sessionId, matchId);
+            return new ResumeResult(ResumeResultType.OK, match, participant, replayed);
+        }
+    }
 
-            match.removeParticipant(playerId);
+    public LeaveMatchResult expireDisconnected(String matchId, String playerId, long graceNanos) {
+        Match match = matches.get(matchId);
+        if(match == null) return new LeaveMatchResult(LeaveMatchResultType.MATCH_NOT_FOUND, matchId, null, null);
 
-            if(match.participants().isEmpty()) {
-                matches.remove(matchId);
+        LeaveMatchResult result;
+        long waitStart = System.nanoTime();
+        synchronized (match) {
+            metrics.recordMonitorWait(System.nanoTime() - waitStart);
+            MatchParticipant participant = match.participant(playerId);
+            // inzwischen wieder verbunden oder erneut getrennt -> der spätere Timer ist zuständig
+            if(participant == null || participant.connected()
+                    || System.nanoTime() - participant.disconnectedAtNanos() < graceNanos) {
+                return new LeaveMatchResult(LeaveMatchResultType.NOT_IN_MATCH, matchId, null, match);
             }
 
-            return new LeaveMatchResult(LeaveMatchResultType.OK, matchId, playerId, match);
+            result = removeParticipant(match, playerId);
         }
+        if (result.ended() != null) publishFinishedSafely(match, result.ended());
+        return result;
     }
 
-    public MoveResult applyMove(String matchId, String sessionId, String moveStr) {
+    private LeaveMatchResult removeParticipant(Match match, String playerId) {
+        match.removeParticipant(playerId);
+
+        // Ein laufendes Match endet, sobald alle Verbliebenen gelöst haben oder kein Mensch mehr da ist.
+        // Sonst bliebe es ewig RUNNING und z.B. eine Turnier-Serie käme nie weiter.
+        MatchEndedPayload ended = null;
+        if (match.state() == MatchState.RUNNING && (match.allSolved() || match.onlyGhostsLeft())) {
+            ended = finish(match);
+        }
+
+        // ein Ghost allein hält kein Match am Leben; sein Playback endet mit NOT_FOUND
+        if(match.onlyGhostsLeft()) {
+            matches.remove(match.id());
+            metrics.matchStateChanged(match.state(), null);
+        }
+
+        return new LeaveMatchResult(LeaveMatchResultType.OK, match.id(), playerId, match, ended);
+    }
+
+    // Zeitlimit (Turnier): wer bis jetzt gelöst hat, wird platziert; null, wenn das Match nicht mehr läuft
+    public MatchEndedPayload timeOut(String matchId) {
         Match match = matches.get(matchId);
-        if (match == null) return new MoveResult(MoveResultType.NOT_FOUND, null, null, null);
+        if (match == null) return null;
 
+        MatchEndedPayload ended;
+        long waitStart = System.nanoTime();
         synchronized (match) {
+            metrics.recordMonitorWait(System.nanoTime() - waitStart);
+            if (match.state() != MatchState.RUNNING) return null;
+            ended = finish(match);
+        }
+        publishFinishedSafely(match, ended);
+        return ended;
+    }
+
+    // nur unter dem Match-Lock
+    private MatchEndedPayload finish(Match match) {
+        match.finish();
+        metrics.matchStateChanged(MatchState.RUNNING, MatchState.FINISHED);
+        return new MatchEndedPayload(match.id(), match.endTime(), match.toResults());
+    }
+
+    public MoveResult applyMove(String matchId, String sessionId, String moveStr, long receivedNanos) {
+        MoveResult result = applyMoveLocked(matchId, sessionId, moveStr, receivedNanos);
+        if (result.ended() != null) publishFinishedSafely(result.match(), result.ended());
+        return result;
+    }
+
+    // außerhalb des Match-Locks veröffentlichen; Broker/DB laufen über den EventDispatcher,
+    // ein fehlerhafter Listener darf das GAME_MATCH_ENDED an die Spieler trotzdem nicht verhindern
+    private void publishFinishedSafely(Match match, MatchEndedPayload ended) {
+        try {
+            publishFinished(match, ended);
+        } catch (RuntimeException e) {
+            log.warn("Publishing the end of match {} failed", match.id(), e);
+        }
+    }
+
+    private void publishFinished(Match match, MatchEndedPayload ended) {
+        // Ghost-Rennen sind unranked: kein Rating, keine Statistik, nur das Replay des Menschen.
+        // DNFs gehören dazu, sonst entginge ein Aussteiger der Niederlage
+        if (!match.hasGhosts() && ended.results().size() >= MAX_PLAYERS) {
+            var results = ended.results().stream()
+                    .map(r -> new MatchFinishedEvent.Result(r.playerId(), r.placement(), r.solveTimeMs(), r.moveCount(), r.dnf()))
+                    .toList();
+            events.publishEvent(new MatchFinishedEvent(match.id(), match.startTime(), ended.endedAt(), match.scrambleSeed(), results));
+        }
+
+        Map<String, SolveRecording> solves = new LinkedHashMap<>();
+        for (var r : ended.results()) {
+            if (r.dnf() || match.participant(r.playerId()) instanceof GhostParticipant) continue;
+            SolveRecording recording = match.recordingOf(r.playerId());
+            if (recording != null) solves.put(r.playerId(), recording);
+        }
+        events.publishEvent(new SolvesRecordedEvent(match.id(), match.scrambleSeed(), match.scramble().size(), solves));
+    }
+
+    private MoveResult applyMoveLocked(String matchId, String sessionId, String moveStr, long receivedNanos) {
+        Match match = matches.get(matchId);
+        if (match == null) return new MoveResult(MoveResultType.NOT_FOUND, null, null, null, null);
+
+        long waitStart = System.nanoTime();
+        synchronized (match) {
+            metrics.recordMonitorWait(System.nanoTime() - waitStart);
             if (match.state() != MatchState.RUNNING)
-                return new MoveResult(MoveResultType.NOT_RUNNING, match, null, null);
+                return new MoveResult(MoveResultType.NOT_RUNNING, match, null, null, null);
 
             var caller = match.participantBySession(sessionId);
             if (caller == null)
-                return new MoveResult(MoveResultType.NOT_IN_MATCH, match, null, null);
+                return new MoveResult(MoveResultType.NOT_IN_MATCH, match, null, null, null);
+
+            if (caller.hasSolved())
+                return new MoveResult(MoveResultType.ALREADY_SOLVED, match, null, null, null);
 
             Move move;
             try {
                 move = Move.parse(moveStr);
             } catch (Exception e) {
-                return new MoveResult(MoveResultType.INVALID_MOVE, match, null, null);
+                return new MoveResult(MoveResultType.INVALID_MOVE, match, null, null, null);
             }
 
-            match.applyMoveFor(caller.playerId(), move);
+            long elapsedMs = (receivedNanos - match.startNanos()) / 1_000_000;
+
+            if (!match.applyMoveFor(caller.playerId(), move, elapsedMs))
+                return new MoveResult(MoveResultType.NOT_IN_MATCH, match, null, null, null);
+            metrics.moveApplied();
 
             long seq = match.nextMoveSeq();
             long serverTs = System.currentTimeMillis();
 
-            boolean solved = match.cubeOf(caller.playerId()).isSolved();
+            boolean solved = match.isCubeSolved(caller.playerId());
 
-            var applied = new MoveAppliedPayload(matchId, caller.playerId(), moveStr, seq, serverTs);
+            var applied = new MoveAppliedPayload(matchId, caller.playerId(), moveStr, seq, serverTs, elapsedMs);
 
             var cubePayload = new CubeStatePayload(
                     matchId,
                     caller.playerId(),
-                    match.cubeOf(caller.playerId()).facelets(),
+                    match.faceletsOf(caller.playerId()),
                     match.moveCountOf(caller.playerId()),
                     solved
             );
 
-            return new MoveResult(MoveResultType.OK, match, applied, cubePayload);
+            MatchEndedPayload ended = null;
+            if (solved) {
+                caller.solved(receivedNanos, latency.oneWayNanos(sessionId));
+                if (match.allSolved()) ended = finish(match);
+            }
+
+            return new MoveResult(MoveResultType.OK, match, applied, cubePayload, ended);
         }
     }
 
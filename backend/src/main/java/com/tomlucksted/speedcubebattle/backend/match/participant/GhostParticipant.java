@@ -0,0 +1,23 @@
+package com.tomlucksted.speedcubebattle.backend.match.participant;
+
+import com.tomlucksted.speedcubebattle.backend.replay.Replay;
+import com.tomlucksted.speedcubebattle.backend.replay.StoredReplay;
+
+import java.util.UUID;
+
+// Spielt einen aufgezeichneten Solve ab; hat keine WebSocket-Session und ist immer bereit
+public class GhostParticipant extends MatchParticipant {
+    public static final String PREFIX = "ghost:";
+
+    private final StoredReplay source;
+
+    public GhostParticipant(StoredReplay source) {
+        super(PREFIX + source.playerId(), PREFIX + UUID.randomUUID());
+        this.source = source;
+        setReady(true);
+    }
+
+    public Replay replay() { return source.replay(); }
+    public String sourceMatchId() { return source.matchId(); }
+    public String sourcePlayerId() { return source.playerId(); }
+}
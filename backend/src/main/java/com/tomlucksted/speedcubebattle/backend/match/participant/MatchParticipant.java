@@ -1,19 +1,79 @@
 package com.tomlucksted.speedcubebattle.backend.match.participant;
 
+import java.util.UUID;
+
 public class MatchParticipant {
     private final String playerId;
-    private final String sessionId;
+    // Resume-Token als zwei longs statt als 36-Zeichen-String; der String wird nur beim Versand gebaut
+    private final long resumeHi;
+    private final long resumeLo;
+    private volatile String sessionId;
     private volatile boolean ready;
 
+    // Slot bleibt nach Verbindungsabbruch für die Grace-Period reserviert
+    private volatile boolean connected = true;
+    private volatile long disconnectedAtNanos;
+
+    // Latenz-kompensierte Solve-Zeit (alles System.nanoTime())
+    private long startLatencyNanos;
+    private long finishNanos = -1;
+    private long finishLatencyNanos;
+
     public MatchParticipant(String playerId, String sessionId) {
         this.playerId = playerId;
         this.sessionId = sessionId;
         this.ready = false;
+
+        UUID token = UUID.randomUUID();
+        this.resumeHi = token.getMostSignificantBits();
+        this.resumeLo = token.getLeastSignificantBits();
     }
 
     public String playerId() { return playerId; }
     public String sessionId() { return sessionId; }
+    public String resumeToken() { return new UUID(resumeHi, resumeLo).toString(); }
+
+    public boolean hasResumeToken(UUID token) {
+        return token.getMostSignificantBits() == resumeHi && token.getLeastSignificantBits() == resumeLo;
+    }
 
     public boolean ready() { return ready; }
     public void setReady(boolean ready) { this.ready = ready; }
+
+    public boolean connected() { return connected; }
+    public long disconnectedAtNanos() { return disconnectedAtNanos; }
+
+    public void disconnected(long nowNanos) {
+        this.connected = false;
+        this.disconnectedAtNanos = nowNanos;
+    }
+
+    public void reconnected(String sessionId) {
+        this.sessionId = sessionId;
+        this.connected = true;
+    }
+
+    public void started(long oneWayNanos) {
+        this.startLatencyNanos = oneWayNanos;
+        this.finishNanos = -1;
+        this.finishLatencyNanos = 0;
+    }
+
+    public void solved(long receivedNanos, long oneWayNanos) {
+        if (finishNanos >= 0) return;
+        this.finishNanos = receivedNanos;
+        this.finishLatencyNanos = oneWayNanos;
+    }
+
+    public boolean hasSolved() { return finishNanos >= 0; }
+
+    public long rawSolveNanos(long matchStartNanos) {
+        return finishNanos - matchStartNanos;
+    }
+
+    /** Time between the client seeing the start and sending its last move. */
+    public long compensatedSolveNanos(long matchStartNanos) {
+        long compensated = (finishNanos - finishLatencyNanos) - (matchStartNanos + startLatencyNanos);
+        return Math.max(compensated, 0);
+    }
 }
@@ -0,0 +1,5 @@
+package com.tomlucksted.speedcubebattle.backend.match.result;
+
+import com.tomlucksted.speedcubebattle.backend.match.Match;
+
+public record DisconnectResult(DisconnectResultType type, Match match, String playerId) {}
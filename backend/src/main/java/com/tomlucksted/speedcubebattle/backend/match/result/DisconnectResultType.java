@@ -0,0 +1,7 @@
+package com.tomlucksted.speedcubebattle.backend.match.result;
+
+public enum DisconnectResultType {
+    OK,
+    NOT_IN_MATCH,
+    MATCH_NOT_FOUND
+}
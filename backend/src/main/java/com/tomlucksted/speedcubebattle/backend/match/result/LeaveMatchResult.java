@@ -1,10 +1,16 @@
 package com.tomlucksted.speedcubebattle.backend.match.result;
 
 import com.tomlucksted.speedcubebattle.backend.match.Match;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.MatchEndedPayload;
 
 public record LeaveMatchResult(
         LeaveMatchResultType type,
         String matchId,
         String playerId,
-        Match match
-) {}
+        Match match,
+        MatchEndedPayload ended
+) {
+    public LeaveMatchResult(LeaveMatchResultType type, String matchId, String playerId, Match match) {
+        this(type, matchId, playerId, match, null);
+    }
+}
@@ -1,3 +1,3 @@
 package com.tomlucksted.speedcubebattle.backend.match.result;
 
-public enum MoveResultType { OK, NOT_FOUND, NOT_RUNNING, NOT_IN_MATCH, INVALID_MOVE }
+public enum MoveResultType { OK, NOT_FOUND, NOT_RUNNING, NOT_IN_MATCH, INVALID_MOVE, ALREADY_SOLVED }
@@ -0,0 +1,12 @@
+package com.tomlucksted.speedcubebattle.backend.match.result;
+
+import com.tomlucksted.speedcubebattle.backend.match.Match;
+import com.tomlucksted.speedcubebattle.backend.match.participant.MatchParticipant;
+
+// replayed: nachgeschickte Frames, -1 wenn stattdessen ein Snapshot ging
+public record ResumeResult(ResumeResultType type, Match match, MatchParticipant participant, int replayed) {
+
+    public ResumeResult(ResumeResultType type, Match match, MatchParticipant participant) {
+        this(type, match, participant, 0);
+    }
+}
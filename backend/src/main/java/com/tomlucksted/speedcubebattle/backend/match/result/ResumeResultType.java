@@ -0,0 +1,7 @@
+package com.tomlucksted.speedcubebattle.backend.match.result;
+
+public enum ResumeResultType {
+    OK,
+    NOT_FOUND,
+    INVALID_TOKEN
+}
@@ -0,0 +1,9 @@
+package com.tomlucksted.speedcubebattle.backend.match.result;
+
+import com.tomlucksted.speedcubebattle.backend.match.Match;
+
+import java.util.List;
+
+// released: Sitze, die die Spieler dafür in ihrem vorigen Match (Lobby, letztes Spiel der Serie) geräumt haben
+public record SystemMatchResult(Match match, List<LeaveMatchResult> released) {
+}
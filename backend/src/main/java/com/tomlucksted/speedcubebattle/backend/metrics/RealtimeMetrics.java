@@ -0,0 +1,255 @@
+package com.tomlucksted.speedcubebattle.backend.metrics;
+
+import com.tomlucksted.speedcubebattle.backend.anticheat.SuspicionFlag;
+import com.tomlucksted.speedcubebattle.backend.auth.AuthOutcome;
+import com.tomlucksted.speedcubebattle.backend.events.EventHandoff;
+import com.tomlucksted.speedcubebattle.backend.match.MatchState;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.WsMessageType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of the realtime pipeline. All meters are registered up front so the
+ * record methods only do an enum lookup and a primitive record - no tags or
+ * samples are allocated per message.
+ */
+@Component
+public class RealtimeMetrics {
+
+    private final Map<WsMessageType, Timer> handleTimers = new EnumMap<>(WsMessageType.class);
+    private final Map<WsMessageType, Counter> rateLimited = new EnumMap<>(WsMessageType.class);
+    private final Map<MatchState, AtomicInteger> matchesByState = new EnumMap<>(MatchState.class);
+    private final Map<AuthOutcome, Counter> authChecks = new EnumMap<>(AuthOutcome.class);
+    private final Map<SuspicionFlag, Counter> suspicions = new EnumMap<>(SuspicionFlag.class);
+    private final Map<EventHandoff, Counter> handoffsDropped = new EnumMap<>(EventHandoff.class);
+    private final Map<EventHandoff, Counter> handoffsFailed = new EnumMap<>(EventHandoff.class);
+    private final Map<EventHandoff, Counter> handoffsRetried = new EnumMap<>(EventHandoff.class);
+
+    private final Timer monitorWait;
+    private final Timer broadcast;
+    private final DistributionSummary broadcastRecipients;
+    private final Timer serializeOut;
+    private final Timer deserializeIn;
+    private final Counter moves;
+    private final Timer rtt;
+    private final Counter rateLimitedUnknown;
+    private final Counter rateLimitDisconnects;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger activeGhosts = new AtomicInteger();
+    private final AtomicInteger anticheatSketches = new AtomicInteger();
+    private final Timer ghostLag;
+    private final Timer tournamentRoundPrepare;
+    private final Counter tournamentMatches;
+
+    public RealtimeMetrics(MeterRegistry registry) {
+        for (WsMessageType type : WsMessageType.values()) {
+            handleTimers.put(type, latencyTimer("scb.ws.handle", "Time to handle one incoming WebSocket message")
+                    .tag("type", type.name())
+                    .register(registry));
+        }
+
+        for (WsMessageType type : WsMessageType.values()) {
+            rateLimited.put(type, rateLimitedCounter(type.name()).register(registry));
+        }
+        rateLimitedUnknown = rateLimitedCounter("UNKNOWN").register(registry);
+        rateLimitDisconnects = Counter.builder("scb.ws.ratelimit.disconnects")
+                .description("Sessions closed for repeatedly exceeding their rate limits")
+                .register(registry);
+
+        for (AuthOutcome outcome : AuthOutcome.values()) {
+            authChecks.put(outcome, Counter.builder("scb.auth.handshakes")
+                    .description("Token checks at the WebSocket handshake")
+                    .tag("outcome", outcome.name())
+                    .register(registry));
+        }
+
+        for (SuspicionFlag flag : SuspicionFlag.values()) {
+            suspicions.put(flag, Counter.builder("scb.anticheat.flags")
+                    .description("Solves in which a suspicious pattern was first detected")
+                    .tag("flag", flag.name())
+                    .register(registry));
+        }
+        Gauge.builder("scb.anticheat.sketches", anticheatSketches, AtomicInteger::get)
+                .description("Players with a live timing sketch")
+                .register(registry);
+
+        for (EventHandoff handoff : EventHandoff.values()) {
+            handoffsDropped.put(handoff, handoffCounter(handoff, "dropped").register(registry));
+            handoffsFailed.put(handoff, handoffCounter(handoff, "failed").register(registry));
+            handoffsRetried.put(handoff, Counter.builder("scb.events.handoffs.retried")
+                    .description("Failed domain event side effects scheduled for another attempt")
+                    .tag("handoff", handoff.name())
+                    .register(registry));
+        }
+
+        for (MatchState state : MatchState.values()) {
+            AtomicInteger count = new AtomicInteger();
+            matchesByState.put(state, count);
+            Gauge.builder("scb.matches.active", count, AtomicInteger::get)
+                    .description("Matches held in memory")
+                    .tag("state", state.name())
+                    .register(registry);
+        }
+
+        monitorWait = latencyTimer("scb.match.monitor.wait", "Time spent waiting for a match monitor")
+                .register(registry);
+        broadcast = latencyTimer("scb.ws.broadcast", "Time to fan a message out to all match participants")
+                .register(registry);
+        broadcastRecipients = DistributionSummary.builder("scb.ws.broadcast.recipients")
+                .description("Sessions a broadcast was delivered to")
+                .register(registry);
+        serializeOut = latencyTimer("scb.ws.serialization", "JSON (de)serialization time")
+                .tag("direction", "out")
+                .register(registry);
+        deserializeIn = latencyTimer("scb.ws.serialization", "JSON (de)serialization time")
+                .tag("direction", "in")
+                .register(registry);
+        rtt = Timer.builder("scb.ws.rtt")
+                .description("Heartbeat round trip time per sample")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+        moves = Counter.builder("scb.match.moves")
+                .description("Moves applied to running matches")
+                .register(registry);
+        Gauge.builder("scb.ws.sessions.active", activeSessions, AtomicInteger::get)
+                .description("Open WebSocket sessions")
+                .register(registry);
+        Gauge.builder("scb.ghost.playbacks.active", activeGhosts, AtomicInteger::get)
+                .description("Ghost replays currently being played back")
+                .register(registry);
+        tournamentRoundPrepare = latencyTimer("scb.tournament.round.prepare", "Time to pair a tournament round and queue its match starts")
+                .register(registry);
+        tournamentMatches = Counter.builder("scb.tournament.matches.started")
+                .description("Matches started by tournaments")
+                .register(registry);
+        ghostLag = latencyTimer("scb.ghost.lag", "Delay between a ghost move's due time and it being applied")
+                .register(registry);
+    }
+
+    private static Counter.Builder rateLimitedCounter(String type) {
+        return Counter.builder("scb.ws.ratelimit.rejected")
+                .description("Frames rejected by admission control")
+                .tag("type", type);
+    }
+
+    private static Counter.Builder handoffCounter(EventHandoff handoff, String outcome) {
+        return Counter.builder("scb.events.handoffs.lost")
+                .description("Domain event side effects dropped (queue full) or failed (broker/DB error)")
+                .tag("handoff", handoff.name())
+                .tag("outcome", outcome);
+    }
+
+    private static Timer.Builder latencyTimer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(1));
+    }
+
+    public void recordHandle(WsMessageType type, long nanos) {
+        handleTimers.get(type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordMonitorWait(long nanos) {
+        monitorWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBroadcast(long nanos, int recipients) {
+        broadcast.record(nanos, TimeUnit.NANOSECONDS);
+        broadcastRecipients.record(recipients);
+    }
+
+    public void recordSerialization(long nanos) {
+        serializeOut.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDeserialization(long nanos) {
+        deserializeIn.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRtt(long nanos) {
+        rtt.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void frameRejected(WsMessageType type) {
+        (type == null ? rateLimitedUnknown : rateLimited.get(type)).increment();
+    }
+
+    public void rateLimitDisconnect() {
+        rateLimitDisconnects.increment();
+    }
+
+    public void authChecked(AuthOutcome outcome) {
+        authChecks.get(outcome).increment();
+    }
+
+    public void suspicionRaised(SuspicionFlag flag) {
+        suspicions.get(flag).increment();
+    }
+
+    public void eventHandoffDropped(EventHandoff handoff) {
+        handoffsDropped.get(handoff).increment();
+    }
+
+    public void eventHandoffFailed(EventHandoff handoff) {
+        handoffsFailed.get(handoff).increment();
+    }
+
+    public void eventHandoffRetried(EventHandoff handoff) {
+        handoffsRetried.get(handoff).increment();
+    }
+
+    public void anticheatSketches(int count) {
+        anticheatSketches.set(count);
+    }
+
+    public void moveApplied() {
+        moves.increment();
+    }
+
+    public void sessionOpened() {
+        activeSessions.incrementAndGet();
+    }
+
+    public void sessionClosed() {
+        activeSessions.decrementAndGet();
+    }
+
+    public void ghostStarted() {
+        activeGhosts.incrementAndGet();
+    }
+
+    public void ghostStopped() {
+        activeGhosts.decrementAndGet();
+    }
+
+    public void recordGhostLag(long nanos) {
+        ghostLag.record(Math.max(nanos, 0), TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTournamentRoundPrepared(long nanos) {
+        tournamentRoundPrepare.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void tournamentMatchStarted() {
+        tournamentMatches.increment();
+    }
+
+    public void matchStateChanged(MatchState from, MatchState to) {
+        if (from != null) matchesByState.get(from).decrementAndGet();
+        if (to != null) matchesByState.get(to).incrementAndGet();
+    }
+}
@@ -0,0 +1,17 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import com.tomlucksted.speedcubebattle.backend.cube.Move;
+
+// Dekodierte Aufzeichnung: moves[i] ist der Move-Ordinal, atMs[i] die Zeit seit Matchstart
+public record Replay(long scrambleSeed, int scrambleLength, byte[] moves, int[] atMs) {
+
+    private static final Move[] MOVES = Move.values();
+
+    public int moveCount() { return moves.length; }
+
+    public Move move(int i) { return MOVES[moves[i]]; }
+
+    public int atMs(int i) { return atMs[i]; }
+
+    public int durationMs() { return moves.length == 0 ? 0 : atMs[moves.length - 1]; }
+}
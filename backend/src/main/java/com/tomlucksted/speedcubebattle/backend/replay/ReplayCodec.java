@@ -0,0 +1,85 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import com.tomlucksted.speedcubebattle.backend.cube.Move;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary replay format, version 1:
+ * <pre>
+ * byte      version
+ * int64     scramble seed (the scramble itself is regenerated from it)
+ * varint    scramble length
+ * varint    move count n
+ * n bytes   Move ordinals
+ * n varints ms since the previous move (the first one since match start)
+ * </pre>
+ * A 60 move solve takes roughly 150 bytes.
+ */
+public final class ReplayCodec {
+
+    static final byte VERSION = 1;
+
+    private static final int MOVE_COUNT = Move.values().length;
+
+    private ReplayCodec() {}
+
+    public static byte[] encode(long scrambleSeed, int scrambleLength, SolveRecording recording) {
+        int n = recording.size();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + n * 3);
+        out.write(VERSION);
+        for (int shift = 56; shift >= 0; shift -= 8) out.write((int) (scrambleSeed >>> shift));
+        writeVarint(out, scrambleLength);
+        writeVarint(out, n);
+        for (int i = 0; i < n; i++) out.write(recording.moveOrdinalAt(i));
+
+        int prev = 0;
+        for (int i = 0; i < n; i++) {
+            writeVarint(out, recording.atMs(i) - prev);
+            prev = recording.atMs(i);
+        }
+        return out.toByteArray();
+    }
+
+    public static Replay decode(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        byte version = in.get();
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported replay version: " + version);
+
+        long seed = in.getLong();
+        int scrambleLength = readVarint(in);
+        int n = readVarint(in);
+
+        byte[] moves = new byte[n];
+        in.get(moves);
+        for (byte m : moves) {
+            if (m < 0 || m >= MOVE_COUNT) throw new IllegalArgumentException("Invalid move ordinal: " + m);
+        }
+
+        int[] atMs = new int[n];
+        int at = 0;
+        for (int i = 0; i < n; i++) {
+            at += readVarint(in);
+            atMs[i] = at;
+        }
+        return new Replay(seed, scrambleLength, moves, atMs);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+}
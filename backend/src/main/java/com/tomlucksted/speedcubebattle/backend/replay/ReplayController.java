@@ -0,0 +1,96 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import com.tomlucksted.speedcubebattle.backend.cube.CubeState;
+import com.tomlucksted.speedcubebattle.backend.cube.Move;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/replays")
+public class ReplayController {
+
+    // Replays sind unveränderlich
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(30)).cachePublic().immutable();
+
+    private final ReplayService replayService;
+
+    public ReplayController(ReplayService replayService) {
+        this.replayService = replayService;
+    }
+
+    @GetMapping("/{matchId}/{playerId}/raw")
+    public ResponseEntity<byte[]> raw(@PathVariable String matchId, @PathVariable String playerId) {
+        byte[] data = replayService.findEncoded(matchId, playerId);
+        if (data == null) return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(data.length)
+                .cacheControl(IMMUTABLE)
+                .body(data);
+    }
+
+    @GetMapping("/{matchId}/{playerId}")
+    public ResponseEntity<ReplayView> replay(@PathVariable String matchId, @PathVariable String playerId) {
+        ReplayTimeline timeline = replayService.timeline(matchId, playerId);
+        if (timeline == null) return ResponseEntity.notFound().build();
+
+        Replay replay = timeline.replay();
+        List<ReplayView.Frame> moves = new ArrayList<>(replay.moveCount());
+        for (int i = 0; i < replay.moveCount(); i++) {
+            moves.add(new ReplayView.Frame(replay.move(i).notation(), replay.atMs(i)));
+        }
+        List<String> checkpoints = new ArrayList<>(timeline.checkpointCount());
+        for (int i = 0; i < timeline.checkpointCount(); i++) {
+            checkpoints.add(timeline.checkpointFacelets(i));
+        }
+
+        var view = new ReplayView(
+                matchId,
+                playerId,
+                replay.scrambleSeed(),
+                timeline.scramble().stream().map(Move::notation).toList(),
+                replay.moveCount(),
+                replay.durationMs(),
+                moves,
+                ReplayTimeline.CHECKPOINT_INTERVAL,
+                checkpoints
+        );
+        return ResponseEntity.ok().cacheControl(IMMUTABLE).body(view);
+    }
+
+    // Seek per Frame-Nummer oder per Zeit (ms seit Matchstart)
+    @GetMapping("/{matchId}/{playerId}/state")
+    public ResponseEntity<ReplayStateView> state(
+            @PathVariable String matchId,
+            @PathVariable String playerId,
+            @RequestParam(required = false) Integer frame,
+            @RequestParam(required = false) Long atMs
+    ) {
+        ReplayTimeline timeline = replayService.timeline(matchId, playerId);
+        if (timeline == null) return ResponseEntity.notFound().build();
+
+        int target;
+        if (frame != null) target = frame;
+        else if (atMs != null) target = timeline.frameAt(atMs);
+        else target = timeline.frameCount() - 1;
+
+        if (target < 0 || target >= timeline.frameCount()) return ResponseEntity.badRequest().build();
+
+        CubeState cube = timeline.stateAt(target);
+        int at = target == 0 ? 0 : timeline.replay().atMs(target - 1);
+        return ResponseEntity.ok()
+                .cacheControl(IMMUTABLE)
+                .body(new ReplayStateView(matchId, playerId, target, at, cube.facelets(), cube.isSolved()));
+    }
+}
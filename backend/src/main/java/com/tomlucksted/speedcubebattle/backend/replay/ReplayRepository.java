@@ -0,0 +1,63 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public class ReplayRepository {
+
+    private static final RowMapper<StoredReplay> STORED = (rs, i) -> new StoredReplay(
+            rs.getString(1), rs.getString(2), ReplayCodec.decode(rs.getBytes(3)));
+
+    private final JdbcTemplate jdbc;
+
+    public ReplayRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void saveAll(String matchId, List<Row> rows, Instant now) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate(
+                "INSERT INTO match_replays (match_id, player_id, data, duration_ms, recorded_at) VALUES (?, ?, ?, ?, ?) ON CONFLICT (match_id, player_id) DO NOTHING",
+                rows,
+                rows.size(),
+                (ps, row) -> {
+                    ps.setString(1, matchId);
+                    ps.setString(2, row.playerId());
+                    ps.setBytes(3, row.data());
+                    ps.setInt(4, row.durationMs());
+                    ps.setTimestamp(5, Timestamp.from(now));
+                }
+        );
+    }
+
+    public byte[] find(String matchId, String playerId) {
+        var rows = jdbc.query(
+                "SELECT data FROM match_replays WHERE match_id = ? AND player_id = ?",
+                (rs, i) -> rs.getBytes(1),
+                matchId, playerId
+        );
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    public StoredReplay findFastestOf(String playerId) {
+        var rows = jdbc.query(
+                "SELECT match_id, player_id, data FROM match_replays WHERE player_id = ? AND duration_ms IS NOT NULL ORDER BY duration_ms LIMIT 1",
+                STORED, playerId);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    public StoredReplay findFastest() {
+        var rows = jdbc.query(
+                "SELECT match_id, player_id, data FROM match_replays WHERE duration_ms IS NOT NULL ORDER BY duration_ms LIMIT 1",
+                STORED);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    public record Row(String playerId, byte[] data, int durationMs) {}
+}
@@ -0,0 +1,80 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import com.tomlucksted.speedcubebattle.backend.events.EventDispatcher;
+import com.tomlucksted.speedcubebattle.backend.events.EventHandoff;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ReplayService {
+
+    private static final int TIMELINE_CACHE_SIZE = 256;
+
+    private final ReplayRepository repository;
+    private final EventDispatcher dispatcher;
+
+    // Replays ändern sich nie, Checkpoints müssen pro Replay also nur einmal berechnet werden
+    private final Map<String, ReplayTimeline> timelines = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ReplayTimeline> eldest) {
+                    return size() > TIMELINE_CACHE_SIZE;
+                }
+            });
+
+    public ReplayService(ReplayRepository repository, EventDispatcher dispatcher) {
+        this.repository = repository;
+        this.dispatcher = dispatcher;
+    }
+
+    // kommt vom Thread des letzten Zugs: kodieren ist billig, der Insert läuft auf dem EventDispatcher
+    @EventListener
+    public void onSolvesRecorded(SolvesRecordedEvent event) {
+        // abgebrochene Matches ohne Lösung
+        if (event.solvesByPlayer().isEmpty()) return;
+        List<ReplayRepository.Row> rows = new ArrayList<>(event.solvesByPlayer().size());
+        event.solvesByPlayer().forEach((playerId, recording) -> rows.add(new ReplayRepository.Row(
+                playerId,
+                ReplayCodec.encode(event.scrambleSeed(), event.scrambleLength(), recording),
+                recording.durationMs())));
+        Instant recordedAt = Instant.now();
+        dispatcher.dispatch(EventHandoff.REPLAY_SAVE, () -> repository.saveAll(event.matchId(), rows, recordedAt));
+    }
+
+    public byte[] findEncoded(String matchId, String playerId) {
+        return repository.find(matchId, playerId);
+    }
+
+    public StoredReplay find(String matchId, String playerId) {
+        ReplayTimeline timeline = timeline(matchId, playerId);
+        return timeline == null ? null : new StoredReplay(matchId, playerId, timeline.replay());
+    }
+
+    public StoredReplay personalBest(String playerId) {
+        return repository.findFastestOf(playerId);
+    }
+
+    public StoredReplay fastest() {
+        return repository.findFastest();
+    }
+
+    public ReplayTimeline timeline(String matchId, String playerId) {
+        String key = matchId + '/' + playerId;
+        ReplayTimeline cached = timelines.get(key);
+        if (cached != null) return cached;
+
+        byte[] data = repository.find(matchId, playerId);
+        if (data == null) return null;
+
+        ReplayTimeline timeline = new ReplayTimeline(ReplayCodec.decode(data));
+        timelines.put(key, timeline);
+        return timeline;
+    }
+}
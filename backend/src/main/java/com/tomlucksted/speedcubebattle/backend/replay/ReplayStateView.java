@@ -0,0 +1,10 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+public record ReplayStateView(
+        String matchId,
+        String playerId,
+        int frame,
+        int atMs,
+        String facelets,
+        boolean solved
+) {}
@@ -0,0 +1,71 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import com.tomlucksted.speedcubebattle.backend.cube.CubeState;
+import com.tomlucksted.speedcubebattle.backend.cube.Move;
+import com.tomlucksted.speedcubebattle.backend.cube.ScrambleGenerator;
+
+import java.util.List;
+
+/**
+ * Seekable view of a replay. Frame 0 is the scrambled cube, frame n the cube
+ * after n moves. A checkpoint is kept every {@link #CHECKPOINT_INTERVAL} moves,
+ * so any frame is reached with at most CHECKPOINT_INTERVAL - 1 moves.
+ */
+public final class ReplayTimeline {
+
+    public static final int CHECKPOINT_INTERVAL = 16;
+
+    private final Replay replay;
+    private final List<Move> scramble;
+    private final CubeState[] checkpoints;
+
+    public ReplayTimeline(Replay replay) {
+        this.replay = replay;
+        this.scramble = ScrambleGenerator.generate(replay.scrambleSeed(), replay.scrambleLength());
+
+        CubeState cube = new CubeState();
+        for (Move m : scramble) cube.apply(m);
+
+        int n = replay.moveCount();
+        checkpoints = new CubeState[n / CHECKPOINT_INTERVAL + 1];
+        checkpoints[0] = new CubeState(cube);
+        for (int i = 0; i < n; i++) {
+            cube.apply(replay.move(i));
+            if ((i + 1) % CHECKPOINT_INTERVAL == 0) {
+                checkpoints[(i + 1) / CHECKPOINT_INTERVAL] = new CubeState(cube);
+            }
+        }
+    }
+
+    public Replay replay() { return replay; }
+    public List<Move> scramble() { return scramble; }
+    public int frameCount() { return replay.moveCount() + 1; }
+
+    /** Returns a fresh cube, callers may mutate it. */
+    public CubeState stateAt(int frame) {
+        if (frame < 0 || frame > replay.moveCount()) {
+            throw new IndexOutOfBoundsException("Frame " + frame + " outside 0.." + replay.moveCount());
+        }
+        int checkpoint = frame / CHECKPOINT_INTERVAL;
+        CubeState cube = new CubeState(checkpoints[checkpoint]);
+        for (int i = checkpoint * CHECKPOINT_INTERVAL; i < frame; i++) cube.apply(replay.move(i));
+        return cube;
+    }
+
+    // Anzahl der Züge, die bis einschließlich atMs gemacht wurden
+    public int frameAt(long atMs) {
+        int lo = 0, hi = replay.moveCount();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (replay.atMs(mid) <= atMs) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    public String checkpointFacelets(int checkpoint) {
+        return checkpoints[checkpoint].facelets();
+    }
+
+    public int checkpointCount() { return checkpoints.length; }
+}
@@ -0,0 +1,18 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import java.util.List;
+
+// checkpoints[k] = Facelets nach k * checkpointInterval Zügen, damit Clients lokal spulen können
+public record ReplayView(
+        String matchId,
+        String playerId,
+        long scrambleSeed,
+        List<String> scramble,
+        int moveCount,
+        int durationMs,
+        List<Frame> moves,
+        int checkpointInterval,
+        List<String> checkpoints
+) {
+    public record Frame(String move, int atMs) {}
+}
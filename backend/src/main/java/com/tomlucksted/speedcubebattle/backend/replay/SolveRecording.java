@@ -0,0 +1,35 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import com.tomlucksted.speedcubebattle.backend.cube.Move;
+
+import java.util.Arrays;
+
+// Züge eines Spielers während eines Matches; wird nur unter dem Match-Lock beschrieben
+public final class SolveRecording {
+    // Zeit in den oberen 27 Bit, Zug in den unteren 5 -> ein Array statt zwei
+    private static final int MOVE_BITS = 5;
+    private static final int MAX_AT_MS = Integer.MAX_VALUE >>> MOVE_BITS;
+
+    private int[] entries = new int[64];
+    private int size;
+
+    public void record(Move move, long elapsedMs) {
+        if (size == entries.length) entries = Arrays.copyOf(entries, size * 2);
+
+        // Zeitstempel monoton halten, damit die Deltas nie negativ werden
+        int at = (int) Math.min(Math.max(elapsedMs, 0), MAX_AT_MS);
+        if (size > 0) at = Math.max(at, atMs(size - 1));
+
+        entries[size++] = at << MOVE_BITS | move.ordinal();
+    }
+
+    public int size() { return size; }
+
+    public int durationMs() { return size == 0 ? 0 : atMs(size - 1); }
+
+    public int capacity() { return entries.length; }
+
+    byte moveOrdinalAt(int i) { return (byte) (entries[i] & (1 << MOVE_BITS) - 1); }
+
+    int atMs(int i) { return entries[i] >>> MOVE_BITS; }
+}
@@ -0,0 +1,11 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import java.util.Map;
+
+// Aufzeichnungen sind nach Matchende unveränderlich und dürfen ohne Lock gelesen werden
+public record SolvesRecordedEvent(
+        String matchId,
+        long scrambleSeed,
+        int scrambleLength,
+        Map<String, SolveRecording> solvesByPlayer
+) {}
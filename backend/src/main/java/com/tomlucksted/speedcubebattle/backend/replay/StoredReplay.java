@@ -0,0 +1,3 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+public record StoredReplay(String matchId, String playerId, Replay replay) {}
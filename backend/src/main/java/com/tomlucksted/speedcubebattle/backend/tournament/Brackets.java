@@ -0,0 +1,137 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+final class Brackets {
+
+    private Brackets() {}
+
+    static int rounds(int players) {
+        return players <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(players - 1);
+    }
+
+    /**
+     * First knockout round in standard seed order (1 v P, then 8 v 9, ...), so the
+     * top seeds only meet late. Missing slots become byes for the top seeds.
+     */
+    static List<Series> firstEliminationRound(List<String> seeded, int bestOf) {
+        int size = Integer.highestOneBit(Math.max(seeded.size(), 2) - 1) << 1;
+        int[] order = seedOrder(size);
+
+        List<Series> round = new ArrayList<>(size / 2);
+        for (int i = 0; i < size; i += 2) {
+            int a = order[i] - 1;
+            int b = order[i + 1] - 1;
+            round.add(new Series(seeded.get(a), b < seeded.size() ? seeded.get(b) : null, bestOf));
+        }
+        return round;
+    }
+
+    // Nachbarn im Bracket spielen gegeneinander
+    static List<Series> nextEliminationRound(List<Series> previous, int bestOf) {
+        List<Series> round = new ArrayList<>(previous.size() / 2);
+        for (int i = 0; i + 1 < previous.size(); i += 2) {
+            round.add(new Series(previous.get(i).winner(), previous.get(i + 1).winner(), bestOf));
+        }
+        return round;
+    }
+
+    // [1, 2] -> [1, 4, 2, 3] -> [1, 8, 4, 5, 2, 7, 3, 6] ...
+    static int[] seedOrder(int size) {
+        int[] order = {1, 2};
+        while (order.length < size) {
+            int n = order.length * 2;
+            int[] next = new int[n];
+            for (int i = 0; i < order.length; i++) {
+                next[2 * i] = order[i];
+                next[2 * i + 1] = n + 1 - order[i];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    // Obergrenze für die Suche nach einer Paarung ohne Rematch, danach gierig mit Rematch
+    static final int SWISS_SEARCH_BUDGET = 100_000;
+
+    /**
+     * Swiss pairing: players sorted by points, each paired with the highest-ranked
+     * player below them they haven't met yet, backtracking when that leaves a rematch
+     * further down. Only if no rematch-free pairing is found within the search budget
+     * does it fall back to greedy pairing with rematches. With an odd count the
+     * lowest-ranked player without a bye so far gets one.
+     */
+    static List<Series> swissRound(List<String> players, Map<String, Integer> points,
+                                   Map<String, Set<String>> opponents, Set<String> byes, int bestOf) {
+        List<String> ranked = new ArrayList<>(players);
+        ranked.sort(Comparator.comparingInt((String p) -> points.getOrDefault(p, 0)).reversed());
+
+        List<Series> round = new ArrayList<>(ranked.size() / 2 + 1);
+        if (ranked.size() % 2 == 1) {
+            int byeIndex = ranked.size() - 1;
+            for (int i = ranked.size() - 1; i >= 0; i--) {
+                if (!byes.contains(ranked.get(i))) {
+                    byeIndex = i;
+                    break;
+                }
+            }
+            round.add(new Series(ranked.remove(byeIndex), null, bestOf));
+        }
+
+        int[] partner = new int[ranked.size()];
+        Arrays.fill(partner, -1);
+        if (!pairFresh(ranked, opponents, partner, new int[]{SWISS_SEARCH_BUDGET})) {
+            Arrays.fill(partner, -1);
+            pairGreedy(ranked, opponents, partner);
+        }
+
+        for (int i = 0; i < ranked.size(); i++) {
+            if (partner[i] > i) round.add(new Series(ranked.get(i), ranked.get(partner[i]), bestOf));
+        }
+        return round;
+    }
+
+    // Tiefensuche in Ranglistenreihenfolge; Tiefe höchstens Spieler / 2
+    private static boolean pairFresh(List<String> ranked, Map<String, Set<String>> opponents,
+                                     int[] partner, int[] budget) {
+        int i = 0;
+        while (i < partner.length && partner[i] >= 0) i++;
+        if (i == partner.length) return true;
+
+        Set<String> met = opponents.getOrDefault(ranked.get(i), Set.of());
+        for (int j = i + 1; j < partner.length; j++) {
+            if (partner[j] >= 0 || met.contains(ranked.get(j))) continue;
+            if (--budget[0] < 0) return false;
+            partner[i] = j;
+            partner[j] = i;
+            if (pairFresh(ranked, opponents, partner, budget)) return true;
+            partner[i] = -1;
+            partner[j] = -1;
+        }
+        return false;
+    }
+
+    private static void pairGreedy(List<String> ranked, Map<String, Set<String>> opponents, int[] partner) {
+        for (int i = 0; i < ranked.size(); i++) {
+            if (partner[i] >= 0) continue;
+            Set<String> met = opponents.getOrDefault(ranked.get(i), Set.of());
+
+            int j = -1;
+            for (int k = i + 1; k < ranked.size(); k++) {
+                if (partner[k] >= 0) continue;
+                if (j < 0) j = k; // Notlösung: Rematch
+                if (!met.contains(ranked.get(k))) {
+                    j = k;
+                    break;
+                }
+            }
+            partner[i] = j;
+            partner[j] = i;
+        }
+    }
+}
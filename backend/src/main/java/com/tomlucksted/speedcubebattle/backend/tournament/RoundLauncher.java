@@ -0,0 +1,62 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single thread that owns all tournament progression. Match starts of a round
+ * are released in batches with a pause in between, so a round with hundreds of
+ * matches is spread over a few hundred ms instead of competing with running
+ * matches for CPU and socket writes in one burst.
+ */
+public final class RoundLauncher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RoundLauncher.class);
+
+    private final int batchSize;
+    private final long batchIntervalMs;
+    private final ScheduledExecutorService executor;
+
+    public RoundLauncher(int batchSize, long batchIntervalMs) {
+        this.batchSize = Math.max(batchSize, 1);
+        this.batchIntervalMs = Math.max(batchIntervalMs, 0);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> Thread.ofPlatform()
+                .name("tournament-launcher")
+                .daemon(true)
+                .priority(Thread.NORM_PRIORITY - 1)
+                .unstarted(r));
+    }
+
+    public void execute(Runnable task) {
+        executor.execute(() -> runSafely(task));
+    }
+
+    public void schedule(Runnable task, long delayMs) {
+        executor.schedule(() -> runSafely(task), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void launch(List<Runnable> starts) {
+        for (int from = 0, batch = 0; from < starts.size(); from += batchSize, batch++) {
+            List<Runnable> chunk = starts.subList(from, Math.min(from + batchSize, starts.size()));
+            executor.schedule(() -> chunk.forEach(this::runSafely), batch * batchIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("Tournament task failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,18 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import com.tomlucksted.speedcubebattle.backend.cube.CubeState;
+import com.tomlucksted.speedcubebattle.backend.cube.Move;
+import com.tomlucksted.speedcubebattle.backend.cube.ScrambleGenerator;
+
+import java.util.List;
+
+// Einmal pro Runde und Spiel erzeugt; scrambled wird von jedem Match nur kopiert
+record RoundScramble(long seed, List<Move> moves, CubeState scrambled) {
+
+    static RoundScramble of(long seed, int length) {
+        List<Move> moves = ScrambleGenerator.generate(seed, length);
+        CubeState scrambled = new CubeState();
+        for (Move m : moves) scrambled.apply(m);
+        return new RoundScramble(seed, moves, scrambled);
+    }
+}
@@ -0,0 +1,61 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+// Best-of-N zwischen zwei Spielern einer Runde; playerB == null ist ein Freilos
+public final class Series {
+    private final String playerA;
+    private final String playerB;
+    private final int bestOf;
+
+    private int winsA;
+    private int winsB;
+    private int game;
+    private String matchId;
+    private String winner;
+
+    Series(String playerA, String playerB, int bestOf) {
+        this.playerA = playerA;
+        this.playerB = playerB;
+        this.bestOf = bestOf;
+        if (playerB == null) winner = playerA;
+    }
+
+    public String playerA() { return playerA; }
+    public String playerB() { return playerB; }
+    public int winsA() { return winsA; }
+    public int winsB() { return winsB; }
+    public int game() { return game; }
+    public String matchId() { return matchId; }
+    public String winner() { return winner; }
+
+    public boolean isBye() { return playerB == null; }
+    public boolean decided() { return winner != null; }
+
+    public String loser() {
+        if (winner == null || playerB == null) return null;
+        return winner.equals(playerA) ? playerB : playerA;
+    }
+
+    void gameStarted(String matchId) {
+        this.matchId = matchId;
+    }
+
+    void recordWin(String playerId) {
+        if (winner != null) return;
+        int needed = bestOf / 2 + 1;
+        if (playerA.equals(playerId)) winsA++;
+        else if (playerB.equals(playerId)) winsB++;
+        else return;
+
+        game++;
+        matchId = null;
+        if (winsA >= needed) winner = playerA;
+        else if (winsB >= needed) winner = playerB;
+    }
+
+    // Nicht verbunden beim Spielstart -> Serie verloren
+    void forfeit(String playerId) {
+        if (winner != null) return;
+        winner = playerA.equals(playerId) ? playerB : playerA;
+        matchId = null;
+    }
+}
@@ -0,0 +1,161 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.TournamentStanding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Zugriff nur unter synchronized(tournament), siehe TournamentService
+public class Tournament {
+    private final String id;
+    private final TournamentFormat format;
+    private final int bestOf;
+    private final int maxPlayers;
+    private final String hostPlayerId;
+
+    private TournamentState state = TournamentState.REGISTRATION;
+
+    // Reihenfolge der Anmeldung = Setzliste
+    private final List<String> players = new ArrayList<>();
+    private final Map<String, String> sessionByPlayer = new HashMap<>();
+
+    private final Map<String, Integer> points = new HashMap<>();
+    private final Map<String, Set<String>> opponents = new HashMap<>();
+    private final Set<String> byes = new HashSet<>();
+
+    private int round;
+    private int totalRounds;
+    private List<Series> series = List.of();
+    private long roundSeed;
+    private RoundScramble[] scrambles;
+    private String winnerId;
+
+    Tournament(String id, TournamentFormat format, int bestOf, int maxPlayers, String hostPlayerId) {
+        this.id = id;
+        this.format = format;
+        this.bestOf = bestOf;
+        this.maxPlayers = maxPlayers;
+        this.hostPlayerId = hostPlayerId;
+    }
+
+    public String id() { return id; }
+    public TournamentFormat format() { return format; }
+    public int bestOf() { return bestOf; }
+    public String hostPlayerId() { return hostPlayerId; }
+    public TournamentState state() { return state; }
+    public int round() { return round; }
+    public int totalRounds() { return totalRounds; }
+    public int playerCount() { return players.size(); }
+    public List<Series> series() { return series; }
+    public String winnerId() { return winnerId; }
+
+    boolean isFull() { return players.size() >= maxPlayers; }
+
+    boolean isRegistered(String playerId) { return sessionByPlayer.containsKey(playerId); }
+
+    String sessionOf(String playerId) { return sessionByPlayer.get(playerId); }
+
+    List<String> sessionIds() {
+        List<String> ids = new ArrayList<>(sessionByPlayer.size());
+        for (String sessionId : sessionByPlayer.values()) {
+            if (sessionId != null) ids.add(sessionId);
+        }
+        return ids;
+    }
+
+    void register(String playerId, String sessionId) {
+        if (!sessionByPlayer.containsKey(playerId)) players.add(playerId);
+        sessionByPlayer.put(playerId, sessionId);
+    }
+
+    // Spieler bleibt angemeldet, verliert aber Serien, die ohne Verbindung starten
+    void sessionClosed(String sessionId) {
+        sessionByPlayer.replaceAll((playerId, current) -> sessionId.equals(current) ? null : current);
+    }
+
+    void begin() {
+        state = TournamentState.RUNNING;
+        totalRounds = Brackets.rounds(players.size());
+    }
+
+    List<Series> nextPairings() {
+        if (format == TournamentFormat.SWISS) {
+            return Brackets.swissRound(players, points, opponents, byes, bestOf);
+        }
+        return round == 0
+                ? Brackets.firstEliminationRound(players, bestOf)
+                : Brackets.nextEliminationRound(series, bestOf);
+    }
+
+    void beginRound(List<Series> pairings, long seed) {
+        round++;
+        series = pairings;
+        roundSeed = seed;
+        scrambles = new RoundScramble[bestOf];
+    }
+
+    // Alle Serien einer Runde spielen Spiel n mit demselben Scramble
+    RoundScramble scrambleFor(int game, int length) {
+        RoundScramble scramble = scrambles[game];
+        if (scramble == null) {
+            scramble = RoundScramble.of(roundSeed + game, length);
+            scrambles[game] = scramble;
+        }
+        return scramble;
+    }
+
+    boolean roundComplete() {
+        for (Series s : series) {
+            if (!s.decided()) return false;
+        }
+        return true;
+    }
+
+    // Serien-Siege zählen als Punkte (Swiss) und als Tiebreak für die Tabelle
+    void completeRound() {
+        for (Series s : series) {
+            points.merge(s.winner(), 1, Integer::sum);
+            if (s.isBye()) {
+                byes.add(s.playerA());
+            } else {
+                opponents.computeIfAbsent(s.playerA(), k -> new HashSet<>()).add(s.playerB());
+                opponents.computeIfAbsent(s.playerB(), k -> new HashSet<>()).add(s.playerA());
+            }
+        }
+    }
+
+    boolean isLastRound() {
+        return format == TournamentFormat.SWISS ? round >= totalRounds : series.size() <= 1;
+    }
+
+    void cancel() {
+        state = TournamentState.CANCELLED;
+    }
+
+    void finish() {
+        state = TournamentState.FINISHED;
+        if (format == TournamentFormat.SINGLE_ELIMINATION && series.size() == 1) {
+            winnerId = series.getFirst().winner();
+        } else {
+            List<TournamentStanding> table = standings(1);
+            winnerId = table.isEmpty() ? null : table.getFirst().playerId();
+        }
+    }
+
+    // Punkte, dann Buchholz (Summe der Gegnerpunkte)
+    List<TournamentStanding> standings(int limit) {
+        List<TournamentStanding> table = new ArrayList<>(players.size());
+        for (String p : players) {
+            int buchholz = 0;
+            for (String o : opponents.getOrDefault(p, Set.of())) buchholz += points.getOrDefault(o, 0);
+            table.add(new TournamentStanding(p, points.getOrDefault(p, 0), buchholz));
+        }
+        table.sort(Comparator.comparingInt(TournamentStanding::points).thenComparingInt(TournamentStanding::buchholz).reversed());
+        return table.size() > limit ? new ArrayList<>(table.subList(0, limit)) : table;
+    }
+}
@@ -0,0 +1,15 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TournamentProperties.class)
+public class TournamentConfig {
+
+    @Bean(destroyMethod = "close")
+    public RoundLauncher roundLauncher(TournamentProperties props) {
+        return new RoundLauncher(props.startBatchSize(), props.startBatchIntervalMs());
+    }
+}
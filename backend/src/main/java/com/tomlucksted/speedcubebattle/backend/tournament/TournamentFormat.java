@@ -0,0 +1,6 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+public enum TournamentFormat {
+    SINGLE_ELIMINATION,
+    SWISS
+}
@@ -0,0 +1,11 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import com.tomlucksted.speedcubebattle.backend.match.Match;
+import com.tomlucksted.speedcubebattle.backend.match.result.LeaveMatchResult;
+
+import java.util.List;
+
+// game zählt ab 0 innerhalb der Best-of-Serie; released = dafür geräumte Sitze in vorigen Matches
+public record TournamentGameStartedEvent(String tournamentId, int round, int game, int bestOf, Match match,
+                                         List<LeaveMatchResult> released) {
+}
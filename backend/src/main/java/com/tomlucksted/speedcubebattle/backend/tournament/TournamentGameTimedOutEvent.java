@@ -0,0 +1,8 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import com.tomlucksted.speedcubebattle.backend.match.Match;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.MatchEndedPayload;
+
+// Spiel per Zeitlimit beendet; das Ergebnis selbst läuft wie sonst über das MatchFinishedEvent
+public record TournamentGameTimedOutEvent(Match match, MatchEndedPayload ended) {
+}
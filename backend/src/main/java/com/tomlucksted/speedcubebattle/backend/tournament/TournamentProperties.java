@@ -0,0 +1,7 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.tournament")
+public record TournamentProperties(int maxPlayers, int maxBestOf, int startBatchSize, long startBatchIntervalMs,
+                                   long gameTimeoutMs) {}
@@ -0,0 +1,4 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+public record TournamentResult(TournamentResultType type, Tournament tournament) {
+}
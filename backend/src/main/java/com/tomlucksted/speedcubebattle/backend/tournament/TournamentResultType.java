@@ -0,0 +1,11 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+public enum TournamentResultType {
+    OK,
+    NOT_FOUND,
+    INVALID_SETTINGS,
+    NOT_IN_REGISTRATION,
+    FULL,
+    NOT_HOST,
+    NOT_ENOUGH_PLAYERS
+}
@@ -0,0 +1,284 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import com.tomlucksted.speedcubebattle.backend.events.MatchFinishedEvent;
+import com.tomlucksted.speedcubebattle.backend.match.Match;
+import com.tomlucksted.speedcubebattle.backend.match.MatchService;
+import com.tomlucksted.speedcubebattle.backend.match.result.SystemMatchResult;
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.MatchEndedPayload;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.TournamentStatePayload;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs tournaments on top of regular matches. Registration and start come from
+ * the WebSocket threads; everything after that (pairing, starting games,
+ * advancing rounds) runs on the {@link RoundLauncher} thread.
+ */
+@Service
+public class TournamentService {
+
+    private static final int MIN_PLAYERS = 2;
+    private static final int SCRAMBLE_LENGTH = 20;
+    private static final int STANDINGS_LIMIT = 16;
+
+    private final Map<String, Tournament> tournaments = new ConcurrentHashMap<>();
+    private final Map<String, Tournament> tournamentBySession = new ConcurrentHashMap<>();
+    private final Map<String, GameRef> gamesByMatchId = new ConcurrentHashMap<>();
+
+    private final MatchService matchService;
+    private final RoundLauncher launcher;
+    private final TournamentProperties props;
+    private final RealtimeMetrics metrics;
+    private final ApplicationEventPublisher events;
+
+    private record GameRef(Tournament tournament, Series series) {}
+
+    public TournamentService(MatchService matchService, RoundLauncher launcher, TournamentProperties props,
+                             RealtimeMetrics metrics, ApplicationEventPublisher events) {
+        this.matchService = matchService;
+        this.launcher = launcher;
+        this.props = props;
+        this.metrics = metrics;
+        this.events = events;
+    }
+
+    public TournamentResult create(String sessionId, String playerId, TournamentFormat format, int bestOf) {
+        if (format == null || bestOf < 1 || bestOf > props.maxBestOf() || bestOf % 2 == 0) {
+            return new TournamentResult(TournamentResultType.INVALID_SETTINGS, null);
+        }
+
+        Tournament tournament = new Tournament(UUID.randomUUID().toString(), format, bestOf, props.maxPlayers(), playerId);
+        synchronized (tournament) {
+            tournament.register(playerId, sessionId);
+        }
+        tournaments.put(tournament.id(), tournament);
+        tournamentBySession.put(sessionId, tournament);
+        return new TournamentResult(TournamentResultType.OK, tournament);
+    }
+
+    // Erneutes Beitreten nach Reconnect bindet nur die neue Session
+    public TournamentResult join(String tournamentId, String sessionId, String playerId) {
+        Tournament tournament = tournaments.get(tournamentId);
+        if (tournament == null) return new TournamentResult(TournamentResultType.NOT_FOUND, null);
+
+        synchronized (tournament) {
+            boolean registered = tournament.isRegistered(playerId);
+            if (!registered && tournament.state() != TournamentState.REGISTRATION) {
+                return new TournamentResult(TournamentResultType.NOT_IN_REGISTRATION, tournament);
+            }
+            if (!registered && tournament.isFull()) return new TournamentResult(TournamentResultType.FULL, tournament);
+
+            tournament.register(playerId, sessionId);
+        }
+        tournamentBySession.put(sessionId, tournament);
+        return new TournamentResult(TournamentResultType.OK, tournament);
+    }
+
+    public TournamentResult start(String tournamentId, String sessionId) {
+        Tournament tournament = tournaments.get(tournamentId);
+        if (tournament == null) return new TournamentResult(TournamentResultType.NOT_FOUND, null);
+
+        synchronized (tournament) {
+            if (tournament.state() != TournamentState.REGISTRATION) {
+                return new TournamentResult(TournamentResultType.NOT_IN_REGISTRATION, tournament);
+            }
+            if (!sessionId.equals(tournament.sessionOf(tournament.hostPlayerId()))) {
+                return new TournamentResult(TournamentResultType.NOT_HOST, tournament);
+            }
+            if (tournament.playerCount() < MIN_PLAYERS) {
+                return new TournamentResult(TournamentResultType.NOT_ENOUGH_PLAYERS, tournament);
+            }
+            tournament.begin();
+        }
+
+        launcher.execute(() -> startNextRound(tournament));
+        return new TournamentResult(TournamentResultType.OK, tournament);
+    }
+
+    public void sessionClosed(String sessionId) {
+        Tournament tournament = tournamentBySession.remove(sessionId);
+        if (tournament == null) return;
+
+        boolean cancelled;
+        synchronized (tournament) {
+            // Host weg, bevor es losging: starten könnte es sonst niemand mehr
+            cancelled = tournament.state() == TournamentState.REGISTRATION
+                    && sessionId.equals(tournament.sessionOf(tournament.hostPlayerId()));
+            tournament.sessionClosed(sessionId);
+            if (cancelled) tournament.cancel();
+        }
+
+        if (cancelled) {
+            publishState(tournament);
+            forget(tournament);
+        }
+    }
+
+    public TournamentStatePayload stateOf(Tournament tournament) {
+        synchronized (tournament) {
+            return new TournamentStatePayload(
+                    tournament.id(),
+                    tournament.format(),
+                    tournament.bestOf(),
+                    tournament.state(),
+                    tournament.round(),
+                    tournament.totalRounds(),
+                    tournament.playerCount(),
+                    tournament.winnerId(),
+                    tournament.round() == 0 ? List.of() : tournament.standings(STANDINGS_LIMIT)
+            );
+        }
+    }
+
+    // Matches laufen sonst völlig normal; hier wird nur das Ergebnis der Serie zugeordnet
+    @EventListener
+    public void onMatchFinished(MatchFinishedEvent event) {
+        GameRef ref = gamesByMatchId.remove(event.matchId());
+        if (ref == null) return;
+
+        // nur wer gelöst hat, gewinnt; alle DNF -> Spiel ohne Sieger
+        String winner = event.results().stream()
+                .filter(r -> !r.dnf())
+                .min(Comparator.comparingInt(MatchFinishedEvent.Result::placement))
+                .map(MatchFinishedEvent.Result::playerId)
+                .orElse(null);
+        launcher.execute(() -> gameFinished(ref, winner));
+    }
+
+    // --- ab hier nur auf dem Launcher-Thread ---
+
+    private void startNextRound(Tournament tournament) {
+        long start = System.nanoTime();
+        List<Series> pairings;
+        synchronized (tournament) {
+            pairings = tournament.nextPairings();
+            tournament.beginRound(pairings, ThreadLocalRandom.current().nextLong());
+            // Scramble für Spiel 1 einmal vorab, nicht im ersten Batch der Starts
+            tournament.scrambleFor(0, SCRAMBLE_LENGTH);
+        }
+        publishState(tournament);
+
+        List<Runnable> starts = new ArrayList<>(pairings.size());
+        for (Series series : pairings) {
+            if (!series.isBye()) starts.add(() -> startGame(tournament, series));
+        }
+        launcher.launch(starts);
+        metrics.recordTournamentRoundPrepared(System.nanoTime() - start);
+
+        // Runde nur aus Freilosen (kommt praktisch nicht vor) -> direkt weiter
+        if (starts.isEmpty()) roundMaybeComplete(tournament);
+    }
+
+    private void startGame(Tournament tournament, Series series) {
+        Map<String, String> seats = new LinkedHashMap<>();
+        RoundScramble scramble;
+        int round;
+        int game;
+        synchronized (tournament) {
+            if (series.decided()) return;
+
+            String sessionA = tournament.sessionOf(series.playerA());
+            String sessionB = tournament.sessionOf(series.playerB());
+            if (sessionA == null || sessionB == null) {
+                series.forfeit(sessionA == null ? series.playerA() : series.playerB());
+                scramble = null;
+            } else {
+                seats.put(series.playerA(), sessionA);
+                seats.put(series.playerB(), sessionB);
+                scramble = tournament.scrambleFor(series.game(), SCRAMBLE_LENGTH);
+            }
+            round = tournament.round();
+            game = series.game();
+        }
+
+        if (scramble == null) {
+            roundMaybeComplete(tournament);
+            return;
+        }
+
+        SystemMatchResult started = matchService.startSystemMatch(seats, scramble.seed(), scramble.moves(), scramble.scrambled());
+        Match match = started.match();
+        gamesByMatchId.put(match.id(), new GameRef(tournament, series));
+        // nur die Id festhalten, das Match selbst soll der Timer nicht am Leben halten
+        String matchId = match.id();
+        launcher.schedule(() -> gameTimedOut(matchId), props.gameTimeoutMs());
+        metrics.tournamentMatchStarted();
+        synchronized (tournament) {
+            series.gameStarted(match.id());
+        }
+        events.publishEvent(new TournamentGameStartedEvent(tournament.id(), round, game, tournament.bestOf(), match, started.released()));
+    }
+
+    // Spiel ohne Ergebnis im Zeitlimit: beenden, die Serie geht dann über onMatchFinished weiter
+    private void gameTimedOut(String matchId) {
+        GameRef ref = gamesByMatchId.get(matchId);
+        if (ref == null) return;
+
+        Match match = matchService.getMatch(matchId);
+        MatchEndedPayload ended = matchService.timeOut(matchId);
+        if (ended != null) {
+            events.publishEvent(new TournamentGameTimedOutEvent(match, ended));
+        } else if (gamesByMatchId.remove(matchId, ref)) {
+            // Match ist weg, ohne dass ein Ergebnis kam
+            gameFinished(ref, null);
+        }
+    }
+
+    private void gameFinished(GameRef ref, String winner) {
+        Tournament tournament = ref.tournament();
+        Series series = ref.series();
+
+        boolean nextGame;
+        synchronized (tournament) {
+            // ohne Ergebnis gewinnt der höher Gesetzte
+            if (winner != null) series.recordWin(winner);
+            else series.forfeit(series.playerB());
+            nextGame = !series.decided();
+        }
+
+        if (nextGame) startGame(tournament, series);
+        else roundMaybeComplete(tournament);
+    }
+
+    private void roundMaybeComplete(Tournament tournament) {
+        boolean finished;
+        synchronized (tournament) {
+            if (tournament.state() != TournamentState.RUNNING || !tournament.roundComplete()) return;
+
+            tournament.completeRound();
+            finished = tournament.isLastRound();
+            if (finished) tournament.finish();
+        }
+
+        if (finished) {
+            publishState(tournament);
+            forget(tournament);
+        } else {
+            startNextRound(tournament);
+        }
+    }
+
+    private void forget(Tournament tournament) {
+        tournaments.remove(tournament.id());
+        tournamentBySession.values().removeIf(t -> t == tournament);
+    }
+
+    private void publishState(Tournament tournament) {
+        List<String> sessionIds;
+        synchronized (tournament) {
+            sessionIds = tournament.sessionIds();
+        }
+        events.publishEvent(new TournamentUpdatedEvent(stateOf(tournament), sessionIds));
+    }
+}
@@ -0,0 +1,8 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+public enum TournamentState {
+    REGISTRATION,
+    RUNNING,
+    FINISHED,
+    CANCELLED
+}
@@ -0,0 +1,8 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.TournamentStatePayload;
+
+import java.util.List;
+
+public record TournamentUpdatedEvent(TournamentStatePayload state, List<String> sessionIds) {
+}
@@ -0,0 +1,585 @@
+package com.tomlucksted.speedcubebattle.backend.websocket;
+
+import com.tomlucksted.speedcubebattle.backend.anticheat.AntiCheatService;
+import com.tomlucksted.speedcubebattle.backend.cube.Move;
+import com.tomlucksted.speedcubebattle.backend.ghost.GhostRaceService;
+import com.tomlucksted.speedcubebattle.backend.latency.LatencyTracker;
+import com.tomlucksted.speedcubebattle.backend.match.result.*;
+import com.tomlucksted.speedcubebattle.backend.match.Match;
+import com.tomlucksted.speedcubebattle.backend.match.MatchService;
+import com.tomlucksted.speedcubebattle.backend.match.MatchState;
+import com.tomlucksted.speedcubebattle.backend.match.participant.MatchParticipant;
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import com.tomlucksted.speedcubebattle.backend.tournament.TournamentGameStartedEvent;
+import com.tomlucksted.speedcubebattle.backend.tournament.TournamentGameTimedOutEvent;
+import com.tomlucksted.speedcubebattle.backend.tournament.TournamentResult;
+import com.tomlucksted.speedcubebattle.backend.tournament.TournamentResultType;
+import com.tomlucksted.speedcubebattle.backend.tournament.TournamentService;
+import com.tomlucksted.speedcubebattle.backend.tournament.TournamentUpdatedEvent;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.WsEnvelope;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.WsMessageType;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.in.*;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.out.*;
+import com.tomlucksted.speedcubebattle.backend.websocket.ratelimit.Admission;
+import com.tomlucksted.speedcubebattle.backend.websocket.ratelimit.WsRateLimiter;
+import com.tomlucksted.speedcubebattle.backend.websocket.ratelimit.WsTypeSniffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transport independent protocol handling. The servlet ({@link GameWebSocketHandler})
+ * and the Reactor Netty endpoint only adapt their connections to {@link GameSession}
+ * and feed text frames in here.
+ */
+@Component
+public class GameMessageHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(GameMessageHandler.class);
+
+    private final ObjectMapper om;
+    private final MatchService matchService;
+    private final RealtimeMetrics metrics;
+    private final LatencyTracker latency;
+    private final WsRateLimiter rateLimiter;
+    private final TaskScheduler scheduler;
+    private final GhostRaceService ghosts;
+    private final TournamentService tournaments;
+    private final AntiCheatService antiCheat;
+    private final Duration resumeGrace;
+
+    private final Map<String, GameSession> sessions = new ConcurrentHashMap<>();
+
+    // Ablehnungen vorab serialisiert, damit ein flutender Client nichts mehr kostet
+    private final Map<WsMessageType, OutboundMessage> rateLimitErrors = new EnumMap<>(WsMessageType.class);
+    private final OutboundMessage rateLimitErrorUnknown;
+
+    public GameMessageHandler(MatchService matchService, ObjectMapper om, RealtimeMetrics metrics, LatencyTracker latency,
+                              WsRateLimiter rateLimiter, TaskScheduler scheduler, GhostRaceService ghosts,
+                              TournamentService tournaments, AntiCheatService antiCheat,
+                              @Value("${scb.session.resume-grace-ms:30000}") long resumeGraceMs) {
+        this.matchService = matchService;
+        this.om = om;
+        this.metrics = metrics;
+        this.latency = latency;
+        this.rateLimiter = rateLimiter;
+        this.scheduler = scheduler;
+        this.ghosts = ghosts;
+        this.tournaments = tournaments;
+        this.antiCheat = antiCheat;
+        this.resumeGrace = Duration.ofMillis(resumeGraceMs);
+
+        for (WsMessageType type : WsMessageType.values()) {
+            rateLimitErrors.put(type, rateLimitError("Rate limit exceeded: " + type));
+        }
+        rateLimitErrorUnknown = rateLimitError("Rate limit exceeded");
+    }
+
+    private OutboundMessage rateLimitError(String message) {
+        return new OutboundMessage(om.writeValueAsString(new WsEnvelope<>(WsMessageType.SYS_ERROR, new ErrorPayload(message, ErrorType.WARNING))));
+    }
+
+    // Sessions müssen Sends aus beliebigen Threads vertragen (Heartbeats, Broadcasts, Ghosts)
+    public void opened(GameSession session) {
+        sessions.put(session.id(), session);
+        latency.register(session.id());
+        rateLimiter.register(session.id());
+        metrics.sessionOpened();
+        log.debug("WS connected: {}", session.id());
+    }
+
+    // Typen, deren Verarbeitung selbst blockierend auf die DB geht; Event-Loop-Transporte lagern sie aus.
+    // DB/Broker nach Match-Ende laufen über den EventDispatcher und zählen hier nicht.
+    public boolean mayBlock(WsMessageType type) {
+        return type == WsMessageType.LOBBY_CREATE_GHOST_MATCH;
+    }
+
+    public void handleText(GameSession session, String payload, long receivedNanos) throws Exception {
+        IncomingWsMessage incoming = accept(session, payload, receivedNanos);
+        if (incoming != null) handle(session, incoming, receivedNanos);
+    }
+
+    /**
+     * Admission control and parsing. Returns null if the frame was rejected; the
+     * session has then already been answered or closed.
+     */
+    public IncomingWsMessage accept(GameSession session, String payload, long receivedNanos) throws Exception {
+        WsMessageType sniffed = WsTypeSniffer.sniff(payload);
+        if (!admitted(session, rateLimiter.admit(session.id(), sniffed, receivedNanos), sniffed)) return null;
+
+        long parseStart = System.nanoTime();
+        var incoming = om.readValue(payload, IncomingWsMessage.class);
+        metrics.recordDeserialization(System.nanoTime() - parseStart);
+
+        // "type" weiter hinten oder verschachtelt -> Topf des echten Typs nachbelasten
+        Admission parsed = rateLimiter.admitParsed(session.id(), sniffed, incoming.type(), receivedNanos);
+        return admitted(session, parsed, incoming.type()) ? incoming : null;
+    }
+
+    private boolean admitted(GameSession session, Admission admission, WsMessageType type) throws IOException {
+        if (admission == Admission.ADMITTED) return true;
+
+        metrics.frameRejected(type);
+        if (admission == Admission.DISCONNECT) {
+            metrics.rateLimitDisconnect();
+            session.close(GameSession.POLICY_VIOLATION, "Rate limit exceeded");
+        } else {
+            session.send(type == null ? rateLimitErrorUnknown : rateLimitErrors.get(type));
+        }
+        return false;
+    }
+
+    public void handle(GameSession session, IncomingWsMessage incoming, long receivedNanos) throws Exception {
+        long handleStart = System.nanoTime();
+        try {
+            dispatch(session, incoming, receivedNanos);
+        } finally {
+            if (incoming.type() != null) metrics.recordHandle(incoming.type(), System.nanoTime() - handleStart);
+        }
+    }
+
+    private void dispatch(GameSession session, IncomingWsMessage incoming, long receivedNanos) throws Exception {
+        var type = incoming.type();
+
+        switch (type) {
+            // Spieler-Identität kommt immer aus der Session (Token beim Handshake), nie aus dem Payload
+            case LOBBY_CREATE_MATCH -> {
+                String matchId = matchService.createMatch();
+                var join = matchService.joinMatch(matchId, session.id(), session.playerId());
+                if (join.type() != JoinResultType.OK) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Failed to join created match: " + join.type(), ErrorType.CRITICAL));
+                    return;
+                }
+
+                send(session, WsMessageType.LOBBY_MATCH_CREATED, new MatchCreatedPayload(matchId));
+                sendResumeToken(session, join.match(), session.playerId());
+
+                broadcastToMatch(join.match(),
+                        WsMessageType.LOBBY_PLAYER_JOINED,
+                        new PlayerJoinedPayload(matchId, session.playerId(), join.match().toPlayerInfos())
+                );
+            }
+
+            case LOBBY_CREATE_GHOST_MATCH -> {
+                CreateGhostMatchPayload payload = om.convertValue(incoming.payload(), CreateGhostMatchPayload.class);
+                if (payload.source() == null) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Missing ghost source", ErrorType.WARNING));
+                    return;
+                }
+
+                var replay = ghosts.resolve(payload.source(), session.playerId(), payload.replayMatchId(), payload.replayPlayerId());
+                if (replay == null) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("No recorded solve found for ghost: " + payload.source(), ErrorType.INFO));
+                    return;
+                }
+
+                var join = matchService.createGhostMatch(session.id(), session.playerId(), replay);
+                var match = join.match();
+                send(session, WsMessageType.LOBBY_MATCH_CREATED, new MatchCreatedPayload(match.id()));
+                sendResumeToken(session, match, session.playerId());
+                broadcastToMatch(match, WsMessageType.LOBBY_PLAYER_JOINED,
+                        new PlayerJoinedPayload(match.id(), session.playerId(), match.toPlayerInfos()));
+            }
+
+            case LOBBY_JOIN_MATCH -> {
+                JoinMatchPayload payload = om.convertValue(incoming.payload(), JoinMatchPayload.class);
+                var result = matchService.joinMatch(payload.matchId(), session.id(), session.playerId());
+
+                if(result.type() == JoinResultType.MATCH_NOT_FOUND) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Match not found: " + payload.matchId(), ErrorType.WARNING));
+                    return;
+                } else if (result.type() == JoinResultType.ALREADY_IN_MATCH) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Player already in match: " + session.playerId(), ErrorType.INFO));
+                    return;
+                } else if (result.type() == JoinResultType.MATCH_FULL) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Match is already full: " + payload.matchId(), ErrorType.INFO));
+                    return;
+                } else if (result.type() == JoinResultType.NOT_IN_LOBBY) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("The Match has already started: " + payload.matchId(), ErrorType.INFO));
+                    return;
+                }
+
+                var match = result.match();
+                sendResumeToken(session, match, session.playerId());
+                broadcastToMatch(match, WsMessageType.LOBBY_PLAYER_JOINED, new PlayerJoinedPayload(match.id(), session.playerId(), match.toPlayerInfos()));
+            }
+
+            case LOBBY_SET_READY -> {
+                SetReadyPayload payload = om.convertValue(incoming.payload(), SetReadyPayload.class);
+                var result = matchService.setReady(payload.matchId(), session.playerId(), payload.ready());
+
+                if(result.type() == ReadyResultType.NOT_FOUND) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Match not found: " + payload.matchId(), ErrorType.CRITICAL));
+                    return;
+                } else if (result.type() == ReadyResultType.NOT_IN_LOBBY) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("The game has already started: " + payload.matchId(), ErrorType.WARNING));
+                    return;
+                } else if (result.type() == ReadyResultType.NOT_IN_MATCH) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("You are not part of this match: " + payload.matchId(), ErrorType.CRITICAL));
+                    return;
+                }
+
+                var match = result.match();
+                broadcastToMatch(match, WsMessageType.LOBBY_READY_UPDATED, new ReadyUpdatePayload(match.id(), session.playerId(),payload.ready(), match.toPlayerInfos()));
+            }
+
+            case LOBBY_START_MATCH -> {
+                StartMatchPayload payload = om.convertValue(incoming.payload(), StartMatchPayload.class);
+                var result = matchService.tryStartMatch(payload.matchId(), session.id());
+
+                if(result.type() == StartMatchResultType.NOT_FOUND)
+                {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Match not found: " + payload.matchId(), ErrorType.CRITICAL));
+                    return;
+                } else if(result.type() == StartMatchResultType.NOT_IN_LOBBY) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("The match has already started: " + payload.matchId(), ErrorType.WARNING));
+                    return;
+                } else if(result.type() == StartMatchResultType.NOT_HOST) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("You are not the host of this match: " + payload.matchId(), ErrorType.WARNING));
+                    return;
+                } else if(result.type() == StartMatchResultType.NOT_READY) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Not all players are ready: " + payload.matchId(), ErrorType.WARNING));
+                    return;
+                } else if (result.type() == StartMatchResultType.NOT_IN_MATCH) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("You are not part of this match: " + payload.matchId(), ErrorType.CRITICAL));
+                    return;
+                }
+
+                var match = result.match();
+                announceStart(match);
+
+                if (match.hasGhosts()) {
+                    ghosts.start(match, this::broadcastGhostMove);
+                }
+            }
+
+            case GAME_SUBMIT_MOVE -> {
+                SubmitMovePayload payload = om.convertValue(incoming.payload(), SubmitMovePayload.class);
+                var result = matchService.applyMove(payload.matchId(), session.id(), payload.move(), receivedNanos);
+
+                if(result.type() == MoveResultType.NOT_FOUND) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Match not found: " + payload.matchId(), ErrorType.CRITICAL));
+                    return;
+                } else if(result.type() == MoveResultType.NOT_IN_MATCH) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("You are not part of this match: " + payload.matchId(), ErrorType.CRITICAL));
+                    return;
+                } else if(result.type() == MoveResultType.NOT_RUNNING) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("The game has not started yet: " + payload.matchId(), ErrorType.WARNING));
+                    return;
+                } else if (result.type() == MoveResultType.INVALID_MOVE) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Invalid move: " + payload.move(), ErrorType.WARNING));
+                    return;
+                } else if (result.type() == MoveResultType.ALREADY_SOLVED) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("You have already solved your cube: " + payload.matchId(), ErrorType.INFO));
+                    return;
+                }
+
+                broadcastToMatch(result.match(), WsMessageType.GAME_MOVE_APPLIED, result.applied());
+                send(session, WsMessageType.GAME_CUBE_STATE, result.cube());
+                antiCheat.onMove(session.playerId(), result.match(), receivedNanos, result.cube().solved(), result.cube().moveCount());
+
+                if (result.ended() != null) {
+                    broadcastToMatch(result.match(), WsMessageType.GAME_MATCH_ENDED, result.ended());
+                }
+            }
+
+            case TOURNAMENT_CREATE -> {
+                CreateTournamentPayload payload = om.convertValue(incoming.payload(), CreateTournamentPayload.class);
+                var result = tournaments.create(session.id(), session.playerId(), payload.format(), payload.bestOf());
+                if (result.type() != TournamentResultType.OK) {
+                    sendTournamentError(session, result, null);
+                    return;
+                }
+
+                send(session, WsMessageType.TOURNAMENT_CREATED, new TournamentCreatedPayload(result.tournament().id()));
+                send(session, WsMessageType.TOURNAMENT_UPDATED, tournaments.stateOf(result.tournament()));
+            }
+
+            case TOURNAMENT_JOIN -> {
+                JoinTournamentPayload payload = om.convertValue(incoming.payload(), JoinTournamentPayload.class);
+                var result = tournaments.join(payload.tournamentId(), session.id(), session.playerId());
+                if (result.type() != TournamentResultType.OK) {
+                    sendTournamentError(session, result, payload.tournamentId());
+                    return;
+                }
+
+                // kein Broadcast an alle: bei tausenden Anmeldungen wäre das quadratisch
+                send(session, WsMessageType.TOURNAMENT_UPDATED, tournaments.stateOf(result.tournament()));
+            }
+
+            case TOURNAMENT_START -> {
+                StartTournamentPayload payload = om.convertValue(incoming.payload(), StartTournamentPayload.class);
+                var result = tournaments.start(payload.tournamentId(), session.id());
+                if (result.type() != TournamentResultType.OK) {
+                    sendTournamentError(session, result, payload.tournamentId());
+                }
+                // Runden-Updates kommen als TOURNAMENT_UPDATED an alle Teilnehmer
+            }
+
+            case SYS_RESUME -> {
+                ResumePayload payload = om.convertValue(incoming.payload(), ResumePayload.class);
+                // nur die verpassten Frames nachschicken, sonst ein kompakter Snapshot; beides vor jedem Live-Frame
+                var result = matchService.resume(payload.matchId(), payload.resumeToken(), session.playerId(), session.id(),
+                        payload.lastSeq(),
+                        m -> serialize(new WsEnvelope<>(WsMessageType.SYS_SNAPSHOT, snapshotOf(m, session.playerId()))),
+                        frame -> {
+                            try {
+                                session.send(new OutboundMessage(frame));
+                            } catch (IOException e) {
+                                // Session bricht gerade weg, der Client resumed erneut
+                            }
+                        });
+
+                if (result.type() == ResumeResultType.NOT_FOUND) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Match not found: " + payload.matchId(), ErrorType.CRITICAL));
+                    return;
+                } else if (result.type() == ResumeResultType.INVALID_TOKEN) {
+                    send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Invalid resume token for match: " + payload.matchId(), ErrorType.CRITICAL));
+                    return;
+                }
+
+                var match = result.match();
+                var participant = result.participant();
+
+                boolean snapshot = result.replayed() < 0;
+                send(session, WsMessageType.SYS_RESUMED,
+                        new ResumedPayload(match.id(), participant.playerId(), snapshot ? 0 : result.replayed(), snapshot));
+
+                broadcastToMatch(match, WsMessageType.LOBBY_PLAYER_CONNECTION,
+                        new PlayerConnectionPayload(match.id(), participant.playerId(), true, match.toPlayerInfos()));
+            }
+
+            case SYS_PONG -> {
+                PongPayload payload = om.convertValue(incoming.payload(), PongPayload.class);
+                latency.pong(session.id(), payload.pingId(), payload.clientTs(), receivedNanos, System.currentTimeMillis());
+            }
+
+            default -> send(session, WsMessageType.SYS_ERROR, new ErrorPayload("Unhandled message type: " + type, ErrorType.WARNING));
+        }
+    }
+
+    public void closed(GameSession session) throws Exception {
+        if (sessions.remove(session.id()) == null) return;
+        metrics.sessionClosed();
+        latency.unregister(session.id());
+        rateLimiter.unregister(session.id());
+
+        tournaments.sessionClosed(session.id());
+
+        var disconnect = matchService.disconnectBySessionId(session.id());
+        if (disconnect.type() != DisconnectResultType.OK) return;
+
+        var match = disconnect.match();
+        broadcastToMatch(match, WsMessageType.LOBBY_PLAYER_CONNECTION,
+                new PlayerConnectionPayload(match.id(), disconnect.playerId(), false, match.toPlayerInfos()));
+
+        scheduler.schedule(() -> expireDisconnected(match.id(), disconnect.playerId()), Instant.now().plus(resumeGrace));
+    }
+
+    private void expireDisconnected(String matchId, String playerId) {
+        var leaveResult = matchService.expireDisconnected(matchId, playerId, resumeGrace.toNanos());
+
+        if(leaveResult.type() != LeaveMatchResultType.OK) return;
+        broadcastLeft(leaveResult);
+    }
+
+    private void broadcastLeft(LeaveMatchResult leaveResult) {
+        var match = leaveResult.match();
+        if(match == null || match.participants().isEmpty()) return;
+
+        try {
+            broadcastToMatch(match, WsMessageType.LOBBY_LEFT_MATCH, new PlayerLeftPayload(match.id(), leaveResult.playerId(), match.toPlayerInfos()));
+            // Verbliebene hatten schon gelöst -> das Match endet mit dem Abgang
+            if (leaveResult.ended() != null) {
+                broadcastToMatch(match, WsMessageType.GAME_MATCH_ENDED, leaveResult.ended());
+            }
+        } catch (Exception e) {
+            // Broadcast ist best effort, verbleibende Spieler holen sich den Stand per Resume
+        }
+    }
+
+    private void announceStart(Match match) throws Exception {
+        var scr = match.scramble().stream().map(Move::notation).toList();
+        broadcastToMatch(match, WsMessageType.GAME_MATCH_STARTED,
+                new MatchStartedPayload(match.id(), match.startTime(), match.scrambleSeed(), scr, match.toPlayerInfos())
+        );
+
+        for (MatchParticipant p : match.participants()) {
+            GameSession s = sessions.get(p.sessionId());
+            if (s != null && s.isOpen()) {
+                send(s, WsMessageType.GAME_CUBE_STATE,
+                        new CubeStatePayload(match.id(), p.playerId(), match.faceletsOf(p.playerId()), 0, false));
+            }
+        }
+    }
+
+    private void sendTournamentError(GameSession session, TournamentResult result, String tournamentId) throws Exception {
+        String message = switch (result.type()) {
+            case NOT_FOUND -> "Tournament not found: " + tournamentId;
+            case INVALID_SETTINGS -> "Invalid tournament settings (format required, bestOf must be odd)";
+            case NOT_IN_REGISTRATION -> "The tournament has already started: " + tournamentId;
+            case FULL -> "Tournament is full: " + tournamentId;
+            case NOT_HOST -> "You are not the host of this tournament: " + tournamentId;
+            case NOT_ENOUGH_PLAYERS -> "Not enough players to start: " + tournamentId;
+            case OK -> "OK";
+        };
+        send(session, WsMessageType.SYS_ERROR, new ErrorPayload(message, ErrorType.WARNING));
+    }
+
+    // Turnier-Events kommen vom Launcher-Thread
+    @EventListener
+    public void onTournamentGameStarted(TournamentGameStartedEvent event) {
+        // wer noch in einer Lobby saß, ist dort jetzt raus; ein beendetes Spiel braucht keine Nachricht mehr
+        for (LeaveMatchResult released : event.released()) {
+            if (released.match().state() != MatchState.FINISHED) broadcastLeft(released);
+        }
+
+        Match match = event.match();
+        try {
+            for (MatchParticipant p : match.participants()) {
+                GameSession s = sessions.get(p.sessionId());
+                if (s == null || !s.isOpen()) continue;
+
+                String opponent = match.participants().stream()
+                        .map(MatchParticipant::playerId)
+                        .filter(id -> !id.equals(p.playerId()))
+                        .findFirst()
+                        .orElse(null);
+                send(s, WsMessageType.TOURNAMENT_GAME_STARTED, new TournamentGamePayload(
+                        event.tournamentId(), event.round(), event.game(), event.bestOf(), match.id(), opponent));
+                send(s, WsMessageType.SYS_RESUME_TOKEN, new ResumeTokenPayload(match.id(), p.playerId(), p.resumeToken()));
+            }
+            announceStart(match);
+        } catch (Exception e) {
+            // best effort; wer den Start verpasst, holt sich den Stand per Resume
+        }
+    }
+
+    @EventListener
+    public void onTournamentGameTimedOut(TournamentGameTimedOutEvent event) {
+        try {
+            broadcastToMatch(event.match(), WsMessageType.GAME_MATCH_ENDED, event.ended());
+        } catch (Exception e) {
+            // best effort, wie beim Start
+        }
+    }
+
+    @EventListener
+    public void onTournamentUpdated(TournamentUpdatedEvent event) {
+        // einmal serialisieren, an alle Teilnehmer dieselbe Nachricht
+        OutboundMessage message = new OutboundMessage(serialize(new WsEnvelope<>(WsMessageType.TOURNAMENT_UPDATED, event.state())));
+        for (String sessionId : event.sessionIds()) {
+            GameSession s = sessions.get(sessionId);
+            if (s == null || !s.isOpen()) continue;
+            try {
+                s.send(message);
+            } catch (IOException e) {
+                // Session bricht gerade weg
+            }
+        }
+    }
+
+    // läuft auf den Timer-Threads des Ghost-Playbacks
+    private void broadcastGhostMove(MoveResult result) {
+        try {
+            broadcastToMatch(result.match(), WsMessageType.GAME_MOVE_APPLIED, result.applied());
+            if (result.ended() != null) {
+                broadcastToMatch(result.match(), WsMessageType.GAME_MATCH_ENDED, result.ended());
+            }
+        } catch (Exception e) {
+            // best effort wie bei allen Broadcasts, verpasste Frames kommen per Resume
+        }
+    }
+
+    private void sendResumeToken(GameSession session, Match match, String playerId) throws Exception {
+        MatchParticipant participant = match.participant(playerId);
+        if (participant == null) return;
+        send(session, WsMessageType.SYS_RESUME_TOKEN, new ResumeTokenPayload(match.id(), playerId, participant.resumeToken()));
+    }
+
+    private MatchSnapshotPayload snapshotOf(Match match, String playerId) {
+        synchronized (match) {
+            var participant = match.participant(playerId);
+            return new MatchSnapshotPayload(
+                    match.id(),
+                    match.events().lastSeq(),
+                    match.state(),
+                    match.startTime(),
+                    match.scrambleSeed(),
+                    match.scramble().stream().map(Move::notation).toList(),
+                    match.toPlayerInfos(),
+                    match.faceletsOf(playerId),
+                    match.moveCountOf(playerId),
+                    participant != null && participant.hasSolved()
+            );
+        }
+    }
+
+    @Scheduled(fixedRateString = "${scb.heartbeat.interval-ms:2000}")
+    public void sendHeartbeats() {
+        for (GameSession s : sessions.values()) {
+            if (!s.isOpen()) continue;
+
+            long pingId = latency.nextPing(s.id(), System.nanoTime(), System.currentTimeMillis());
+            if (pingId < 0) continue;
+
+            try {
+                send(s, WsMessageType.SYS_PING, new PingPayload(pingId, System.currentTimeMillis(), latency.rttMillis(s.id()), latency.offsetMillis(s.id())));
+            } catch (Exception e) {
+                // Session ist gerade zu; afterConnectionClosed räumt auf
+            }
+        }
+    }
+
+    private <T> void send(GameSession session, WsMessageType type, T payload) throws Exception {
+        WsEnvelope<T> envelope = new WsEnvelope<>(type, payload);
+        session.send(new OutboundMessage(serialize(envelope)));
+    }
+
+    private <T> void broadcastToMatch(Match match, WsMessageType type, T payload) throws Exception {
+        var participants = List.copyOf(match.participants());
+        int[] recipients = {0};
+        long[] fanOutNanos = {0};
+
+        match.events().append(
+                seq -> serialize(new WsEnvelope<>(type, payload, seq)),
+                json -> {
+                    long fanOutStart = System.nanoTime();
+                    OutboundMessage message = new OutboundMessage(json);
+                    for (MatchParticipant participant : participants) {
+                        GameSession s = sessions.get(participant.sessionId());
+                        if (s != null && s.isOpen()) {
+                            try {
+                                s.send(message);
+                                recipients[0]++;
+                            } catch (IOException e) {
+                                // Session bricht gerade weg; der Frame liegt im Event-Log für den Resume
+                            }
+                        }
+                    }
+                    fanOutNanos[0] = System.nanoTime() - fanOutStart;
+                });
+
+        metrics.recordBroadcast(fanOutNanos[0], recipients[0]);
+    }
+
+    private String serialize(Object envelope) {
+        long start = System.nanoTime();
+        String json = om.writeValueAsString(envelope);
+        metrics.recordSerialization(System.nanoTime() - start);
+        return json;
+    }
+}
@@ -0,0 +1,26 @@
+package com.tomlucksted.speedcubebattle.backend.websocket;
+
+import java.io.IOException;
+
+/**
+ * An authenticated client connection as seen by {@link GameMessageHandler}.
+ * Implementations must accept {@link #send} from any thread.
+ */
+public interface GameSession {
+
+    int POLICY_VIOLATION = 1008;
+    int SERVER_ERROR = 1011;
+    // Client kommt mit dem Lesen nicht hinterher
+    int SESSION_NOT_RELIABLE = 4500;
+
+    String id();
+
+    // beim Handshake aus dem Token aufgelöst, steht für die ganze Verbindung fest
+    String playerId();
+
+    boolean isOpen();
+
+    void send(OutboundMessage message) throws IOException;
+
+    void close(int code, String reason) throws IOException;
+}
@@ -0,0 +1,31 @@
+package com.tomlucksted.speedcubebattle.backend.websocket;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A serialized outgoing frame. Broadcasts create one instance for all recipients,
+ * so the UTF-8 encoding happens at most once per message, not once per session.
+ */
+public final class OutboundMessage {
+
+    private final String json;
+    private volatile byte[] utf8;
+
+    public OutboundMessage(String json) {
+        this.json = json;
+    }
+
+    public String json() {
+        return json;
+    }
+
+    // Doppeltes Kodieren bei einem Race ist harmlos, das Ergebnis ist identisch
+    public byte[] utf8() {
+        byte[] bytes = utf8;
+        if (bytes == null) {
+            bytes = json.getBytes(StandardCharsets.UTF_8);
+            utf8 = bytes;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,45 @@
+package com.tomlucksted.speedcubebattle.backend.websocket;
+
+import com.tomlucksted.speedcubebattle.backend.auth.TokenService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Rejects the upgrade unless {@code ?token=} carries a valid player token and
+ * binds the player to the session. Browsers cannot set headers on WebSocket
+ * requests, hence the query parameter.
+ */
+public class TokenHandshakeInterceptor implements HandshakeInterceptor {
+
+    static final String PLAYER_ID_ATTRIBUTE = "scb.playerId";
+
+    private final TokenService tokenService;
+
+    public TokenHandshakeInterceptor(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("token");
+        String playerId = tokenService.authenticate(token);
+        if (playerId == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(PLAYER_ID_ATTRIBUTE, playerId);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -1,5 +1,8 @@
 package com.tomlucksted.speedcubebattle.backend.websocket;
 
+import com.tomlucksted.speedcubebattle.backend.auth.TokenService;
+import com.tomlucksted.speedcubebattle.backend.websocket.ratelimit.RateLimitProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
@@ -7,17 +10,25 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 
 @Configuration
 @EnableWebSocket
+@EnableConfigurationProperties({RateLimitProperties.class, WsTransportProperties.class})
 public class WebSocketConfig implements WebSocketConfigurer {
 
-    private final GameWebSocketHandler gameWebSocketHandler;
+    private final GameMessageHandler gameMessageHandler;
+    private final TokenService tokenService;
+    private final boolean servletTransport;
 
-    public WebSocketConfig(GameWebSocketHandler gameWebSocketHandler) {
-        this.gameWebSocketHandler = gameWebSocketHandler;
+    public WebSocketConfig(GameMessageHandler gameMessageHandler, TokenService tokenService, WsTransportProperties transport) {
+        this.gameMessageHandler = gameMessageHandler;
+        this.tokenService = tokenService;
+        this.servletTransport = transport.transport() == WsTransport.SERVLET;
     }
 
+    // Bei transport=netty bleibt /ws auf Tomcat unregistriert
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
-        registry.addHandler(gameWebSocketHandler, "/ws")
+        if (!servletTransport) return;
+        registry.addHandler(new GameWebSocketHandler(gameMessageHandler), "/ws")
+                .addInterceptors(new TokenHandshakeInterceptor(tokenService))
                 .setAllowedOrigins("*");
     }
 }
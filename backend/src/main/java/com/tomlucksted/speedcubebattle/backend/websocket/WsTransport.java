@@ -0,0 +1,6 @@
+package com.tomlucksted.speedcubebattle.backend.websocket;
+
+public enum WsTransport {
+    SERVLET,    // Tomcat, /ws auf server.port
+    NETTY       // Reactor Netty, /ws auf eigenem Port
+}
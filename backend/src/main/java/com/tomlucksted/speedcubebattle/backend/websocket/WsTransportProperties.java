@@ -0,0 +1,14 @@
+package com.tomlucksted.speedcubebattle.backend.websocket;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.ws")
+public record WsTransportProperties(
+        WsTransport transport,
+        Netty netty
+) {
+    public record Netty(
+            int port,
+            int outboundQueue   // Frames pro Session, danach wird der langsame Client getrennt
+    ) {}
+}
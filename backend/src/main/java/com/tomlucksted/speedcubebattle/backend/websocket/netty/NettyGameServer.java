@@ -0,0 +1,162 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.netty;
+
+import com.tomlucksted.speedcubebattle.backend.auth.TokenService;
+import com.tomlucksted.speedcubebattle.backend.websocket.GameMessageHandler;
+import com.tomlucksted.speedcubebattle.backend.websocket.GameSession;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.in.IncomingWsMessage;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.http.server.WebsocketServerSpec;
+import reactor.netty.http.websocket.WebsocketInbound;
+import reactor.netty.http.websocket.WebsocketOutbound;
+
+import java.util.List;
+
+/**
+ * Non-blocking WebSocket endpoint on Reactor Netty. Frames are admitted, parsed
+ * and handled directly on the connection's event loop. Message types that hit
+ * the database themselves ({@link GameMessageHandler#mayBlock}) are moved to a
+ * worker, decided on the parsed type. Broker publishes and DB writes after a
+ * finished match go through the EventDispatcher, so the final move doesn't
+ * block the loop either. Frames of one session are processed strictly in order.
+ * Binds on lifecycle start, i.e. only once the context is fully refreshed, and
+ * only with {@code scb.ws.transport=netty}.
+ */
+public class NettyGameServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(NettyGameServer.class);
+
+    private static final int MAX_FRAME_BYTES = 64 * 1024;
+
+    private final GameMessageHandler handler;
+    private final TokenService tokenService;
+    private final WebsocketServerSpec spec = WebsocketServerSpec.builder().maxFramePayloadLength(MAX_FRAME_BYTES).build();
+    private final int queueCapacity;
+    private final int port;
+    private final boolean enabled;
+    private volatile DisposableServer server;
+
+    private record Inbound(String text, long receivedNanos) {}
+
+    public NettyGameServer(GameMessageHandler handler, TokenService tokenService, int port, int queueCapacity, boolean enabled) {
+        this.handler = handler;
+        this.tokenService = tokenService;
+        this.port = port;
+        this.queueCapacity = queueCapacity;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        if (server != null) return;
+        server = HttpServer.create()
+                .port(port)
+                .route(routes -> routes.get("/ws", this::handshake))
+                .bindNow();
+        log.info("Netty WebSocket endpoint listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer running = server;
+        if (running == null) return;
+        server = null;
+        running.disposeNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /** Bound port, e.g. when started with port 0; -1 if not running. */
+    public int port() {
+        DisposableServer running = server;
+        return running == null ? -1 : running.port();
+    }
+
+    // Token wird vor dem Upgrade geprüft, abgelehnte Clients bekommen nur ein 401
+    private Publisher<Void> handshake(HttpServerRequest request, HttpServerResponse response) {
+        List<String> tokens = new QueryStringDecoder(request.uri()).parameters().get("token");
+        String playerId = tokenService.authenticate(tokens == null ? null : tokens.getFirst());
+        if (playerId == null) return response.status(HttpResponseStatus.UNAUTHORIZED).send();
+
+        return response.sendWebsocket((in, out) -> connection(playerId, in, out), spec);
+    }
+
+    private Mono<Void> connection(String playerId, WebsocketInbound in, WebsocketOutbound out) {
+        NettyGameSession session = new NettyGameSession(playerId, out, queueCapacity);
+        handler.opened(session);
+
+        Mono<Void> inbound = in.aggregateFrames(MAX_FRAME_BYTES)
+                .receiveFrames()
+                .filter(TextWebSocketFrame.class::isInstance)
+                // Text sofort kopieren, der Buffer wird nach onNext freigegeben
+                .map(frame -> new Inbound(((TextWebSocketFrame) frame).text(), System.nanoTime()))
+                .concatMap(frame -> handle(session, frame))
+                .then()
+                .doFinally(signal -> session.terminate());
+
+        Mono<Void> outbound = out.sendObject(session.frames()).then();
+
+        return Mono.when(inbound, outbound)
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> closed(session));
+    }
+
+    // Zulassung und Parsen auf dem Event-Loop; ausgelagert wird nach dem geparsten Typ, nicht nach dem geschnüffelten
+    private Mono<Void> handle(NettyGameSession session, Inbound frame) {
+        IncomingWsMessage incoming;
+        try {
+            incoming = handler.accept(session, frame.text(), frame.receivedNanos());
+        } catch (Exception e) {
+            failed(session, e);
+            return Mono.empty();
+        }
+        if (incoming == null) return Mono.empty();
+
+        Mono<Void> work = Mono.fromRunnable(() -> dispatch(session, incoming, frame.receivedNanos()));
+        return handler.mayBlock(incoming.type())
+                ? work.subscribeOn(Schedulers.boundedElastic())
+                : work;
+    }
+
+    private void dispatch(NettyGameSession session, IncomingWsMessage incoming, long receivedNanos) {
+        try {
+            handler.handle(session, incoming, receivedNanos);
+        } catch (Exception e) {
+            failed(session, e);
+        }
+    }
+
+    // Wie beim Servlet-Transport: Fehler beim Verarbeiten beenden die Session
+    private void failed(NettyGameSession session, Exception e) {
+        log.warn("Closing session {} after handler error", session.id(), e);
+        session.close(GameSession.SERVER_ERROR, "Internal error");
+    }
+
+    private void closed(NettyGameSession session) {
+        session.terminate();
+        try {
+            handler.closed(session);
+        } catch (Exception e) {
+            log.warn("Cleanup of session {} failed", session.id(), e);
+        }
+    }
+}
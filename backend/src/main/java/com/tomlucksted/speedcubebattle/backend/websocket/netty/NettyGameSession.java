@@ -0,0 +1,80 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.netty;
+
+import com.tomlucksted.speedcubebattle.backend.websocket.GameSession;
+import com.tomlucksted.speedcubebattle.backend.websocket.OutboundMessage;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.websocket.WebsocketOutbound;
+import reactor.util.concurrent.Queues;
+
+import java.util.UUID;
+
+/**
+ * A Reactor Netty connection as {@link GameSession}. Sends go into a bounded
+ * per-session queue drained by the event loop; a client that lets the queue
+ * overflow is closed instead of buffering without limit.
+ */
+final class NettyGameSession implements GameSession {
+
+    private final String id = UUID.randomUUID().toString();
+    private final String playerId;
+    private final WebsocketOutbound out;
+    private final Sinks.Many<WebSocketFrame> frames;
+    private volatile boolean open = true;
+
+    NettyGameSession(String playerId, WebsocketOutbound out, int queueCapacity) {
+        this.playerId = playerId;
+        this.out = out;
+        this.frames = Sinks.many().unicast().onBackpressureBuffer(Queues.<WebSocketFrame>get(queueCapacity).get());
+    }
+
+    Flux<WebSocketFrame> frames() {
+        return frames.asFlux();
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public String playerId() {
+        return playerId;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    // Bytes werden geteilt (Broadcast kodiert einmal), nur der Frame-Wrapper ist pro Session
+    @Override
+    public void send(OutboundMessage message) {
+        if (!open) return;
+
+        Sinks.EmitResult result;
+        synchronized (this) {
+            result = frames.tryEmitNext(new TextWebSocketFrame(Unpooled.wrappedBuffer(message.utf8())));
+        }
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            close(SESSION_NOT_RELIABLE, "Send queue overflow");
+        }
+    }
+
+    @Override
+    public void close(int code, String reason) {
+        if (!open) return;
+        terminate();
+        out.sendClose(code, reason).subscribe();
+    }
+
+    void terminate() {
+        open = false;
+        synchronized (this) {
+            frames.tryEmitComplete();
+        }
+    }
+}
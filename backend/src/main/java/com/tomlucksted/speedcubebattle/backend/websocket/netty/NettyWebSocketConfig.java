@@ -0,0 +1,19 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.netty;
+
+import com.tomlucksted.speedcubebattle.backend.auth.TokenService;
+import com.tomlucksted.speedcubebattle.backend.websocket.GameMessageHandler;
+import com.tomlucksted.speedcubebattle.backend.websocket.WsTransport;
+import com.tomlucksted.speedcubebattle.backend.websocket.WsTransportProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NettyWebSocketConfig {
+
+    // Bean gibt es immer, gebunden wird nur bei transport=netty: Bedingungen würden mit AOT beim Build eingefroren
+    @Bean
+    public NettyGameServer nettyGameServer(GameMessageHandler handler, TokenService tokenService, WsTransportProperties props) {
+        return new NettyGameServer(handler, tokenService, props.netty().port(), props.netty().outboundQueue(),
+                props.transport() == WsTransport.NETTY);
+    }
+}
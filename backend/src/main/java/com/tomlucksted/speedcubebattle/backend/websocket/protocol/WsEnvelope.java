@@ -1,3 +1,12 @@
 package com.tomlucksted.speedcubebattle.backend.websocket.protocol;
 
-public record WsEnvelope<T>(WsMessageType type, T payload) {}
\ No newline at end of file
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// seq nur bei Match-Broadcasts, damit Clients nach einem Resume wissen, was fehlt
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WsEnvelope<T>(WsMessageType type, T payload, Long seq) {
+
+    public WsEnvelope(WsMessageType type, T payload) {
+        this(type, payload, null);
+    }
+}
@@ -3,6 +3,7 @@ package com.tomlucksted.speedcubebattle.backend.websocket.protocol;
 public enum WsMessageType {
     // LOBBY
     LOBBY_CREATE_MATCH,
+    LOBBY_CREATE_GHOST_MATCH,
     LOBBY_MATCH_CREATED,
     LOBBY_JOIN_MATCH,
     LOBBY_LEFT_MATCH,
@@ -10,6 +11,7 @@ public enum WsMessageType {
     LOBBY_SET_READY,
     LOBBY_READY_UPDATED,
     LOBBY_START_MATCH,
+    LOBBY_PLAYER_CONNECTION,
 
     // GAME
     GAME_SUBMIT_MOVE,
@@ -18,6 +20,20 @@ public enum WsMessageType {
     GAME_MATCH_STARTED,
     GAME_CUBE_STATE,
 
+    // TOURNAMENT
+    TOURNAMENT_CREATE,
+    TOURNAMENT_CREATED,
+    TOURNAMENT_JOIN,
+    TOURNAMENT_START,
+    TOURNAMENT_UPDATED,
+    TOURNAMENT_GAME_STARTED,
+
     // SYS
-    SYS_ERROR
+    SYS_ERROR,
+    SYS_PING,
+    SYS_PONG,
+    SYS_RESUME_TOKEN,
+    SYS_RESUME,
+    SYS_RESUMED,
+    SYS_SNAPSHOT
 }
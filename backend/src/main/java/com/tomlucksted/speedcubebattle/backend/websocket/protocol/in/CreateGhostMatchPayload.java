@@ -0,0 +1,7 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.in;
+
+import com.tomlucksted.speedcubebattle.backend.ghost.GhostSource;
+
+// replayMatchId/replayPlayerId nur bei source = REPLAY
+public record CreateGhostMatchPayload(GhostSource source, String replayMatchId, String replayPlayerId) {
+}
@@ -0,0 +1,6 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.in;
+
+import com.tomlucksted.speedcubebattle.backend.tournament.TournamentFormat;
+
+public record CreateTournamentPayload(TournamentFormat format, int bestOf) {
+}
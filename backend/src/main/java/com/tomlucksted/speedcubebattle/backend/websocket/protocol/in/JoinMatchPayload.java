@@ -1,3 +1,3 @@
 package com.tomlucksted.speedcubebattle.backend.websocket.protocol.in;
 
-public record JoinMatchPayload(String matchId, String playerId) {}
+public record JoinMatchPayload(String matchId) {}
@@ -0,0 +1,4 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.in;
+
+public record JoinTournamentPayload(String tournamentId) {
+}
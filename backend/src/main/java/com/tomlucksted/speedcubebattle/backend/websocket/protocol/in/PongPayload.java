@@ -1,4 +1,3 @@
 package com.tomlucksted.speedcubebattle.backend.websocket.protocol.in;
 
-public record CreateMatchPayload(String playerId) {
-}
+public record PongPayload(long pingId, long clientTs) {}
@@ -0,0 +1,3 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.in;
+
+public record ResumePayload(String matchId, String resumeToken, long lastSeq) {}
@@ -1,4 +1,4 @@
 package com.tomlucksted.speedcubebattle.backend.websocket.protocol.in;
 
-public record SetReadyPayload(String matchId, String playerId, boolean ready) {
+public record SetReadyPayload(String matchId, boolean ready) {
 }
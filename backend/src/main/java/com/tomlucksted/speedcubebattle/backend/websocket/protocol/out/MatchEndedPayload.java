@@ -0,0 +1,5 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.out;
+
+import java.util.List;
+
+public record MatchEndedPayload(String matchId, long endedAt, List<PlayerResult> results) {}
@@ -0,0 +1,18 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.out;
+
+import com.tomlucksted.speedcubebattle.backend.match.MatchState;
+
+import java.util.List;
+
+public record MatchSnapshotPayload(
+        String matchId,
+        long lastSeq,
+        MatchState state,
+        Long startedAt,
+        Long scrambleSeed,
+        List<String> scramble,
+        List<PlayerInfo> players,
+        String facelets,   // null in der Lobby
+        int moveCount,
+        boolean solved
+) {}
@@ -0,0 +1,3 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.out;
+
+public record PingPayload(long pingId, long serverTs, long rttMs, long offsetMs) {}
@@ -0,0 +1,5 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.out;
+
+import java.util.List;
+
+public record PlayerConnectionPayload(String matchId, String playerId, boolean connected, List<PlayerInfo> players) {}
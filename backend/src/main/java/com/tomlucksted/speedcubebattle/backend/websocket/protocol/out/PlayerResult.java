@@ -0,0 +1,10 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.out;
+
+public record PlayerResult(
+        String playerId,
+        int placement,
+        long solveTimeMs,     // latenz-kompensiert; 0 bei DNF
+        long rawSolveTimeMs,  // wie am Server gemessen
+        int moveCount,
+        boolean dnf           // nicht gelöst: Zeitlimit, verlassen oder Grace-Period abgelaufen
+) {}
@@ -0,0 +1,3 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.out;
+
+public record ResumeTokenPayload(String matchId, String playerId, String resumeToken) {}
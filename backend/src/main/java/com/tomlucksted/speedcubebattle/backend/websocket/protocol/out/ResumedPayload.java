@@ -0,0 +1,3 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.out;
+
+public record ResumedPayload(String matchId, String playerId, int replayedFrames, boolean snapshot) {}
@@ -0,0 +1,5 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.out;
+
+// game zählt ab 0; der Match-Start selbst kommt wie gewohnt als GAME_MATCH_STARTED
+public record TournamentGamePayload(String tournamentId, int round, int game, int bestOf, String matchId, String opponentId) {
+}
@@ -0,0 +1,4 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.out;
+
+public record TournamentStanding(String playerId, int points, int buchholz) {
+}
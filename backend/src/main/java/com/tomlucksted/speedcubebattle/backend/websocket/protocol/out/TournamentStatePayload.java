@@ -0,0 +1,20 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.protocol.out;
+
+import com.tomlucksted.speedcubebattle.backend.tournament.TournamentFormat;
+import com.tomlucksted.speedcubebattle.backend.tournament.TournamentState;
+
+import java.util.List;
+
+// standings nur die Spitze, damit der Payload bei tausenden Teilnehmern klein bleibt
+public record TournamentStatePayload(
+        String tournamentId,
+        TournamentFormat format,
+        int bestOf,
+        TournamentState state,
+        int round,
+        int totalRounds,
+        int playerCount,
+        String winnerId,
+        List<TournamentStanding> standings
+) {
+}
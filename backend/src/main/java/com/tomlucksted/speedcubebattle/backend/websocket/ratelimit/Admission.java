@@ -0,0 +1,7 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.ratelimit;
+
+public enum Admission {
+    ADMITTED,
+    REJECTED,
+    DISCONNECT
+}
@@ -0,0 +1,15 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.ratelimit")
+public record RateLimitProperties(
+        boolean enabled,
+        Limit frames,       // jedes Frame, noch vor dem Parsen
+        Limit moves,        // GAME_*
+        Limit lobby,        // LOBBY_*
+        Limit sys,          // SYS_*
+        Limit violations    // abgelehnte Frames, bevor die Session getrennt wird
+) {
+    public record Limit(double perSecond, int burst) {}
+}
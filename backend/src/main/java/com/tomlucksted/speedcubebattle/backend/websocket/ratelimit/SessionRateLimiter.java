@@ -0,0 +1,41 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.ratelimit;
+
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.WsMessageType;
+
+final class SessionRateLimiter {
+
+    private final TokenBucket frames;
+    private final TokenBucket moves;
+    private final TokenBucket lobby;
+    private final TokenBucket sys;
+    private final TokenBucket violations;
+
+    SessionRateLimiter(RateLimitProperties props, long nowNanos) {
+        this.frames = new TokenBucket(props.frames(), nowNanos);
+        this.moves = new TokenBucket(props.moves(), nowNanos);
+        this.lobby = new TokenBucket(props.lobby(), nowNanos);
+        this.sys = new TokenBucket(props.sys(), nowNanos);
+        this.violations = new TokenBucket(props.violations(), nowNanos);
+    }
+
+    Admission admit(WsMessageType type, long nowNanos) {
+        if (frames.tryAcquire(nowNanos) && (type == null || bucketFor(type).tryAcquire(nowNanos))) {
+            return Admission.ADMITTED;
+        }
+        return violations.tryAcquire(nowNanos) ? Admission.REJECTED : Admission.DISCONNECT;
+    }
+
+    // frames ist schon bezahlt; nur der Topf des tatsächlich geparsten Typs wird nachbelastet
+    Admission admitParsed(WsMessageType parsed, long nowNanos) {
+        if (parsed == null || bucketFor(parsed).tryAcquire(nowNanos)) return Admission.ADMITTED;
+        return violations.tryAcquire(nowNanos) ? Admission.REJECTED : Admission.DISCONNECT;
+    }
+
+    private TokenBucket bucketFor(WsMessageType type) {
+        return switch (type) {
+            case GAME_SUBMIT_MOVE, GAME_MOVE_APPLIED, GAME_MATCH_ENDED, GAME_MATCH_STARTED, GAME_CUBE_STATE -> moves;
+            case SYS_ERROR, SYS_PING, SYS_PONG -> sys;
+            default -> lobby;
+        };
+    }
+}
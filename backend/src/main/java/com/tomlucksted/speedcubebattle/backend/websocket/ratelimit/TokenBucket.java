@@ -0,0 +1,29 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical
+ * arrival time", so admitting a frame is a single CAS and never allocates.
+ */
+final class TokenBucket {
+
+    private final long emissionNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(RateLimitProperties.Limit limit, long nowNanos) {
+        this.emissionNanos = (long) (1_000_000_000L / limit.perSecond());
+        this.toleranceNanos = emissionNanos * Math.max(limit.burst() - 1, 0);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    boolean tryAcquire(long nowNanos) {
+        for (;;) {
+            long tat = theoreticalArrival.get();
+            long base = tat - nowNanos > 0 ? tat : nowNanos;
+            if (base - nowNanos > toleranceNanos) return false;
+            if (theoreticalArrival.compareAndSet(tat, base + emissionNanos)) return true;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.ratelimit;
+
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.WsMessageType;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class WsRateLimiter {
+
+    private final RateLimitProperties props;
+    private final Map<String, SessionRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public WsRateLimiter(RateLimitProperties props) {
+        this.props = props;
+    }
+
+    public void register(String sessionId) {
+        if (!props.enabled()) return;
+        limiters.put(sessionId, new SessionRateLimiter(props, System.nanoTime()));
+    }
+
+    public void unregister(String sessionId) {
+        limiters.remove(sessionId);
+    }
+
+    public Admission admit(String sessionId, WsMessageType type, long nowNanos) {
+        if (!props.enabled()) return Admission.ADMITTED;
+        SessionRateLimiter limiter = limiters.get(sessionId);
+        return limiter == null ? Admission.ADMITTED : limiter.admit(type, nowNanos);
+    }
+
+    /**
+     * Second check after parsing, for frames whose sniffed type was missing or
+     * differs from the parsed one: charges the parsed type's bucket, so moving
+     * or nesting "type" in the JSON doesn't buy a cheaper bucket.
+     */
+    public Admission admitParsed(String sessionId, WsMessageType sniffed, WsMessageType parsed, long nowNanos) {
+        if (!props.enabled() || parsed == sniffed) return Admission.ADMITTED;
+        SessionRateLimiter limiter = limiters.get(sessionId);
+        return limiter == null ? Admission.ADMITTED : limiter.admitParsed(parsed, nowNanos);
+    }
+}
@@ -0,0 +1,39 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.ratelimit;
+
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.WsMessageType;
+
+/**
+ * Reads the envelope's "type" straight from the raw frame so rate limiting can
+ * happen before Jackson touches it. Returns null if it can't tell - the frame
+ * is then only charged against the per-session frame bucket up front. The client
+ * controls the JSON, so the result is only a hint: after parsing, the handler
+ * charges the parsed type's bucket whenever it differs from the sniffed one.
+ */
+public final class WsTypeSniffer {
+
+    private static final String TYPE_KEY = "\"type\"";
+    private static final WsMessageType[] TYPES = WsMessageType.values();
+    private static final int SCAN_LIMIT = 64;
+
+    private WsTypeSniffer() {}
+
+    public static WsMessageType sniff(String frame) {
+        int key = frame.indexOf(TYPE_KEY);
+        if (key < 0 || key > SCAN_LIMIT) return null;
+
+        int i = key + TYPE_KEY.length();
+        int len = frame.length();
+        while (i < len && (frame.charAt(i) == ' ' || frame.charAt(i) == ':')) i++;
+        if (i >= len || frame.charAt(i) != '"') return null;
+        i++;
+
+        for (WsMessageType type : TYPES) {
+            String name = type.name();
+            int end = i + name.length();
+            if (end < len && frame.charAt(end) == '"' && frame.regionMatches(i, name, 0, name.length())) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,10 @@
+-- Ein Replay pro Spieler und Match, Format siehe ReplayCodec (typisch 100-300 Bytes)
+CREATE TABLE match_replays (
+    match_id     VARCHAR(64) NOT NULL,
+    player_id    VARCHAR(64) NOT NULL,
+    data         BYTEA       NOT NULL,
+    recorded_at  TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (match_id, player_id)
+);
+
+CREATE INDEX idx_match_replays_player ON match_replays (player_id, recorded_at DESC);
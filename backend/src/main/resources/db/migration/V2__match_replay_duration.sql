@@ -0,0 +1,5 @@
+-- Für die Ghost-Auswahl (eigene PB / schnellster Solve) ohne Replays zu dekodieren
+ALTER TABLE match_replays ADD COLUMN duration_ms INTEGER;
+
+CREATE INDEX idx_match_replays_player_duration ON match_replays (player_id, duration_ms) WHERE duration_ms IS NOT NULL;
+CREATE INDEX idx_match_replays_duration ON match_replays (duration_ms) WHERE duration_ms IS NOT NULL;
@@ -0,0 +1,31 @@
+-- Match-Historie (nur gewertete Matches, keine Ghost-Rennen), geschrieben aus MatchFinishedEvent
+CREATE TABLE matches (
+    match_id       VARCHAR(64) PRIMARY KEY,
+    started_at     TIMESTAMPTZ NOT NULL,
+    finished_at    TIMESTAMPTZ NOT NULL,
+    scramble_seed  BIGINT      NOT NULL,
+    player_count   SMALLINT    NOT NULL
+);
+
+-- finished_at und Gegner denormalisiert: Profilseiten und Head-to-Head kommen ohne Join aus
+CREATE TABLE match_participants (
+    match_id       VARCHAR(64) NOT NULL,
+    player_id      VARCHAR(64) NOT NULL,
+    finished_at    TIMESTAMPTZ NOT NULL,
+    placement      SMALLINT    NOT NULL,
+    solve_time_ms  INTEGER     NOT NULL,
+    move_count     INTEGER     NOT NULL,
+    opponent_id    VARCHAR(64),            -- nur bei 1v1
+    PRIMARY KEY (match_id, player_id)
+);
+
+-- Keyset-Pagination "meine letzten Matches": WHERE player_id = ? AND (finished_at, match_id) < (?, ?)
+-- INCLUDE macht daraus einen Index-Only-Scan, der Heap wird nicht angefasst
+CREATE INDEX idx_match_participants_player_history
+    ON match_participants (player_id, finished_at DESC, match_id DESC)
+    INCLUDE (placement, solve_time_ms, move_count, opponent_id);
+
+CREATE INDEX idx_match_participants_head_to_head
+    ON match_participants (player_id, opponent_id, finished_at DESC)
+    INCLUDE (placement, solve_time_ms)
+    WHERE opponent_id IS NOT NULL;
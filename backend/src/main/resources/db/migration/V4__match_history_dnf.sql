@@ -0,0 +1,2 @@
+-- DNF (verlassen, Grace-Period abgelaufen, Zeitlimit) hat keine Zeit; min/avg im Head-to-Head überspringen NULL
+ALTER TABLE match_participants ALTER COLUMN solve_time_ms DROP NOT NULL;
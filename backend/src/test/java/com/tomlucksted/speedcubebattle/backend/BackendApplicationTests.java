@@ -3,7 +3,7 @@ package com.tomlucksted.speedcubebattle.backend;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "scb.auth.secret=test-secret")
 class BackendApplicationTests {
 
 	@Test
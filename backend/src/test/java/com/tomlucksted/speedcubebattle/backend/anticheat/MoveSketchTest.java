@@ -0,0 +1,82 @@
+package com.tomlucksted.speedcubebattle.backend.anticheat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoveSketchTest {
+
+    private static final long MS = 1_000_000;
+    private static final int MOVES_PER_SOLVE = 60;
+
+    private final AntiCheatProperties props = new AntiCheatProperties(true, 40, 25, 0.12, 0.6, 1.2, 0.5, 1800);
+    private final MoveSketch sketch = new MoveSketch(props.solveDecay());
+    private final Random random = new Random(42);
+    private long now = 0;
+    private int solves = 0;
+
+    // ein Solve; liefert die dabei neu gemeldeten Flags
+    private int solve(boolean bot) {
+        String matchId = "m" + solves++;
+        int fresh = 0;
+        for (int i = 0; i < MOVES_PER_SOLVE; i++) {
+            now += bot ? 200 * MS : (150 + random.nextInt(450)) * MS;
+            sketch.move(matchId, now);
+            fresh |= sketch.evaluate(props);
+        }
+        now += 10_000 * MS;
+        return fresh;
+    }
+
+    @Test
+    void honestHistoryDoesNotHideAMacro() {
+        for (int i = 0; i < 50; i++) solve(false);
+        assertThat(sketch.flags()).isZero();
+
+        for (int i = 0; i < 3; i++) solve(true);
+
+        assertThat(SuspicionFlag.of(sketch.flags())).contains(SuspicionFlag.REPEATED_INTERVAL);
+    }
+
+    @Test
+    void persistentFlagIsReportedOnce() {
+        int reports = 0;
+        for (int i = 0; i < 6; i++) {
+            if ((solve(true) & SuspicionFlag.REPEATED_INTERVAL.bit()) != 0) reports++;
+        }
+
+        assertThat(SuspicionFlag.of(sketch.flags())).contains(SuspicionFlag.REPEATED_INTERVAL);
+        assertThat(reports).isEqualTo(1);
+    }
+
+    @Test
+    void shortSolvesDoNotTurnTheScoreIntoNaN() {
+        // zwei Züge pro Solve: nach dem Verblassen bleibt das Gewicht unter 2, die CV ist NaN
+        for (int i = 0; i < 40; i++) {
+            String matchId = "short" + i;
+            sketch.move(matchId, now);
+            sketch.move(matchId, now + 200 * MS);
+            sketch.solved(2, 20);
+            sketch.evaluate(props);
+            now += 10_000 * MS;
+        }
+
+        assertThat(sketch.intervalCv()).isNaN();
+        assertThat(sketch.score()).isEqualTo(1.0);
+        assertThat(SuspicionFlag.of(sketch.flags())).contains(SuspicionFlag.SHORT_SOLUTION);
+    }
+
+    @Test
+    void flagIsReportedAgainAfterItCleared() {
+        int reports = 0;
+        for (int i = 0; i < 3; i++) reports += (solve(true) & SuspicionFlag.REPEATED_INTERVAL.bit()) != 0 ? 1 : 0;
+        for (int i = 0; i < 10; i++) solve(false);
+        assertThat(SuspicionFlag.of(sketch.flags())).doesNotContain(SuspicionFlag.REPEATED_INTERVAL);
+
+        for (int i = 0; i < 3; i++) reports += (solve(true) & SuspicionFlag.REPEATED_INTERVAL.bit()) != 0 ? 1 : 0;
+
+        assertThat(reports).isEqualTo(2);
+    }
+}
@@ -0,0 +1,49 @@
+package com.tomlucksted.speedcubebattle.backend.auth;
+
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenServiceTest {
+
+    private final RealtimeMetrics metrics = new RealtimeMetrics(new SimpleMeterRegistry());
+
+    private TokenService service(String secret, String... profiles) {
+        MockEnvironment env = new MockEnvironment();
+        env.setActiveProfiles(profiles);
+        return new TokenService(new AuthProperties(secret, 3600, 64), metrics, env);
+    }
+
+    @Test
+    void guestIdCarriesTheFullUuid() {
+        TokenService tokens = service("secret");
+
+        IssuedToken guest = tokens.issueGuest();
+
+        assertThat(guest.playerId()).startsWith("guest-");
+        UUID.fromString(guest.playerId().substring("guest-".length()));
+        assertThat(tokens.authenticate(guest.token())).isEqualTo(guest.playerId());
+    }
+
+    @Test
+    void emptySecretFailsOutsideTheDevProfile() {
+        assertThatThrownBy(() -> service("")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> service(" ", "faststart")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void devProfileRunsWithARandomKey() {
+        TokenService tokens = service("", "dev");
+
+        IssuedToken issued = tokens.issue("alice");
+
+        assertThat(tokens.authenticate(issued.token())).isEqualTo("alice");
+        assertThat(service("", "dev").authenticate(issued.token())).isNull();
+    }
+}
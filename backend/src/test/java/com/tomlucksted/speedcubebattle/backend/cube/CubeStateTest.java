@@ -0,0 +1,91 @@
+package com.tomlucksted.speedcubebattle.backend.cube;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CubeStateTest {
+
+    private static final String SOLVED = "WWWWWWWWWYYYYYYYYYOOOOOOOOORRRRRRRRRGGGGGGGGGBBBBBBBBB";
+
+    // Facelets nach einem Zug vom gelösten Cube, erzeugt mit dem alten char[6][3][3]-Modell
+    private static final Map<Move, String> OLD_MODEL = new EnumMap<>(Map.ofEntries(
+            Map.entry(Move.U, "WWWWWWWWWYYYYYYYYYGGGOOOOOOBBBRRRRRRRRRGGGGGGOOOBBBBBB"),
+            Map.entry(Move.Up, "WWWWWWWWWYYYYYYYYYBBBOOOOOOGGGRRRRRROOOGGGGGGRRRBBBBBB"),
+            Map.entry(Move.U2, "WWWWWWWWWYYYYYYYYYRRROOOOOOOOORRRRRRBBBGGGGGGGGGBBBBBB"),
+            Map.entry(Move.D, "WWWWWWWWWYYYYYYYYYOOOOOOBBBRRRRRRGGGGGGGGGOOOBBBBBBRRR"),
+            Map.entry(Move.Dp, "WWWWWWWWWYYYYYYYYYOOOOOOGGGRRRRRRBBBGGGGGGRRRBBBBBBOOO"),
+            Map.entry(Move.D2, "WWWWWWWWWYYYYYYYYYOOOOOORRRRRRRRROOOGGGGGGBBBBBBBBBGGG"),
+            Map.entry(Move.L, "BWWBWWBWWGYYGYYGYYOOOOOOOOORRRRRRRRRWGGWGGWGGBBYBBYBBY"),
+            Map.entry(Move.Lp, "GWWGWWGWWBYYBYYBYYOOOOOOOOORRRRRRRRRYGGYGGYGGBBWBBWBBW"),
+            Map.entry(Move.L2, "YWWYWWYWWWYYWYYWYYOOOOOOOOORRRRRRRRRBGGBGGBGGBBGBBGBBG"),
+            Map.entry(Move.R, "WWGWWGWWGYYBYYBYYBOOOOOOOOORRRRRRRRRGGYGGYGGYWBBWBBWBB"),
+            Map.entry(Move.Rp, "WWBWWBWWBYYGYYGYYGOOOOOOOOORRRRRRRRRGGWGGWGGWYBBYBBYBB"),
+            Map.entry(Move.R2, "WWYWWYWWYYYWYYWYYWOOOOOOOOORRRRRRRRRGGBGGBGGBGBBGBBGBB"),
+            Map.entry(Move.F, "WWWWWWOOORRRYYYYYYOOYOOYOOYWRRWRRWRRGGGGGGGGGBBBBBBBBB"),
+            Map.entry(Move.Fp, "WWWWWWRRROOOYYYYYYOOWOOWOOWYRRYRRYRRGGGGGGGGGBBBBBBBBB"),
+            Map.entry(Move.F2, "WWWWWWYYYWWWYYYYYYOOROOROORORRORRORRGGGGGGGGGBBBBBBBBB"),
+            Map.entry(Move.B, "RRRWWWWWWYYYYYYOOOWOOWOOWOORRYRRYRRYGGGGGGGGGBBBBBBBBB"),
+            Map.entry(Move.Bp, "OOOWWWWWWYYYYYYRRRYOOYOOYOORRWRRWRRWGGGGGGGGGBBBBBBBBB"),
+            Map.entry(Move.B2, "YYYWWWWWWYYYYYYWWWROOROOROORRORRORROGGGGGGGGGBBBBBBBBB")));
+
+    private static Move inverse(Move m) {
+        return Move.parse(m.notation().endsWith("'") ? m.notation().substring(0, 1)
+                : m.notation().endsWith("2") ? m.notation() : m.notation() + "'");
+    }
+
+    @ParameterizedTest
+    @EnumSource(Move.class)
+    void singleMoveMatchesOldModel(Move move) {
+        CubeState cube = new CubeState();
+        cube.apply(move);
+
+        assertThat(cube.facelets()).isEqualTo(OLD_MODEL.get(move));
+        assertThat(cube.isSolved()).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Move.class)
+    void moveFollowedByItsInverseIsIdentity(Move move) {
+        CubeState cube = new CubeState();
+        cube.apply(move);
+        cube.apply(inverse(move));
+
+        assertThat(cube.facelets()).isEqualTo(SOLVED);
+        assertThat(cube.isSolved()).isTrue();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Move.class)
+    void fourTimesAnyMoveIsIdentity(Move move) {
+        CubeState cube = new CubeState();
+        for (int i = 0; i < 4; i++) cube.apply(move);
+
+        assertThat(cube.isSolved()).isTrue();
+    }
+
+    @Test
+    void scrambleMatchesOldModel() {
+        CubeState cube = new CubeState();
+        for (Move m : ScrambleGenerator.generate(12345L, 25)) cube.apply(m);
+
+        assertThat(cube.facelets()).isEqualTo("RYRRWGYGBGBGYYOYGOGYRBOWOOOYRBORGOWBGWRRGBWWYWBWYBRWOB");
+    }
+
+    @Test
+    void slotsInASharedArrayDoNotTouchEachOther() {
+        byte[] slots = new byte[2 * CubeState.FACELETS];
+        CubeState.reset(slots, 0);
+        CubeState.reset(slots, CubeState.FACELETS);
+
+        CubeState.apply(slots, CubeState.FACELETS, Move.R);
+
+        assertThat(CubeState.isSolved(slots, 0)).isTrue();
+        assertThat(CubeState.facelets(slots, CubeState.FACELETS)).isEqualTo(OLD_MODEL.get(Move.R));
+    }
+}
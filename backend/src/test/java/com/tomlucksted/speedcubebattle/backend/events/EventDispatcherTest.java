@@ -0,0 +1,100 @@
+package com.tomlucksted.speedcubebattle.backend.events;
+
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventDispatcherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RealtimeMetrics metrics = new RealtimeMetrics(registry);
+
+    private double lost(EventHandoff handoff, String outcome) {
+        return registry.get("scb.events.handoffs.lost").tag("handoff", handoff.name()).tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void failingSinkIsCountedAndDoesNotStopOthers() throws Exception {
+        CountDownLatch saved = new CountDownLatch(1);
+        try (EventDispatcher dispatcher = new EventDispatcher(1, 10, 10, metrics)) {
+            dispatcher.dispatch(EventHandoff.MATCH_FINISHED_PUBLISH, () -> {
+                throw new IllegalStateException("broker down");
+            });
+            dispatcher.dispatch(EventHandoff.HISTORY_SAVE, saved::countDown);
+
+            assertThat(saved.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(lost(EventHandoff.MATCH_FINISHED_PUBLISH, "failed")).isEqualTo(1);
+        assertThat(lost(EventHandoff.HISTORY_SAVE, "failed")).isZero();
+    }
+
+    @Test
+    void failingSinkIsRetriedUntilItSucceeds() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch published = new CountDownLatch(1);
+        try (EventDispatcher dispatcher = new EventDispatcher(1, 10, 10, metrics)) {
+            // Broker zweimal weg, beim dritten Versuch da
+            dispatcher.dispatch(EventHandoff.MATCH_FINISHED_PUBLISH, () -> {
+                if (calls.incrementAndGet() < 3) throw new IllegalStateException("broker down");
+                published.countDown();
+            }, 5);
+
+            assertThat(published.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(registry.get("scb.events.handoffs.retried").tag("handoff", "MATCH_FINISHED_PUBLISH").counter().count()).isEqualTo(2);
+        assertThat(lost(EventHandoff.MATCH_FINISHED_PUBLISH, "failed")).isZero();
+    }
+
+    @Test
+    void retriesAreBounded() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch exhausted = new CountDownLatch(3);
+        try (EventDispatcher dispatcher = new EventDispatcher(1, 10, 10, metrics)) {
+            dispatcher.dispatch(EventHandoff.MATCH_FINISHED_PUBLISH, () -> {
+                calls.incrementAndGet();
+                exhausted.countDown();
+                throw new IllegalStateException("broker down");
+            }, 3);
+
+            assertThat(exhausted.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(200);
+        }
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(lost(EventHandoff.MATCH_FINISHED_PUBLISH, "failed")).isEqualTo(1);
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlockingTheCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        try (EventDispatcher dispatcher = new EventDispatcher(1, 2, 10, metrics)) {
+            // ein hängender Broker belegt den einzigen Thread
+            dispatcher.dispatch(EventHandoff.MATCH_FINISHED_PUBLISH, () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 5; i++) dispatcher.dispatch(EventHandoff.REPLAY_SAVE, ran::incrementAndGet);
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+
+            assertThat(lost(EventHandoff.REPLAY_SAVE, "dropped")).isEqualTo(3);
+            release.countDown();
+        }
+        // die zwei angenommenen laufen beim Schließen noch
+        assertThat(ran.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,84 @@
+package com.tomlucksted.speedcubebattle.backend.ghost;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimerWheelTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // 1 ms pro Tick, 8 Buckets -> eine Umdrehung sind 8 ms; ein Worker hält die Reihenfolge
+    private final TimerWheel wheel = new TimerWheel(MS, 8, 1, "test-wheel");
+
+    private record Fired(long deadlineNanos, long firedNanos) {}
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void firesInDeadlineOrderAndNeverEarly() throws Exception {
+        long base = System.nanoTime() + 5 * MS;
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 15; i++) deadlines.add(base + i * 3 * MS);
+        Collections.shuffle(deadlines, new Random(7));
+
+        List<Fired> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(deadlines.size());
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, () -> {
+                fired.add(new Fired(deadline, System.nanoTime()));
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).extracting(Fired::deadlineNanos).isSorted();
+        assertThat(fired).allSatisfy(f -> assertThat(f.firedNanos()).isGreaterThanOrEqualTo(f.deadlineNanos()));
+        assertThat(wheel.scheduled()).isZero();
+    }
+
+    @Test
+    void timerSeveralRevolutionsOutWaitsForItsRound() throws Exception {
+        long deadline = System.nanoTime() + 200 * MS;
+        CountDownLatch done = new CountDownLatch(1);
+        long[] firedAt = new long[1];
+        wheel.schedule(deadline, () -> {
+            firedAt[0] = System.nanoTime();
+            done.countDown();
+        });
+
+        // nach mehreren Umdrehungen liegt der Timer noch im Bucket
+        Thread.sleep(40);
+        assertThat(done.getCount()).isEqualTo(1);
+        assertThat(wheel.scheduled()).isEqualTo(1);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt[0]).isGreaterThanOrEqualTo(deadline);
+    }
+
+    @Test
+    void deadlineInThePastFiresOnTheNextTick() throws Exception {
+        long scheduledAt = System.nanoTime();
+        CountDownLatch done = new CountDownLatch(1);
+        long[] firedAt = new long[1];
+        wheel.schedule(scheduledAt - TimeUnit.SECONDS.toNanos(1), () -> {
+            firedAt[0] = System.nanoTime();
+            done.countDown();
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt[0] - scheduledAt).isLessThan(500 * MS);
+    }
+}
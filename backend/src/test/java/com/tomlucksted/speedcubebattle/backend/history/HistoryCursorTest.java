@@ -0,0 +1,43 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryCursorTest {
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void roundTrip() {
+        HistoryCursor cursor = new HistoryCursor(1_760_000_000_123L, "3f1c2a9e-0b7d-4c55-9a51-2d7e8f1a6b42");
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(HistoryCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void matchIdMayContainColons() {
+        HistoryCursor cursor = new HistoryCursor(42, "a:b:c");
+
+        assertThat(HistoryCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void malformedCursorsDecodeToNull() {
+        assertThat(HistoryCursor.decode(null)).isNull();
+        assertThat(HistoryCursor.decode("")).isNull();
+        assertThat(HistoryCursor.decode("not base64 !")).isNull();
+        assertThat(HistoryCursor.decode(base64("no-colon"))).isNull();
+        assertThat(HistoryCursor.decode(base64(":match"))).isNull();
+        assertThat(HistoryCursor.decode(base64("123:"))).isNull();
+        assertThat(HistoryCursor.decode(base64("abc:match"))).isNull();
+    }
+}
@@ -0,0 +1,84 @@
+package com.tomlucksted.speedcubebattle.backend.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Integer, String> loader = key -> {
+        loads.incrementAndGet();
+        return "v" + key + "@" + now.get();
+    };
+
+    @Test
+    void servesCachedValueUntilTheTtlExpires() {
+        TtlCache<Integer, String> cache = new TtlCache<>(64, 1_000, now::get);
+
+        assertThat(cache.get(1, loader)).isEqualTo("v1@0");
+        now.set(999);
+        assertThat(cache.get(1, loader)).isEqualTo("v1@0");
+        assertThat(loads).hasValue(1);
+
+        now.set(1_000);
+        assertThat(cache.get(1, loader)).isEqualTo("v1@1000");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        TtlCache<Integer, String> cache = new TtlCache<>(64, 1_000, now::get);
+        cache.get(1, loader);
+
+        cache.invalidate(1);
+        cache.get(1, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPerSegment() {
+        // 16 Segmente, Kapazität 32 -> 2 Einträge pro Segment; kleine Integer 0, 16, 32 landen im selben Segment
+        TtlCache<Integer, String> cache = new TtlCache<>(32, Long.MAX_VALUE / 2, now::get);
+        cache.get(0, loader);
+        cache.get(16, loader);
+        cache.get(0, loader);
+        cache.get(32, loader);
+        assertThat(loads).hasValue(3);
+
+        cache.get(0, loader);
+        assertThat(loads).as("recently used entry kept").hasValue(3);
+        cache.get(16, loader);
+        assertThat(loads).as("least recently used entry evicted").hasValue(4);
+    }
+
+    @Test
+    void staysBoundedUnderManyKeys() {
+        TtlCache<Integer, String> cache = new TtlCache<>(64, Long.MAX_VALUE / 2, now::get);
+        for (int i = 0; i < 10_000; i++) cache.get(i, loader);
+        loads.set(0);
+
+        for (int i = 0; i < 10_000; i++) cache.get(i, loader);
+
+        assertThat(10_000 - loads.get()).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    void nullResultsAreNotCached() {
+        TtlCache<Integer, String> cache = new TtlCache<>(64, 1_000, now::get);
+        Function<Integer, String> missing = key -> {
+            loads.incrementAndGet();
+            return null;
+        };
+
+        assertThat(cache.get(7, missing)).isNull();
+        assertThat(cache.get(7, missing)).isNull();
+        assertThat(loads).hasValue(2);
+    }
+}
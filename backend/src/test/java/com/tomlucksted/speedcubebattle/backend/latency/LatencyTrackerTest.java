@@ -0,0 +1,46 @@
+package com.tomlucksted.speedcubebattle.backend.latency;
+
+import com.tomlucksted.speedcubebattle.backend.match.participant.MatchParticipant;
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyTrackerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LatencyTracker tracker = new LatencyTracker(new RealtimeMetrics(new SimpleMeterRegistry()), 250);
+
+    private void pingPong(String sessionId, long sentNanos, long rttNanos) {
+        long pingId = tracker.nextPing(sessionId, sentNanos, sentNanos / MS);
+        tracker.pong(sessionId, pingId, sentNanos / MS, sentNanos + rttNanos, (sentNanos + rttNanos) / MS);
+    }
+
+    @Test
+    void honestClientIsCompensatedByHalfItsRoundTrip() {
+        tracker.register("s");
+        pingPong("s", 0, 80 * MS);
+
+        assertThat(tracker.oneWayNanos("s")).isEqualTo(40 * MS);
+    }
+
+    @Test
+    void pongDelayingClientGainsAtMostTheBudgetPerSolve() {
+        tracker.register("cheat");
+        // jeder Pong wird zwei Sekunden zurückgehalten
+        for (int i = 0; i < 8; i++) pingPong("cheat", i * 3_000 * MS, 2_000 * MS);
+
+        MatchParticipant p = new MatchParticipant("cheat", "cheat");
+        long start = 10_000 * MS;
+        p.started(tracker.oneWayNanos("cheat"));
+        long finish = start + 20_000 * MS;
+        p.solved(finish, tracker.oneWayNanos("cheat"));
+
+        long gained = p.rawSolveNanos(start) - p.compensatedSolveNanos(start);
+        assertThat(gained).isEqualTo(250 * MS);
+    }
+}
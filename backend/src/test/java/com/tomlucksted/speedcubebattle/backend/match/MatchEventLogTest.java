@@ -0,0 +1,86 @@
+package com.tomlucksted.speedcubebattle.backend.match;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchEventLogTest {
+
+    // ein Empfänger, der Live-Frames erst nach dem Attach bekommt
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private volatile boolean attached;
+
+    private final Consumer<String> live = frame -> {
+        if (attached) received.add(frame);
+    };
+
+    private void append(MatchEventLog log, int frames) {
+        for (int i = 0; i < frames; i++) log.append(seq -> "f" + seq, live);
+    }
+
+    @Test
+    void resumeReplaysMissedFramesAndAttaches() {
+        MatchEventLog log = new MatchEventLog(16);
+        append(log, 5);
+
+        int replayed = log.resume(2, () -> attached = true, seq -> "snapshot@" + seq, received::add);
+        append(log, 1);
+
+        assertThat(replayed).isEqualTo(3);
+        assertThat(received).containsExactly("f3", "f4", "f5", "f6");
+    }
+
+    @Test
+    void resumeFallsBackToSnapshotWhenFramesAreGone() {
+        MatchEventLog log = new MatchEventLog(8);
+        append(log, 20);
+
+        int replayed = log.resume(1, () -> attached = true, seq -> "snapshot@" + seq, received::add);
+        append(log, 1);
+
+        assertThat(replayed).isEqualTo(-1);
+        assertThat(received).containsExactly("snapshot@20", "f21");
+    }
+
+    @Test
+    void concurrentAppendCannotOvertakeTheReplay() throws Exception {
+        MatchEventLog log = new MatchEventLog(16);
+        append(log, 3);
+
+        CountDownLatch replaying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> resume = CompletableFuture.supplyAsync(() -> log.resume(0, () -> attached = true,
+                seq -> "snapshot@" + seq,
+                frame -> {
+                    received.add(frame);
+                    replaying.countDown();
+                    await(release);
+                }));
+        assertThat(replaying.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Broadcast mitten im Replay: muss warten, bis der Resume durch ist
+        CompletableFuture<Void> broadcast = CompletableFuture.runAsync(() -> append(log, 1));
+        Thread.sleep(50);
+        assertThat(broadcast).isNotDone();
+
+        release.countDown();
+        assertThat(resume.get(5, TimeUnit.SECONDS)).isEqualTo(3);
+        broadcast.get(5, TimeUnit.SECONDS);
+        assertThat(received).containsExactly("f1", "f2", "f3", "f4");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
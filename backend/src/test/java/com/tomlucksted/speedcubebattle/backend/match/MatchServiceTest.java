@@ -0,0 +1,171 @@
+package com.tomlucksted.speedcubebattle.backend.match;
+
+import com.tomlucksted.speedcubebattle.backend.cube.CubeState;
+import com.tomlucksted.speedcubebattle.backend.cube.Move;
+import com.tomlucksted.speedcubebattle.backend.events.MatchFinishedEvent;
+import com.tomlucksted.speedcubebattle.backend.latency.LatencyTracker;
+import com.tomlucksted.speedcubebattle.backend.match.result.JoinResultType;
+import com.tomlucksted.speedcubebattle.backend.match.result.LeaveMatchResultType;
+import com.tomlucksted.speedcubebattle.backend.match.result.SystemMatchResult;
+import com.tomlucksted.speedcubebattle.backend.metrics.RealtimeMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchServiceTest {
+
+    private final RealtimeMetrics metrics = new RealtimeMetrics(new SimpleMeterRegistry());
+    private final List<Object> published = new CopyOnWriteArrayList<>();
+    private final MatchService service = new MatchService(metrics, new LatencyTracker(metrics, 250), published::add, 16);
+
+    // Scramble ist ein einzelnes R, gelöst wird mit R'
+    private Match startDuel() {
+        return startDuelReleasing().match();
+    }
+
+    private SystemMatchResult startDuelReleasing() {
+        CubeState scrambled = new CubeState();
+        scrambled.apply(Move.R);
+        Map<String, String> seats = new LinkedHashMap<>();
+        seats.put("alice", "s-alice");
+        seats.put("bob", "s-bob");
+        return service.startSystemMatch(seats, 1L, List.of(Move.R), scrambled);
+    }
+
+    private List<MatchFinishedEvent> finished() {
+        return published.stream().filter(MatchFinishedEvent.class::isInstance).map(MatchFinishedEvent.class::cast).toList();
+    }
+
+    @Test
+    void expiringTheLastUnsolvedPlayerFinishesTheMatch() {
+        Match match = startDuel();
+        service.applyMove(match.id(), "s-alice", "R'", System.nanoTime());
+        assertThat(match.state()).isEqualTo(MatchState.RUNNING);
+
+        service.disconnectBySessionId("s-bob");
+        var left = service.expireDisconnected(match.id(), "bob", 0);
+
+        assertThat(left.type()).isEqualTo(LeaveMatchResultType.OK);
+        assertThat(left.ended()).isNotNull();
+        assertThat(match.state()).isEqualTo(MatchState.FINISHED);
+        assertThat(finished()).singleElement().satisfies(e -> {
+            assertThat(e.results()).extracting(MatchFinishedEvent.Result::playerId).containsExactly("alice", "bob");
+            assertThat(e.results()).extracting(MatchFinishedEvent.Result::dnf).containsExactly(false, true);
+            assertThat(e.results()).extracting(MatchFinishedEvent.Result::placement).containsExactly(1, 2);
+        });
+    }
+
+    @Test
+    void leavingALosingGameStillCountsAsALoss() {
+        Match match = startDuel();
+        service.applyMove(match.id(), "s-bob", "U", System.nanoTime());
+
+        service.leaveBySessionId("s-bob");
+        assertThat(finished()).isEmpty();
+        service.applyMove(match.id(), "s-alice", "R'", System.nanoTime());
+
+        assertThat(finished()).singleElement().satisfies(e -> {
+            assertThat(e.results()).extracting(MatchFinishedEvent.Result::playerId).containsExactly("alice", "bob");
+            var bob = e.results().get(1);
+            assertThat(bob.dnf()).isTrue();
+            assertThat(bob.placement()).isEqualTo(2);
+            assertThat(bob.solveTimeMs()).isZero();
+            assertThat(bob.moveCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void bothPlayersLeavingStillPublishesTheEnd() {
+        Match match = startDuel();
+
+        service.leaveBySessionId("s-alice");
+        assertThat(finished()).isEmpty();
+        var left = service.leaveBySessionId("s-bob");
+
+        assertThat(left.ended()).isNotNull();
+        assertThat(service.getMatch(match.id())).isNull();
+        // beide DNF, gemeinsam auf Platz 1
+        assertThat(finished()).singleElement().satisfies(e -> {
+            assertThat(e.results()).extracting(MatchFinishedEvent.Result::playerId).containsExactly("alice", "bob");
+            assertThat(e.results()).allSatisfy(r -> {
+                assertThat(r.dnf()).isTrue();
+                assertThat(r.placement()).isEqualTo(1);
+            });
+        });
+    }
+
+    @Test
+    void timeOutEndsARunningMatchOnce() {
+        Match match = startDuel();
+        service.applyMove(match.id(), "s-bob", "R'", System.nanoTime());
+
+        var ended = service.timeOut(match.id());
+
+        assertThat(ended).isNotNull();
+        assertThat(ended.results()).extracting(r -> r.playerId()).containsExactly("bob", "alice");
+        assertThat(ended.results()).extracting(r -> r.dnf()).containsExactly(false, true);
+        assertThat(service.timeOut(match.id())).isNull();
+        assertThat(finished()).hasSize(1);
+    }
+
+    @Test
+    void finishedGamesOfASeriesAreDroppedWhenTheNextOneStarts() {
+        // Best-of-3: Spieler schicken kein Leave, sie werden einfach ins nächste Spiel gesetzt
+        List<Match> games = new ArrayList<>();
+        for (int game = 0; game < 3; game++) {
+            Match match = startDuel();
+            service.applyMove(match.id(), "s-alice", "R'", System.nanoTime());
+            service.applyMove(match.id(), "s-bob", "R'", System.nanoTime());
+            assertThat(match.state()).isEqualTo(MatchState.FINISHED);
+            games.add(match);
+            assertThat(service.footprint().finished()).isEqualTo(1);
+        }
+
+        assertThat(service.getMatch(games.get(0).id())).isNull();
+        assertThat(service.getMatch(games.get(1).id())).isNull();
+        assertThat(service.getMatch(games.get(2).id())).isNotNull();
+        assertThat(finished()).hasSize(3);
+    }
+
+    @Test
+    void lobbyIsReleasedWhenTheTournamentTakesThePlayer() {
+        String lobbyId = service.createMatch();
+        assertThat(service.joinMatch(lobbyId, "s-alice", "alice").type()).isEqualTo(JoinResultType.OK);
+        assertThat(service.joinMatch(lobbyId, "s-carol", "carol").type()).isEqualTo(JoinResultType.OK);
+
+        SystemMatchResult started = startDuelReleasing();
+
+        assertThat(started.released()).singleElement().satisfies(left -> {
+            assertThat(left.matchId()).isEqualTo(lobbyId);
+            assertThat(left.playerId()).isEqualTo("alice");
+        });
+        assertThat(service.getMatch(lobbyId).playerIds()).containsExactly("carol");
+        assertThat(service.leaveBySessionId("s-alice").matchId()).isEqualTo(started.match().id());
+    }
+
+    @Test
+    void footprintDoesNotWaitForABusyMatch() throws Exception {
+        Match match = startDuel();
+        service.applyMove(match.id(), "s-alice", "U", System.nanoTime());
+
+        MatchFootprint footprint;
+        synchronized (match) {
+            // der Test hält den Match-Lock, footprint() läuft auf einem anderen Thread
+            footprint = CompletableFuture.supplyAsync(service::footprint).get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(footprint.running()).isEqualTo(1);
+        assertThat(footprint.participants()).isEqualTo(2);
+        assertThat(footprint.cubeBytes()).isPositive();
+        assertThat(footprint.recordingBytes()).isPositive();
+    }
+}
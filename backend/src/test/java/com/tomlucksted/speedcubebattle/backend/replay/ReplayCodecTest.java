@@ -0,0 +1,78 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import com.tomlucksted.speedcubebattle.backend.cube.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReplayCodecTest {
+
+    private static final Move[] MOVES = Move.values();
+
+    @Test
+    void roundTripKeepsSeedMovesAndTimestamps() {
+        Random random = new Random(7);
+        SolveRecording recording = new SolveRecording();
+        Move[] moves = new Move[300];
+        int[] atMs = new int[moves.length];
+        int at = 0;
+        for (int i = 0; i < moves.length; i++) {
+            // auch Pausen > 127 ms bzw. > 16383 ms, damit mehrbytige Varints vorkommen
+            at += i % 50 == 0 ? 20_000 : random.nextInt(400);
+            moves[i] = MOVES[random.nextInt(MOVES.length)];
+            atMs[i] = at;
+            recording.record(moves[i], at);
+        }
+
+        Replay replay = ReplayCodec.decode(ReplayCodec.encode(-4242424242L, 20, recording));
+
+        assertThat(replay.scrambleSeed()).isEqualTo(-4242424242L);
+        assertThat(replay.scrambleLength()).isEqualTo(20);
+        assertThat(replay.moveCount()).isEqualTo(moves.length);
+        for (int i = 0; i < moves.length; i++) {
+            assertThat(replay.move(i)).isEqualTo(moves[i]);
+            assertThat(replay.atMs(i)).isEqualTo(atMs[i]);
+        }
+        assertThat(replay.durationMs()).isEqualTo(recording.durationMs());
+    }
+
+    @Test
+    void timestampsAreKeptMonotonic() {
+        SolveRecording recording = new SolveRecording();
+        recording.record(Move.R, 500);
+        recording.record(Move.U, 300);
+        recording.record(Move.F, -20);
+
+        Replay replay = ReplayCodec.decode(ReplayCodec.encode(1, 20, recording));
+
+        assertThat(replay.atMs()).containsExactly(500, 500, 500);
+    }
+
+    @Test
+    void emptyRecordingRoundTrips() {
+        Replay replay = ReplayCodec.decode(ReplayCodec.encode(99, 25, new SolveRecording()));
+
+        assertThat(replay.scrambleSeed()).isEqualTo(99);
+        assertThat(replay.moveCount()).isZero();
+        assertThat(replay.durationMs()).isZero();
+    }
+
+    @Test
+    void rejectsUnknownVersionAndInvalidMoves() {
+        SolveRecording recording = new SolveRecording();
+        recording.record(Move.R, 10);
+        byte[] data = ReplayCodec.encode(1, 20, recording);
+
+        byte[] wrongVersion = data.clone();
+        wrongVersion[0] = 9;
+        assertThatThrownBy(() -> ReplayCodec.decode(wrongVersion)).isInstanceOf(IllegalArgumentException.class);
+
+        // Header: Version (1) + Seed (8) + Scramble-Länge (1) + Anzahl (1) -> danach der erste Zug
+        byte[] badMove = data.clone();
+        badMove[11] = (byte) MOVES.length;
+        assertThatThrownBy(() -> ReplayCodec.decode(badMove)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
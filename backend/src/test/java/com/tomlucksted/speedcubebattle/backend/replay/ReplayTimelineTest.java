@@ -0,0 +1,74 @@
+package com.tomlucksted.speedcubebattle.backend.replay;
+
+import com.tomlucksted.speedcubebattle.backend.cube.CubeState;
+import com.tomlucksted.speedcubebattle.backend.cube.Move;
+import com.tomlucksted.speedcubebattle.backend.cube.ScrambleGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReplayTimelineTest {
+
+    private static final Move[] MOVES = Move.values();
+
+    private static Replay randomReplay(long seed, int moves) {
+        Random random = new Random(seed);
+        byte[] ordinals = new byte[moves];
+        int[] atMs = new int[moves];
+        for (int i = 0; i < moves; i++) {
+            ordinals[i] = (byte) random.nextInt(MOVES.length);
+            atMs[i] = (i + 1) * 100;
+        }
+        return new Replay(seed, 20, ordinals, atMs);
+    }
+
+    @Test
+    void everyFrameMatchesPlayingFromTheStart() {
+        // nicht durch CHECKPOINT_INTERVAL teilbar, damit auch der letzte angebrochene Block geprüft wird
+        Replay replay = randomReplay(3, ReplayTimeline.CHECKPOINT_INTERVAL * 4 + 5);
+        ReplayTimeline timeline = new ReplayTimeline(replay);
+
+        CubeState expected = new CubeState();
+        for (Move m : ScrambleGenerator.generate(replay.scrambleSeed(), replay.scrambleLength())) expected.apply(m);
+
+        assertThat(timeline.frameCount()).isEqualTo(replay.moveCount() + 1);
+        assertThat(timeline.stateAt(0).facelets()).isEqualTo(expected.facelets());
+        for (int frame = 1; frame < timeline.frameCount(); frame++) {
+            expected.apply(replay.move(frame - 1));
+            assertThat(timeline.stateAt(frame).facelets()).as("frame %d", frame).isEqualTo(expected.facelets());
+        }
+    }
+
+    @Test
+    void seekingBackwardsReturnsFreshCubes() {
+        ReplayTimeline timeline = new ReplayTimeline(randomReplay(11, 40));
+        String frame5 = timeline.stateAt(5).facelets();
+
+        timeline.stateAt(37).apply(Move.R);
+
+        assertThat(timeline.stateAt(5).facelets()).isEqualTo(frame5);
+    }
+
+    @Test
+    void frameAtCountsMovesUpToTheGivenTime() {
+        ReplayTimeline timeline = new ReplayTimeline(randomReplay(5, 10));
+
+        assertThat(timeline.frameAt(0)).isZero();
+        assertThat(timeline.frameAt(99)).isZero();
+        assertThat(timeline.frameAt(100)).isEqualTo(1);
+        assertThat(timeline.frameAt(550)).isEqualTo(5);
+        assertThat(timeline.frameAt(1_000)).isEqualTo(10);
+        assertThat(timeline.frameAt(Long.MAX_VALUE)).isEqualTo(10);
+    }
+
+    @Test
+    void rejectsFramesOutsideTheReplay() {
+        ReplayTimeline timeline = new ReplayTimeline(randomReplay(1, 10));
+
+        assertThatThrownBy(() -> timeline.stateAt(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> timeline.stateAt(11)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.tomlucksted.speedcubebattle.backend.tournament;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BracketsTest {
+
+    @Test
+    void seedOrderKeepsTopSeedsApart() {
+        assertThat(Brackets.seedOrder(8)).containsExactly(1, 8, 4, 5, 2, 7, 3, 6);
+        assertThat(Brackets.seedOrder(16)).containsExactly(1, 16, 8, 9, 4, 13, 5, 12, 2, 15, 7, 10, 3, 14, 6, 11);
+    }
+
+    @Test
+    void byesGoToTheTopSeeds() {
+        List<String> seeded = List.of("s1", "s2", "s3", "s4", "s5");
+
+        List<Series> round = Brackets.firstEliminationRound(seeded, 1);
+
+        assertThat(Brackets.rounds(seeded.size())).isEqualTo(3);
+        assertThat(round).hasSize(4);
+        assertThat(round.stream().filter(Series::isBye).map(Series::playerA)).containsExactlyInAnyOrder("s1", "s2", "s3");
+        assertThat(round.stream().filter(s -> !s.isBye()).map(s -> Set.of(s.playerA(), s.playerB())))
+                .containsExactly(Set.of("s4", "s5"));
+    }
+
+    @Test
+    void swissAvoidsARematchTheGreedyPairingWouldForce() {
+        // a-b und b-d schon gespielt: gierig a-c, dann bliebe nur das Rematch b-d
+        List<String> players = List.of("a", "b", "c", "d");
+        Map<String, Integer> points = Map.of("a", 3, "b", 2, "c", 1, "d", 0);
+        Map<String, Set<String>> opponents = Map.of(
+                "a", Set.of("b"), "b", Set.of("a", "d"), "d", Set.of("b"));
+
+        List<Series> round = Brackets.swissRound(players, points, opponents, Set.of(), 1);
+
+        assertThat(round.stream().map(s -> Set.of(s.playerA(), s.playerB())))
+                .containsExactlyInAnyOrder(Set.of("a", "d"), Set.of("b", "c"));
+    }
+
+    @Test
+    void swissNeverRepeatsAPairingWhileAFreshOpponentExists() {
+        // 16 Spieler, 8 Runden: vorher höchstens 7 Gegner, mindestens 8 frische garantieren eine Paarung ohne Rematch
+        Random random = new Random(11);
+        List<String> players = new ArrayList<>();
+        for (int i = 0; i < 16; i++) players.add("p" + i);
+        Map<String, Integer> points = new HashMap<>();
+        Map<String, Set<String>> opponents = new HashMap<>();
+
+        for (int r = 0; r < 8; r++) {
+            List<Series> round = Brackets.swissRound(players, points, opponents, Set.of(), 1);
+
+            assertThat(round).hasSize(8);
+            Set<String> seen = new HashSet<>();
+            for (Series s : round) {
+                assertThat(opponents.getOrDefault(s.playerA(), Set.of())).doesNotContain(s.playerB());
+                assertThat(seen.add(s.playerA()) && seen.add(s.playerB())).isTrue();
+                play(s, random, points, opponents);
+            }
+        }
+    }
+
+    @Test
+    void swissByeRotatesThroughTheField() {
+        Random random = new Random(3);
+        List<String> players = List.of("p0", "p1", "p2", "p3", "p4", "p5", "p6");
+        Map<String, Integer> points = new HashMap<>();
+        Map<String, Set<String>> opponents = new HashMap<>();
+        Set<String> byes = new HashSet<>();
+
+        for (int r = 0; r < players.size(); r++) {
+            List<Series> round = Brackets.swissRound(players, points, opponents, byes, 1);
+
+            List<Series> byeSeries = round.stream().filter(Series::isBye).toList();
+            assertThat(byeSeries).hasSize(1);
+            assertThat(byes.add(byeSeries.getFirst().playerA())).isTrue();
+            for (Series s : round) {
+                if (s.isBye()) points.merge(s.playerA(), 1, Integer::sum);
+                else play(s, random, points, opponents);
+            }
+        }
+        assertThat(byes).containsExactlyInAnyOrderElementsOf(players);
+    }
+
+    private static void play(Series s, Random random, Map<String, Integer> points, Map<String, Set<String>> opponents) {
+        opponents.computeIfAbsent(s.playerA(), k -> new HashSet<>()).add(s.playerB());
+        opponents.computeIfAbsent(s.playerB(), k -> new HashSet<>()).add(s.playerA());
+        points.merge(random.nextBoolean() ? s.playerA() : s.playerB(), 1, Integer::sum);
+    }
+}
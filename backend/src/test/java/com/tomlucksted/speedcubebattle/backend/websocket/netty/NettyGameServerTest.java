@@ -0,0 +1,103 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.netty;
+
+import com.tomlucksted.speedcubebattle.backend.auth.TokenService;
+import com.tomlucksted.speedcubebattle.backend.websocket.GameMessageHandler;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.WsMessageType;
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.in.IncomingWsMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NettyGameServerTest {
+
+    private static final String EVENT_LOOP = "reactor-http-";
+
+    private final JsonMapper json = JsonMapper.builder().build();
+    private final GameMessageHandler handler = mock(GameMessageHandler.class);
+    private final TokenService tokens = mock(TokenService.class);
+    private final Map<WsMessageType, String> handledOn = new ConcurrentHashMap<>();
+    private final CountDownLatch releaseDb = new CountDownLatch(1);
+    private final CountDownLatch moveHandled = new CountDownLatch(1);
+    private final CountDownLatch ghostHandled = new CountDownLatch(1);
+    private final List<Disposable> clients = new ArrayList<>();
+    private NettyGameServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(tokens.authenticate(anyString())).thenReturn("player");
+        when(handler.mayBlock(any())).thenCallRealMethod();
+        doAnswer(call -> json.readValue(call.<String>getArgument(1), IncomingWsMessage.class))
+                .when(handler).accept(any(), anyString(), anyLong());
+        doAnswer(call -> {
+            IncomingWsMessage incoming = call.getArgument(1);
+            handledOn.put(incoming.type(), Thread.currentThread().getName());
+            if (incoming.type() == WsMessageType.LOBBY_CREATE_GHOST_MATCH) {
+                // simuliert den blockierenden DB-Zugriff
+                releaseDb.await(10, TimeUnit.SECONDS);
+                ghostHandled.countDown();
+            } else {
+                moveHandled.countDown();
+            }
+            return null;
+        }).when(handler).handle(any(), any(), anyLong());
+
+        server = new NettyGameServer(handler, tokens, 0, 16, true);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseDb.countDown();
+        clients.forEach(Disposable::dispose);
+        server.stop();
+    }
+
+    private void connectAndSend(String text) {
+        clients.add(HttpClient.create()
+                .port(server.port())
+                .websocket()
+                .uri("/ws?token=t")
+                .handle((in, out) -> out.sendString(Mono.just(text)).then(Mono.never()))
+                .subscribe());
+    }
+
+    @Test
+    void blockingTypeIsOffloadedEvenWhenTypeComesLateInTheFrame() throws Exception {
+        // "type" hinter dem Sniff-Fenster: maßgeblich ist der geparste Typ
+        connectAndSend("{\"payload\":{\"pad\":\"" + "x".repeat(200) + "\"},\"type\":\"LOBBY_CREATE_GHOST_MATCH\"}");
+        releaseDb.countDown();
+
+        assertThat(ghostHandled.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(handledOn.get(WsMessageType.LOBBY_CREATE_GHOST_MATCH)).doesNotStartWith(EVENT_LOOP);
+    }
+
+    @Test
+    void blockedDbLookupDoesNotStallMovesOfOtherSessions() throws Exception {
+        connectAndSend("{\"type\":\"LOBBY_CREATE_GHOST_MATCH\",\"payload\":{}}");
+        connectAndSend("{\"type\":\"GAME_SUBMIT_MOVE\",\"payload\":{}}");
+
+        // der Zug läuft auf dem Event-Loop durch, während der DB-Zugriff noch hängt
+        assertThat(moveHandled.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(ghostHandled.getCount()).isEqualTo(1);
+        assertThat(handledOn.get(WsMessageType.GAME_SUBMIT_MOVE)).startsWith(EVENT_LOOP);
+    }
+}
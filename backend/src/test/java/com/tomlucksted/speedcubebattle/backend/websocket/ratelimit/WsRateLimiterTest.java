@@ -0,0 +1,55 @@
+package com.tomlucksted.speedcubebattle.backend.websocket.ratelimit;
+
+import com.tomlucksted.speedcubebattle.backend.websocket.protocol.WsMessageType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WsRateLimiterTest {
+
+    private static final RateLimitProperties.Limit GENEROUS = new RateLimitProperties.Limit(1000, 1000);
+
+    // Lobby-Topf fasst nur zwei Frames, alles andere ist großzügig
+    private final WsRateLimiter limiter = new WsRateLimiter(new RateLimitProperties(
+            true, GENEROUS, GENEROUS, new RateLimitProperties.Limit(0.001, 2), GENEROUS, GENEROUS));
+
+    private Admission send(String frame, WsMessageType parsed) {
+        long now = System.nanoTime();
+        WsMessageType sniffed = WsTypeSniffer.sniff(frame);
+        Admission admission = limiter.admit("s", sniffed, now);
+        return admission != Admission.ADMITTED ? admission : limiter.admitParsed("s", sniffed, parsed, now);
+    }
+
+    @Test
+    void typeHiddenBehindPaddedPayloadStillChargesItsBucket() {
+        limiter.register("s");
+        String padded = "{\"payload\":{\"pad\":\"" + "x".repeat(100) + "\"},\"type\":\"LOBBY_CREATE_MATCH\"}";
+        assertThat(WsTypeSniffer.sniff(padded)).isNull();
+
+        assertThat(send(padded, WsMessageType.LOBBY_CREATE_MATCH)).isEqualTo(Admission.ADMITTED);
+        assertThat(send(padded, WsMessageType.LOBBY_CREATE_MATCH)).isEqualTo(Admission.ADMITTED);
+        assertThat(send(padded, WsMessageType.LOBBY_CREATE_MATCH)).isEqualTo(Admission.REJECTED);
+    }
+
+    @Test
+    void nestedTypeCannotBuyACheaperBucket() {
+        limiter.register("s");
+        // der Sniffer findet den verschachtelten SYS_PONG, geparst wird LOBBY_CREATE_MATCH
+        String nested = "{\"payload\":{\"type\":\"SYS_PONG\"},\"type\":\"LOBBY_CREATE_MATCH\"}";
+        assertThat(WsTypeSniffer.sniff(nested)).isEqualTo(WsMessageType.SYS_PONG);
+
+        send(nested, WsMessageType.LOBBY_CREATE_MATCH);
+        send(nested, WsMessageType.LOBBY_CREATE_MATCH);
+        assertThat(send(nested, WsMessageType.LOBBY_CREATE_MATCH)).isEqualTo(Admission.REJECTED);
+    }
+
+    @Test
+    void matchingSniffIsChargedOnlyOnce() {
+        limiter.register("s");
+        String frame = "{\"type\":\"LOBBY_CREATE_MATCH\",\"payload\":{}}";
+
+        assertThat(send(frame, WsMessageType.LOBBY_CREATE_MATCH)).isEqualTo(Admission.ADMITTED);
+        assertThat(send(frame, WsMessageType.LOBBY_CREATE_MATCH)).isEqualTo(Admission.ADMITTED);
+        assertThat(send(frame, WsMessageType.LOBBY_CREATE_MATCH)).isEqualTo(Admission.REJECTED);
+    }
+}
@@ -4,10 +4,10 @@ import dynamic from "next/dynamic";
 import { useEffect, useMemo, useState } from "react";
 
 // --- types ---
-type WsEnvelope<T = any> = { type: string; payload?: T };
+type WsEnvelope<T = any> = { type: string; payload?: T; seq?: number };
 type ErrorPayload = { message: string; errorType?: string };
 
-type PlayerInfo = { playerId: string; ready: boolean; role?: "HOST" | "GUEST" };
+type PlayerInfo = { playerId: string; ready: boolean; role?: "HOST" | "GUEST"; connected?: boolean };
 
 type MatchCreatedPayload = { matchId: string };
 type PlayerJoinedPayload = { matchId: string; joinedPlayerId: string; players: PlayerInfo[] };
@@ -20,9 +20,34 @@ type MatchStartedPayload = {
   players?: PlayerInfo[];
 };
 type PlayerLeftPayload = { matchId: string; leftPlayerId: string; players: PlayerInfo[] };
+type PlayerConnectionPayload = { matchId: string; playerId: string; connected: boolean; players: PlayerInfo[] };
+type AuthToken = { playerId: string; token: string; expiresAt: number };
+type ResumeTokenPayload = { matchId: string; playerId: string; resumeToken: string };
+type MatchSnapshotPayload = {
+  matchId: string;
+  lastSeq: number;
+  state: "LOBBY" | "RUNNING" | "FINISHED";
+  scrambleSeed?: number;
+  scramble?: string[];
+  players: PlayerInfo[];
+  facelets?: string;
+  moveCount: number;
+  solved: boolean;
+};
+
+type TournamentStatePayload = {
+  tournamentId: string;
+  format: "SINGLE_ELIMINATION" | "SWISS";
+  bestOf: number;
+  state: "REGISTRATION" | "RUNNING" | "FINISHED";
+  round: number;
+  totalRounds: number;
+  playerCount: number;
+  winnerId?: string;
+};
 
 // Moves
-type MoveAppliedPayload = { matchId: string; playerId: string; move: string; seq: number; serverTs: number };
+type MoveAppliedPayload = { matchId: string; playerId: string; move: string; seq: number; serverTs: number; elapsedMs: number };
 
 // Cube state
 type CubeStatePayload = {
@@ -33,10 +58,6 @@ type CubeStatePayload = {
   solved: boolean;
 };
 
-function genId() {
-  return Math.random().toString(16).slice(2) + "-" + Date.now().toString(16);
-}
-
 const MOVE_PRESETS = ["R", "R'", "L", "L'", "U", "U'", "D", "D'", "F", "F'", "B", "B'"];
 
 // --- 3D viewer (dynamic, no SSR) ---
@@ -44,10 +65,13 @@ const CubeViewer3D = dynamic(() => import("./viewer/CubeViewer3D"), { ssr: false
 
 export default function Home() {
   const [playerId, setPlayerId] = useState<string>("");
+  const [token, setToken] = useState<string>("");
   const [ws, setWs] = useState<WebSocket | null>(null);
 
   const [log, setLog] = useState<string[]>([]);
   const [joinMatchId, setJoinMatchId] = useState<string>("");
+  const [tournamentId, setTournamentId] = useState<string>("");
+  const [tournament, setTournament] = useState<TournamentStatePayload | null>(null);
 
   const [matchId, setMatchId] = useState<string>("");
   const [players, setPlayers] = useState<PlayerInfo[]>([]);
@@ -74,29 +98,59 @@ export default function Home() {
   const canStart = isInMatch && isHost && allReady && !matchStarted;
   const canSendMove = isInMatch && matchStarted;
 
-  // Generate stable playerId per tab
+  // Gast-Token pro Tab; die Identität steckt im Token, nicht mehr in den Nachrichten
   useEffect(() => {
-    const existing = sessionStorage.getItem("playerId");
-    const id = existing ?? genId();
-    if (!existing) sessionStorage.setItem("playerId", id);
-    setPlayerId(id);
+    const existing = sessionStorage.getItem("auth");
+    if (existing) {
+      const auth = JSON.parse(existing) as AuthToken;
+      if (auth.expiresAt * 1000 > Date.now()) {
+        setToken(auth.token);
+        setPlayerId(auth.playerId);
+        return;
+      }
+    }
+
+    fetch("http://localhost:8083/api/auth/guest", { method: "POST" })
+      .then((r) => r.json() as Promise<AuthToken>)
+      .then((auth) => {
+        sessionStorage.setItem("auth", JSON.stringify(auth));
+        setToken(auth.token);
+        setPlayerId(auth.playerId);
+      })
+      .catch(() => setLog((l) => ["!! could not get a guest token", ...l]));
   }, []);
 
-  // WS connect when playerId is ready
+  // WS connect when the token is ready
   useEffect(() => {
-    if (!playerId) return;
+    if (!token) return;
 
-    const socket = new WebSocket("ws://localhost:8083/ws");
+    const socket = new WebSocket(`ws://localhost:8083/ws?token=${encodeURIComponent(token)}`);
 
     socket.onopen = () => {
       setLog((l) => [`connected as playerId=${playerId}`, ...l]);
       setWs(socket);
+
+      // nach Reload / Verbindungsabbruch den Slot im Match wieder übernehmen
+      const resume = sessionStorage.getItem("resume");
+      if (resume) {
+        const { matchId, resumeToken } = JSON.parse(resume) as ResumeTokenPayload;
+        const lastSeq = Number(sessionStorage.getItem("lastSeq") ?? "0");
+        socket.send(JSON.stringify({ type: "SYS_RESUME", payload: { matchId, resumeToken, lastSeq } }));
+      }
     };
 
     socket.onmessage = (e) => {
       try {
         const msg: WsEnvelope = JSON.parse(e.data);
+
+        // Heartbeat sofort beantworten (RTT / Clock-Offset am Server), nicht ins Log
+        if (msg.type === "SYS_PING") {
+          socket.send(JSON.stringify({ type: "SYS_PONG", payload: { pingId: msg.payload?.pingId, clientTs: Date.now() } }));
+          return;
+        }
+
         setLog((l) => [`<= ${msg.type} ${JSON.stringify(msg.payload ?? {})}`, ...l]);
+        if (msg.seq != null) sessionStorage.setItem("lastSeq", String(msg.seq));
 
         switch (msg.type) {
           case "LOBBY_MATCH_CREATED": {
@@ -116,6 +170,27 @@ export default function Home() {
             break;
           }
 
+          case "TOURNAMENT_CREATED": {
+            setTournamentId(msg.payload?.tournamentId ?? "");
+            break;
+          }
+
+          case "TOURNAMENT_UPDATED": {
+            const p = msg.payload as TournamentStatePayload;
+            setTournament(p);
+            setTournamentId(p.tournamentId);
+            break;
+          }
+
+          case "TOURNAMENT_GAME_STARTED": {
+            // neues Spiel der Serie: Zustand des vorherigen Matches verwerfen, Start kommt per GAME_MATCH_STARTED
+            setMoves([]);
+            setMyFacelets("");
+            setMyMoveCount(0);
+            setMySolved(false);
+            break;
+          }
+
           case "LOBBY_PLAYER_JOINED": {
             const p = msg.payload as PlayerJoinedPayload;
             setMatchId(p.matchId);
@@ -186,6 +261,32 @@ export default function Home() {
             break;
           }
 
+          case "SYS_RESUME_TOKEN": {
+            sessionStorage.setItem("resume", JSON.stringify(msg.payload));
+            sessionStorage.setItem("lastSeq", "0");
+            break;
+          }
+
+          case "SYS_SNAPSHOT": {
+            const p = msg.payload as MatchSnapshotPayload;
+            sessionStorage.setItem("lastSeq", String(p.lastSeq));
+            setMatchId(p.matchId);
+            setPlayers(p.players ?? []);
+            setMatchStarted(p.state !== "LOBBY");
+            setScramble(p.scramble ?? []);
+            setScrambleSeed(p.scrambleSeed ?? null);
+            if (p.facelets) setMyFacelets(p.facelets);
+            setMyMoveCount(p.moveCount);
+            setMySolved(p.solved);
+            break;
+          }
+
+          case "LOBBY_PLAYER_CONNECTION": {
+            const p = msg.payload as PlayerConnectionPayload;
+            setPlayers(p.players ?? []);
+            break;
+          }
+
           case "SYS_ERROR": {
             const p = msg.payload as ErrorPayload;
             setLastError(p?.message ?? "Unknown error");
@@ -204,7 +305,7 @@ export default function Home() {
     socket.onerror = () => setLog((l) => ["error (see console)", ...l]);
 
     return () => socket.close();
-  }, [playerId]);
+  }, [token]);
 
   function send(type: string, payload: any = {}) {
     if (!ws || ws.readyState !== WebSocket.OPEN) {
@@ -215,7 +316,7 @@ export default function Home() {
     setLog((l) => [`=> ${type} ${JSON.stringify(payload)}`, ...l]);
   }
 
-  function createMatch() {
+  function resetMatchState() {
     setPlayers([]);
     setMatchId("");
     setMatchStarted(false);
@@ -226,18 +327,42 @@ export default function Home() {
     setMyFacelets("");
     setMyMoveCount(0);
     setMySolved(false);
-    send("LOBBY_CREATE_MATCH", { playerId });
+  }
+
+  function createMatch() {
+    resetMatchState();
+    send("LOBBY_CREATE_MATCH");
+  }
+
+  // Solo gegen einen aufgezeichneten Solve (eigene PB oder schnellster Solve überhaupt)
+  function raceGhost(source: "PERSONAL_BEST" | "FASTEST") {
+    resetMatchState();
+    send("LOBBY_CREATE_GHOST_MATCH", { source });
+  }
+
+  function createTournament(format: "SINGLE_ELIMINATION" | "SWISS") {
+    send("TOURNAMENT_CREATE", { format, bestOf: 1 });
+  }
+
+  function joinTournament() {
+    if (!tournamentId) return;
+    send("TOURNAMENT_JOIN", { tournamentId });
+  }
+
+  function startTournament() {
+    if (!tournamentId) return;
+    send("TOURNAMENT_START", { tournamentId });
   }
 
   function joinMatch() {
     setLastError("");
-    send("LOBBY_JOIN_MATCH", { matchId: joinMatchId, playerId });
+    send("LOBBY_JOIN_MATCH", { matchId: joinMatchId });
   }
 
   function toggleReady() {
     if (!matchId) return;
     const next = !me?.ready;
-    send("LOBBY_SET_READY", { matchId, playerId, ready: next });
+    send("LOBBY_SET_READY", { matchId, ready: next });
   }
 
   function startMatch() {
@@ -297,6 +422,14 @@ export default function Home() {
             Create Match
           </button>
 
+          <button className="px-3 py-2 rounded bg-slate-600 text-white" onClick={() => raceGhost("PERSONAL_BEST")}>
+            Race my PB
+          </button>
+
+          <button className="px-3 py-2 rounded bg-slate-600 text-white" onClick={() => raceGhost("FASTEST")}>
+            Race fastest ghost
+          </button>
+
           <input
             className="px-3 py-2 rounded border w-[420px] max-w-full"
             placeholder="matchId to join"
@@ -326,6 +459,38 @@ export default function Home() {
         </div>
 
         <div className="text-xs text-neutral-600">Rules: Max 2 players. Both must be Ready. Only HOST can Start.</div>
+
+        <div className="flex gap-2 flex-wrap items-center">
+          <button className="px-3 py-2 rounded bg-amber-600 text-white" onClick={() => createTournament("SINGLE_ELIMINATION")}>
+            Create Knockout
+          </button>
+
+          <button className="px-3 py-2 rounded bg-amber-600 text-white" onClick={() => createTournament("SWISS")}>
+            Create Swiss
+          </button>
+
+          <input
+            className="px-3 py-2 rounded border w-[420px] max-w-full"
+            placeholder="tournamentId"
+            value={tournamentId}
+            onChange={(e) => setTournamentId(e.target.value ?? "")}
+          />
+
+          <button className="px-3 py-2 rounded bg-amber-700 text-white disabled:opacity-50" onClick={joinTournament} disabled={!tournamentId}>
+            Join Tournament
+          </button>
+
+          <button className="px-3 py-2 rounded bg-amber-800 text-white disabled:opacity-50" onClick={startTournament} disabled={!tournamentId}>
+            Start Tournament (Host)
+          </button>
+        </div>
+
+        {tournament && (
+          <div className="text-xs text-neutral-600">
+            Tournament {tournament.format} · {tournament.state} · round {tournament.round}/{tournament.totalRounds} ·{" "}
+            {tournament.playerCount} players{tournament.winnerId ? ` · winner ${tournament.winnerId}` : ""}
+          </div>
+        )}
       </div>
 
       {/* Lobby */}
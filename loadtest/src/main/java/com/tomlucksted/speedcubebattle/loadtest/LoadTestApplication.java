@@ -0,0 +1,64 @@
+package com.tomlucksted.speedcubebattle.loadtest;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a locally running backend with simulated 1v1 matches.
+ *
+ * <pre>
+ * java -jar target/loadtest-0.0.1-SNAPSHOT.jar --matches=2000 --tps=6 --seed=42
+ * </pre>
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        LoadTestStats stats = new LoadTestStats();
+        ObjectMapper om = JsonMapper.builder().build();
+        Random seeds = new Random(config.seed());
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(threads);
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        CountDownLatch done = new CountDownLatch(config.connections());
+
+        System.out.printf("Starting %d matches (%d connections) against %s%n", config.matches(), config.connections(), config.url());
+        long startNanos = System.nanoTime();
+        long rampStepNanos = config.matches() == 0 ? 0 : config.rampUp().toNanos() / config.matches();
+
+        for (int i = 0; i < config.matches(); i++) {
+            CompletableFuture<String> matchId = new CompletableFuture<>();
+            SimulatedPlayer host = new SimulatedPlayer(true, matchId, config, stats, scheduler, om, new Random(seeds.nextLong()), done);
+            SimulatedPlayer guest = new SimulatedPlayer(false, matchId, config, stats, scheduler, om, new Random(seeds.nextLong()), done);
+
+            scheduler.schedule(() -> {
+                host.connect(client);
+                guest.connect(client);
+            }, rampStepNanos * i, TimeUnit.NANOSECONDS);
+        }
+
+        boolean completed = done.await(config.timeout().toNanos(), TimeUnit.NANOSECONDS);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        scheduler.shutdownNow();
+
+        String report = LoadTestReport.render(config, stats, elapsedNanos, completed);
+        System.out.println(report);
+
+        if (config.report().getParent() != null) Files.createDirectories(config.report().getParent());
+        Files.writeString(config.report(), report);
+        System.out.println("Report written to " + config.report().toAbsolutePath());
+
+        System.exit(completed && stats.connectFailures.sum() == 0 ? 0 : 1);
+    }
+}
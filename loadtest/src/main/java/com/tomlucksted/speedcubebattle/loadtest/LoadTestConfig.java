@@ -0,0 +1,47 @@
+package com.tomlucksted.speedcubebattle.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public record LoadTestConfig(
+        URI url,
+        URI authUrl,
+        int matches,
+        double tps,
+        int noiseMoves,
+        Duration rampUp,
+        Duration timeout,
+        long seed,
+        Path report
+) {
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        return new LoadTestConfig(
+                URI.create(opts.getOrDefault("url", "ws://localhost:8083/ws")),
+                URI.create(opts.getOrDefault("auth-url", "http://localhost:8083/api/auth/guest")),
+                Integer.parseInt(opts.getOrDefault("matches", "500")),
+                Double.parseDouble(opts.getOrDefault("tps", "6")),
+                Integer.parseInt(opts.getOrDefault("noise-moves", "30")),
+                Duration.ofSeconds(Long.parseLong(opts.getOrDefault("ramp-up-seconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(opts.getOrDefault("timeout-seconds", "300"))),
+                Long.parseLong(opts.getOrDefault("seed", "42")),
+                Path.of(opts.getOrDefault("report", "target/loadtest-report.md"))
+        );
+    }
+
+    public int connections() {
+        return matches * 2;
+    }
+}
@@ -0,0 +1,50 @@
+package com.tomlucksted.speedcubebattle.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Instant;
+
+final class LoadTestReport {
+
+    private LoadTestReport() {}
+
+    static String render(LoadTestConfig config, LoadTestStats stats, long elapsedNanos, boolean completed) {
+        Histogram latency = stats.moveLatencySnapshot();
+        double seconds = elapsedNanos / 1e9;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("# SpeedCubeBattle load test\n\n");
+        sb.append("- run at: ").append(Instant.now()).append('\n');
+        sb.append("- target: ").append(config.url()).append('\n');
+        sb.append("- matches: ").append(config.matches()).append(" (").append(config.connections()).append(" connections)\n");
+        sb.append("- tps per player: ").append(config.tps()).append(", noise moves: ").append(config.noiseMoves()).append('\n');
+        sb.append("- ramp-up: ").append(config.rampUp().toSeconds()).append(" s, seed: ").append(config.seed()).append('\n');
+        sb.append("- completed: ").append(completed ? "yes" : "NO (timed out)").append(String.format(" in %.1f s%n%n", seconds));
+
+        sb.append("## Submit -> GAME_MOVE_APPLIED latency (ms)\n\n");
+        sb.append("| p50 | p90 | p99 | p99.9 | max | samples |\n");
+        sb.append("|----:|----:|----:|------:|----:|--------:|\n");
+        sb.append(String.format("| %.2f | %.2f | %.2f | %.2f | %.2f | %d |%n%n",
+                ms(latency.getValueAtPercentile(50)),
+                ms(latency.getValueAtPercentile(90)),
+                ms(latency.getValueAtPercentile(99)),
+                ms(latency.getValueAtPercentile(99.9)),
+                ms(latency.getMaxValue()),
+                latency.getTotalCount()));
+
+        sb.append("## Throughput and errors\n\n");
+        sb.append(String.format("- moves sent: %d (%.0f/s)%n", stats.movesSent.sum(), stats.movesSent.sum() / seconds));
+        sb.append(String.format("- moves acknowledged: %d (%.0f/s)%n", stats.movesAcked.sum(), stats.movesAcked.sum() / seconds));
+        sb.append("- connections opened: ").append(stats.connected.sum()).append('\n');
+        sb.append("- connect failures: ").append(stats.connectFailures.sum()).append('\n');
+        sb.append("- unexpected closes: ").append(stats.unexpectedCloses.sum()).append('\n');
+        sb.append("- moves rejected: ").append(stats.movesRejected.sum()).append('\n');
+        sb.append("- SYS_ERROR frames: ").append(stats.serverErrors.sum()).append('\n');
+        sb.append("- matches started / finished: ").append(stats.matchesStarted.sum()).append(" / ").append(stats.matchesFinished.sum()).append('\n');
+        return sb.toString();
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,31 @@
+package com.tomlucksted.speedcubebattle.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+final class LoadTestStats {
+
+    // 1 µs .. 60 s, 3 significant digits
+    private final Recorder moveLatency = new Recorder(TimeUnit.SECONDS.toNanos(60), 3);
+
+    final LongAdder connected = new LongAdder();
+    final LongAdder connectFailures = new LongAdder();
+    final LongAdder unexpectedCloses = new LongAdder();
+    final LongAdder movesSent = new LongAdder();
+    final LongAdder movesAcked = new LongAdder();
+    final LongAdder movesRejected = new LongAdder();
+    final LongAdder serverErrors = new LongAdder();
+    final LongAdder matchesStarted = new LongAdder();
+    final LongAdder matchesFinished = new LongAdder();
+
+    void recordMoveLatency(long nanos) {
+        moveLatency.recordValue(Math.max(nanos, 1));
+    }
+
+    Histogram moveLatencySnapshot() {
+        return moveLatency.getIntervalHistogram();
+    }
+}
@@ -0,0 +1,230 @@
+package com.tomlucksted.speedcubebattle.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated client. It fetches a guest token, connects with it, the host creates the match, the guest joins it once the
+ * id is known, both ready up, the host starts, and each player then plays its
+ * solution at the configured TPS until the server reports GAME_MATCH_ENDED.
+ */
+final class SimulatedPlayer implements WebSocket.Listener {
+
+    private record Outgoing(String type, Object payload) {}
+
+    private final boolean host;
+    private final CompletableFuture<String> matchId;
+    private final LoadTestConfig config;
+    private final LoadTestStats stats;
+    private final ScheduledExecutorService scheduler;
+    private final ObjectMapper om;
+    private final Random random;
+    private final CountDownLatch done;
+
+    private final StringBuilder frame = new StringBuilder();
+    // Sendezeiten der offenen Züge; der Server beantwortet die Frames einer Session der Reihe nach,
+    // jeder Zug mit genau einem eigenen GAME_MOVE_APPLIED oder einem SYS_ERROR
+    private final ArrayDeque<Long> pendingMoves = new ArrayDeque<>();
+
+    private String playerId;
+    private WebSocket ws;
+    private CompletableFuture<?> sendChain = CompletableFuture.completedFuture(null);
+    private boolean readySent;
+    private boolean startSent;
+    private volatile boolean finished;
+
+    SimulatedPlayer(boolean host, CompletableFuture<String> matchId, LoadTestConfig config,
+                    LoadTestStats stats, ScheduledExecutorService scheduler, ObjectMapper om, Random random,
+                    CountDownLatch done) {
+        this.host = host;
+        this.matchId = matchId;
+        this.config = config;
+        this.stats = stats;
+        this.scheduler = scheduler;
+        this.om = om;
+        this.random = random;
+        this.done = done;
+    }
+
+    // Identität kommt vom Server (Gast-Token), der Token geht beim Handshake mit
+    void connect(HttpClient client) {
+        HttpRequest guest = HttpRequest.newBuilder(config.authUrl()).POST(HttpRequest.BodyPublishers.noBody()).build();
+        client.sendAsync(guest, HttpResponse.BodyHandlers.ofString())
+                .thenCompose(response -> {
+                    JsonNode auth = om.readTree(response.body());
+                    playerId = auth.path("playerId").asString();
+                    URI url = URI.create(config.url() + "?token=" + auth.path("token").asString());
+                    return client.newWebSocketBuilder().buildAsync(url, this);
+                })
+                .whenComplete((socket, error) -> {
+                    if (error != null) {
+                        stats.connectFailures.increment();
+                        if (host) matchId.completeExceptionally(error);
+                        finish();
+                    }
+                });
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        this.ws = webSocket;
+        stats.connected.increment();
+
+        if (host) {
+            send("LOBBY_CREATE_MATCH", Map.of());
+        } else {
+            matchId.thenAccept(id -> send("LOBBY_JOIN_MATCH", Map.of("matchId", id)))
+                    .exceptionally(e -> { finish(); return null; });
+        }
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        frame.append(data);
+        if (last) {
+            String json = frame.toString();
+            frame.setLength(0);
+            try {
+                handle(om.readTree(json));
+            } catch (RuntimeException e) {
+                stats.serverErrors.increment();
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    private void handle(JsonNode msg) {
+        String type = msg.path("type").asString();
+        JsonNode payload = msg.path("payload");
+
+        switch (type) {
+            case "SYS_PING" -> send("SYS_PONG", Map.of("pingId", payload.path("pingId").asLong(), "clientTs", System.currentTimeMillis()));
+
+            case "LOBBY_MATCH_CREATED" -> matchId.complete(payload.path("matchId").asString());
+
+            case "LOBBY_PLAYER_JOINED" -> {
+                if (payload.path("players").size() == 2 && !readySent) {
+                    readySent = true;
+                    send("LOBBY_SET_READY", Map.of("matchId", payload.path("matchId").asString(), "ready", true));
+                }
+            }
+
+            case "LOBBY_READY_UPDATED" -> {
+                if (!host || startSent) return;
+                JsonNode players = payload.path("players");
+                boolean allReady = players.size() == 2;
+                for (JsonNode p : players) allReady &= p.path("ready").asBoolean();
+                if (allReady) {
+                    startSent = true;
+                    send("LOBBY_START_MATCH", Map.of("matchId", payload.path("matchId").asString()));
+                }
+            }
+
+            case "GAME_MATCH_STARTED" -> {
+                if (host) stats.matchesStarted.increment();
+                List<String> scramble = new ArrayList<>();
+                for (JsonNode m : payload.path("scramble")) scramble.add(m.asString());
+                List<String> solution = Solver.solution(scramble, config.noiseMoves(), random);
+                scheduleMove(payload.path("matchId").asString(), solution, 0);
+            }
+
+            case "GAME_MOVE_APPLIED" -> {
+                if (!playerId.equals(payload.path("playerId").asString())) return;
+                Long sentAt;
+                synchronized (pendingMoves) {
+                    sentAt = pendingMoves.poll();
+                }
+                if (sentAt != null) {
+                    stats.recordMoveLatency(System.nanoTime() - sentAt);
+                    stats.movesAcked.increment();
+                }
+            }
+
+            case "GAME_MATCH_ENDED" -> {
+                if (host) stats.matchesFinished.increment();
+                finish();
+                ws.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+            }
+
+            case "SYS_ERROR" -> {
+                stats.serverErrors.increment();
+                if (!answersMove(payload.path("message").asString())) return;
+                // abgelehnter Zug: Sendezeit verwerfen, sonst wird jede spätere Latenz dem falschen Zug zugeordnet
+                Long sentAt;
+                synchronized (pendingMoves) {
+                    sentAt = pendingMoves.poll();
+                }
+                if (sentAt != null) stats.movesRejected.increment();
+            }
+
+            default -> { }
+        }
+    }
+
+    // Drosselungen anderer Typen (z.B. SYS_PONG) nennen ihren Typ; alle übrigen Fehler im Spiel gehören zu einem Zug
+    private static boolean answersMove(String message) {
+        return !message.startsWith("Rate limit exceeded") || message.endsWith("GAME_SUBMIT_MOVE");
+    }
+
+    private void scheduleMove(String id, List<String> solution, int index) {
+        if (index >= solution.size() || finished) return;
+
+        // gleichverteilter Jitter um die Ziel-TPS, damit nicht alle Clients im Gleichtakt senden
+        long meanNanos = (long) (1_000_000_000L / config.tps());
+        long delay = index == 0 ? meanNanos * 4 : (long) (meanNanos * (0.5 + random.nextDouble()));
+
+        scheduler.schedule(() -> {
+            synchronized (pendingMoves) {
+                pendingMoves.add(System.nanoTime());
+            }
+            stats.movesSent.increment();
+            send("GAME_SUBMIT_MOVE", Map.of("matchId", id, "move", solution.get(index)));
+            scheduleMove(id, solution, index + 1);
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void send(String type, Object payload) {
+        String json = om.writeValueAsString(new Outgoing(type, payload));
+        // java.net.http erlaubt nur einen ausstehenden Send pro Socket
+        sendChain = sendChain
+                .handle((r, e) -> null)
+                .thenCompose(v -> ws.sendText(json, true));
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        if (!finished) stats.unexpectedCloses.increment();
+        finish();
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        if (!finished) stats.unexpectedCloses.increment();
+        finish();
+    }
+
+    private void finish() {
+        if (finished) return;
+        finished = true;
+        done.countDown();
+    }
+}
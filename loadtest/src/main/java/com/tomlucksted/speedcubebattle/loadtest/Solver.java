@@ -0,0 +1,38 @@
+package com.tomlucksted.speedcubebattle.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The simulated players don't search for a solution: undoing the scramble solves
+ * the cube, and cancelling pairs (R R') in front of it stretch the solve to a
+ * human-like move count.
+ */
+final class Solver {
+
+    private static final String[] FACES = {"U", "D", "L", "R", "F", "B"};
+
+    private Solver() {}
+
+    static List<String> solution(List<String> scramble, int noiseMoves, Random random) {
+        List<String> moves = new ArrayList<>(noiseMoves + scramble.size());
+
+        for (int i = 0; i + 1 < noiseMoves; i += 2) {
+            String face = FACES[random.nextInt(FACES.length)];
+            moves.add(face);
+            moves.add(face + "'");
+        }
+
+        for (int i = scramble.size() - 1; i >= 0; i--) {
+            moves.add(invert(scramble.get(i)));
+        }
+        return moves;
+    }
+
+    static String invert(String move) {
+        if (move.endsWith("2")) return move;
+        if (move.endsWith("'")) return move.substring(0, move.length() - 1);
+        return move + "'";
+    }
+}
@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Baut ein Modul im Schnellstart-Modus: Spring-AOT-Kontext (mvn -Pfaststart), entpacktes Jar
+# und ein JDK-AOT-Cache (JDK 25, -XX:AOTCacheOutput) aus einem Trainingslauf.
+#
+#   scripts/aot-cache.sh backend|worker
+#
+# Ergebnis liegt in <module>/target/faststart, Startbefehl wird am Ende ausgegeben.
+# Der Trainingslauf fährt den Kontext bis zum Refresh hoch und braucht Postgres (Flyway),
+# also vorher: docker compose up -d
+set -euo pipefail
+
+module=${1:?usage: scripts/aot-cache.sh backend|worker}
+root=$(cd "$(dirname "$0")/.." && pwd)
+cd "$root/$module"
+
+./mvnw -q -B -Pfaststart -DskipTests package
+
+jar=$(ls target/"$module"-*.jar | grep -v original | head -1)
+out=target/faststart
+rm -rf "$out"
+java -Djarmode=tools -jar "$jar" extract --destination "$out"
+
+app=$(basename "$jar")
+(
+    cd "$out"
+    # Wegwerf-Schlüssel: der Trainingslauf stellt keine Tokens aus
+    AUTH_SECRET=${AUTH_SECRET:-aot-training} java -XX:AOTCacheOutput=app.aot \
+         -Dspring.aot.enabled=true \
+         -Dspring.profiles.active=faststart \
+         -Dspring.context.exit=onRefresh \
+         -jar "$app"
+)
+
+echo
+echo "Start with:"
+echo "  (cd $module/$out && java -XX:AOTCache=app.aot -Dspring.aot.enabled=true -Dspring.profiles.active=faststart -jar $app)"
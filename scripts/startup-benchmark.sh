@@ -0,0 +1,89 @@
+#!/usr/bin/env bash
+# Misst die Startzeit eines Moduls, normal gegen Schnellstart (scripts/aot-cache.sh), über mehrere Läufe.
+#
+#   scripts/startup-benchmark.sh backend|worker [runs]
+#
+# backend: Zeit bis zum ersten angenommenen WebSocket (Gast-Token holen + Upgrade mit 101)
+# worker:  Zeit bis /actuator/health UP meldet (der Worker hat keinen WebSocket-Endpunkt)
+#
+# Braucht laufendes Postgres und RabbitMQ (docker compose up -d) sowie curl.
+set -euo pipefail
+
+module=${1:?usage: scripts/startup-benchmark.sh backend|worker [runs]}
+runs=${2:-5}
+root=$(cd "$(dirname "$0")/.." && pwd)
+dir="$root/$module"
+
+case "$module" in
+    backend) port=8083 ;;
+    worker)  port=8082 ;;
+    *) echo "unknown module: $module" >&2; exit 2 ;;
+esac
+
+# Tokens leben nur für den Lauf, ein fester Wegwerf-Schlüssel reicht
+export AUTH_SECRET=${AUTH_SECRET:-startup-benchmark}
+
+now_ms() { echo $(( $(date +%s%N) / 1000000 )); }
+
+# 0 sobald das Modul "bereit" ist
+ready() {
+    if [ "$module" = worker ]; then
+        curl -sf "http://localhost:$port/actuator/health" | grep -q '"UP"'
+        return
+    fi
+
+    local token
+    token=$(curl -sf -X POST "http://localhost:$port/api/auth/guest" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p') || return 1
+    [ -n "$token" ] || return 1
+
+    # rohes Upgrade über /dev/tcp: misst genau den 101, ohne auf Frames zu warten
+    exec 3<>"/dev/tcp/localhost/$port" || return 1
+    printf 'GET /ws?token=%s HTTP/1.1\r\nHost: localhost:%s\r\nUpgrade: websocket\r\nConnection: Upgrade\r\nSec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\nSec-WebSocket-Version: 13\r\n\r\n' "$token" "$port" >&3
+    local status=""
+    read -r -t 2 status <&3 || true
+    exec 3>&-
+    [[ "$status" == *" 101 "* ]]
+}
+
+# misst einen Lauf, gibt Millisekunden aus
+measure() {
+    local start pid elapsed
+    start=$(now_ms)
+    "$@" > /dev/null 2>&1 &
+    pid=$!
+    until ready; do
+        if ! kill -0 "$pid" 2>/dev/null; then echo "process exited before becoming ready: $*" >&2; exit 1; fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed"
+}
+
+summary() {
+    sort -n | awk '{ v[NR] = $1 } END { printf "%6d %6d %6d", v[1], v[int((NR + 1) / 2)], v[NR] }'
+}
+
+echo "Building $module (default and fast start) ..."
+(cd "$dir" && ./mvnw -q -B -DskipTests package)
+plain=$(ls "$dir"/target/"$module"-*.jar | grep -v original | head -1)
+cp "$plain" "$dir/target/startup-default.jar"
+"$root/scripts/aot-cache.sh" "$module" > /dev/null
+fast="$dir/target/faststart"
+app=$(basename "$plain")
+
+default_times=()
+fast_times=()
+for ((i = 1; i <= runs; i++)); do
+    default_times+=("$(measure java -jar "$dir/target/startup-default.jar")")
+    fast_times+=("$(cd "$fast" && measure java -XX:AOTCache=app.aot -Dspring.aot.enabled=true -Dspring.profiles.active=faststart -jar "$app")")
+done
+
+echo
+echo "## $module startup ($runs runs, ms until $( [ "$module" = backend ] && echo 'first accepted WebSocket' || echo 'health UP' ))"
+echo
+echo "| mode      |    min | median |    max |"
+echo "|-----------|--------|--------|--------|"
+printf "| default   | %s |\n" "$(printf '%s\n' "${default_times[@]}" | summary | sed 's/ \+/ | /g')"
+printf "| faststart | %s |\n" "$(printf '%s\n' "${fast_times[@]}" | summary | sed 's/ \+/ | /g')"
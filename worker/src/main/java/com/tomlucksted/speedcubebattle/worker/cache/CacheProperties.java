@@ -0,0 +1,6 @@
+package com.tomlucksted.speedcubebattle.worker.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.cache")
+public record CacheProperties(int ratingsSize, int statsSize) {}
@@ -0,0 +1,93 @@
+package com.tomlucksted.speedcubebattle.worker.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded write-through cache: LRU eviction per segment, segments are locked
+ * independently. The worker is the only writer of the cached tables, so entries
+ * do not expire; an evicted player is simply loaded from the database again.
+ * A loaded value never replaces one that was put while the loader ran.
+ */
+public final class LruCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public LruCache(int capacity) {
+        this.segments = new Segment[SEGMENTS];
+        int perSegment = Math.max(1, capacity / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment<>(perSegment);
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    // null-Ergebnisse werden nicht gecacht (z.B. unbekannter Spieler)
+    public V get(K key, Function<K, V> loader) {
+        V cached = get(key);
+        if (cached != null) return cached;
+
+        V value = loader.apply(key);
+        if (value == null) return null;
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            V current = segment.putIfAbsent(key, value);
+            return current != null ? current : value;
+        }
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    public void putAll(Map<K, V> values) {
+        values.forEach(this::put);
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(Math.min(capacity, 1024), 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
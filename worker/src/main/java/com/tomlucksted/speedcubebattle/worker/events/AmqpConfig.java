@@ -0,0 +1,85 @@
+package com.tomlucksted.speedcubebattle.worker.events;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+@Configuration
+@EnableConfigurationProperties(EventsProperties.class)
+public class AmqpConfig {
+
+    @Bean
+    public TopicExchange matchEventsExchange(EventsProperties props) {
+        return new TopicExchange(props.exchange(), true, false);
+    }
+
+    @Bean
+    public Queue ratingsQueue(EventsProperties props) {
+        return QueueBuilder.durable(props.ratingsQueue()).build();
+    }
+
+    @Bean
+    public Binding ratingsBinding(Queue ratingsQueue, TopicExchange matchEventsExchange, EventsProperties props) {
+        return BindingBuilder.bind(ratingsQueue).to(matchEventsExchange).with(props.matchFinishedRoutingKey());
+    }
+
+    @Bean
+    public Queue statsQueue(EventsProperties props) {
+        return QueueBuilder.durable(props.statsQueue()).build();
+    }
+
+    @Bean
+    public Binding statsBinding(Queue statsQueue, TopicExchange matchEventsExchange, EventsProperties props) {
+        return BindingBuilder.bind(statsQueue).to(matchEventsExchange).with(props.matchFinishedRoutingKey());
+    }
+
+    @Bean
+    public MessageConverter amqpMessageConverter() {
+        return new JacksonJsonMessageConverter();
+    }
+
+    // Listener bekommen ganze Batches statt einzelner Nachrichten -> ein DB-Roundtrip pro Batch
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchListenerFactory(ConnectionFactory connectionFactory,
+                                                                     MessageConverter amqpMessageConverter,
+                                                                     EventsProperties props) {
+        var factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(amqpMessageConverter);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(props.batchSize());
+        factory.setReceiveTimeout(props.batchReceiveTimeoutMs());
+        factory.setPrefetchCount(props.prefetch());
+        return factory;
+    }
+
+    // Lazy-Init (Profil faststart): @RabbitListener wird nur beim Anlegen der Bean registriert -> diese Beans eager lassen
+    @Bean
+    public static LazyInitializationExcludeFilter rabbitListenersEager() {
+        return (beanName, definition, type) -> type != null && hasRabbitListener(type);
+    }
+
+    private static boolean hasRabbitListener(Class<?> type) {
+        if (AnnotatedElementUtils.hasAnnotation(type, RabbitListener.class)) return true;
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(type)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, RabbitListener.class)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,55 @@
+package com.tomlucksted.speedcubebattle.worker.events;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ConsumerMetrics {
+
+    private record Meters(Timer lag, Timer batchTime, DistributionSummary batchSize) {}
+
+    private final MeterRegistry registry;
+    private final Map<String, Meters> byConsumer = new ConcurrentHashMap<>();
+
+    public ConsumerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private Meters meters(String consumer) {
+        return byConsumer.computeIfAbsent(consumer, c -> new Meters(
+                Timer.builder("scb.worker.event.lag")
+                        .description("Time from match end to the event being processed")
+                        .tag("consumer", c)
+                        .publishPercentileHistogram()
+                        .maximumExpectedValue(Duration.ofMinutes(10))
+                        .register(registry),
+                Timer.builder("scb.worker.batch")
+                        .description("Time to process one consumed batch")
+                        .tag("consumer", c)
+                        .register(registry),
+                DistributionSummary.builder("scb.worker.batch.size")
+                        .description("Events per consumed batch")
+                        .tag("consumer", c)
+                        .register(registry)
+        ));
+    }
+
+    /** Records a processed batch; the lag timer's count doubles as events-processed throughput. */
+    public void batchProcessed(String consumer, List<MatchFinishedEvent> events, long startNanos) {
+        Meters m = meters(consumer);
+        long now = System.currentTimeMillis();
+        for (MatchFinishedEvent e : events) {
+            m.lag().record(Math.max(0, now - e.endedAt()), TimeUnit.MILLISECONDS);
+        }
+        m.batchSize().record(events.size());
+        m.batchTime().record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,14 @@
+package com.tomlucksted.speedcubebattle.worker.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.events")
+public record EventsProperties(
+        String exchange,
+        String matchFinishedRoutingKey,
+        String ratingsQueue,
+        String statsQueue,
+        int batchSize,
+        long batchReceiveTimeoutMs,
+        int prefetch
+) {}
@@ -0,0 +1,15 @@
+package com.tomlucksted.speedcubebattle.worker.events;
+
+import java.util.List;
+
+// Spiegel des Backend-Events (JSON über RabbitMQ)
+public record MatchFinishedEvent(
+        String matchId,
+        long startedAt,
+        long endedAt,
+        long scrambleSeed,
+        List<Result> results
+) {
+    // dnf: nicht gelöst (verlassen, Zeitlimit) -> Platz hinter allen Lösern, keine Zeit; fehlt bei alten Events -> false
+    public record Result(String playerId, int placement, long solveTimeMs, int moveCount, boolean dnf) {}
+}
@@ -0,0 +1,17 @@
+package com.tomlucksted.speedcubebattle.worker.events.partition;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PartitionProperties.class)
+public class PartitionConfig {
+
+    @Bean(destroyMethod = "close")
+    public PartitionedExecutor partitionedExecutor(PartitionProperties props, MeterRegistry registry) {
+        int partitions = props.count() > 0 ? props.count() : Runtime.getRuntime().availableProcessors();
+        return new PartitionedExecutor(partitions, props.queueCapacity(), registry);
+    }
+}
@@ -0,0 +1,6 @@
+package com.tomlucksted.speedcubebattle.worker.events.partition;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("scb.partitions")
+public record PartitionProperties(int count, int queueCapacity) {}
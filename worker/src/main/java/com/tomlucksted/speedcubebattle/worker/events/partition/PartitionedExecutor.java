@@ -0,0 +1,155 @@
+package com.tomlucksted.speedcubebattle.worker.events.partition;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs work on N single-threaded lanes chosen by key hash, so everything for one
+ * player happens in submission order while different players run in parallel.
+ * <p>
+ * Work touching several keys (a 1v1 match) is enqueued on every involved lane.
+ * The lowest lane runs it once all others have reached it; those wait until it
+ * is done. Multi-lane work is enqueued under one lock, so it appears in the same
+ * relative order on every lane and lanes can't wait on each other in a cycle.
+ * Lane queues are bounded: a full lane blocks the submitter, which pushes back
+ * on the AMQP consumer and, through the prefetch limit, on the broker.
+ */
+public final class PartitionedExecutor implements AutoCloseable {
+
+    private interface Task {
+        void runOn(int lane) throws InterruptedException;
+    }
+
+    private final BlockingQueue<Task>[] queues;
+    private final Thread[] threads;
+    private final Object submitLock = new Object();
+    private final Timer taskTimer;
+
+    @SuppressWarnings("unchecked")
+    public PartitionedExecutor(int partitions, int queueCapacity, MeterRegistry registry) {
+        this.queues = new BlockingQueue[partitions];
+        this.threads = new Thread[partitions];
+        this.taskTimer = Timer.builder("scb.worker.partition.task")
+                .description("Time a partition spends on one task")
+                .register(registry);
+
+        for (int i = 0; i < partitions; i++) {
+            int lane = i;
+            queues[i] = new ArrayBlockingQueue<>(queueCapacity);
+            Gauge.builder("scb.worker.partition.queue", queues[i], BlockingQueue::size)
+                    .description("Tasks waiting in a partition")
+                    .tag("partition", Integer.toString(i))
+                    .register(registry);
+            threads[i] = Thread.ofPlatform()
+                    .name("partition-" + i)
+                    .daemon(true)
+                    .start(() -> runLane(lane));
+        }
+    }
+
+    public int partitions() {
+        return queues.length;
+    }
+
+    public int partitionOf(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h * 0x9E3779B9, queues.length);
+    }
+
+    public CompletableFuture<Void> submit(String key, Runnable work) throws InterruptedException {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Task task = lane -> run(work, future);
+        synchronized (submitLock) {
+            queues[partitionOf(key)].put(task);
+        }
+        return future;
+    }
+
+    public CompletableFuture<Void> submit(Collection<String> keys, Runnable work) throws InterruptedException {
+        int[] lanes = keys.stream().mapToInt(this::partitionOf).distinct().sorted().toArray();
+        if (lanes.length == 1) return submit(keys.iterator().next(), work);
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CountDownLatch arrived = new CountDownLatch(lanes.length - 1);
+        CountDownLatch done = new CountDownLatch(1);
+        int owner = lanes[0];
+
+        Task task = lane -> {
+            if (lane == owner) {
+                arrived.await();
+                try {
+                    run(work, future);
+                } finally {
+                    done.countDown();
+                }
+            } else {
+                arrived.countDown();
+                done.await();
+            }
+        };
+
+        synchronized (submitLock) {
+            for (int lane : lanes) queues[lane].put(task);
+        }
+        return future;
+    }
+
+    private void run(Runnable work, CompletableFuture<Void> future) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+            future.complete(null);
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        } finally {
+            taskTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void runLane(int lane) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                queues[lane].take().runOn(lane);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Submits one task per item and waits for all of them; the first failure is rethrown. */
+    public <T> void runAll(Collection<T> items, Function<T, Collection<String>> keys,
+                           Consumer<T> work) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[items.size()];
+        int i = 0;
+        try {
+            for (T item : items) {
+                futures[i++] = submit(keys.apply(item), () -> work.accept(item));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while dispatching to partitions", e);
+        }
+        CompletableFuture.allOf(Arrays.copyOf(futures, i)).join();
+    }
+
+    public int queuedTasks() {
+        return Arrays.stream(queues).mapToInt(BlockingQueue::size).sum();
+    }
+
+    @Override
+    public void close() {
+        for (Thread t : threads) t.interrupt();
+    }
+}
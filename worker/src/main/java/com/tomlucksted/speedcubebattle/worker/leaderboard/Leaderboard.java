@@ -0,0 +1,151 @@
+package com.tomlucksted.speedcubebattle.worker.leaderboard;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory ranking of all rated players. Ranks are competition ranks at a
+ * resolution of {@link #BUCKETS_PER_POINT} buckets per rating point: players in
+ * the same bucket share a rank, within a bucket pages are ordered by exact rating.
+ */
+@Component
+public class Leaderboard {
+
+    private static final int MAX_RATING = 4000;
+    private static final int BUCKETS_PER_POINT = 10;
+    private static final int BUCKETS = MAX_RATING * BUCKETS_PER_POINT + 1;
+
+    private record Player(String playerId, double rating, int bucket) {}
+
+    // bester Bucket zuerst, darin nach exaktem Rating
+    private static final Comparator<Player> ORDER = Comparator
+            .comparingInt(Player::bucket)
+            .thenComparing(Comparator.comparingDouble(Player::rating).reversed())
+            .thenComparing(Player::playerId);
+
+    private final RankTree tree = new RankTree(BUCKETS);
+    private final RankedSet<Player> ranked = new RankedSet<>(ORDER);
+    private final Map<String, Player> players = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile long version = 0;
+
+    public void update(String playerId, double rating) {
+        lock.writeLock().lock();
+        try {
+            put(playerId, rating);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateAll(Map<String, Double> ratings) {
+        lock.writeLock().lock();
+        try {
+            ratings.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Merges recovered ratings in. Players already updated by a live event keep
+     * their newer rating, so recovery can run while the listeners are consuming.
+     */
+    public void recover(Map<String, Double> ratings) {
+        lock.writeLock().lock();
+        try {
+            ratings.forEach((playerId, rating) -> {
+                if (!players.containsKey(playerId)) put(playerId, rating);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(String playerId, double rating) {
+        Player old = players.get(playerId);
+        if (old != null) {
+            ranked.remove(old);
+            tree.add(old.bucket(), -1);
+        }
+
+        Player p = new Player(playerId, rating, bucketOf(rating));
+        players.put(playerId, p);
+        ranked.add(p);
+        tree.add(p.bucket(), 1);
+        version++;
+    }
+
+    // Bucket 0 = bestes Rating
+    private static int bucketOf(double rating) {
+        double clamped = Math.max(0, Math.min(MAX_RATING, rating));
+        return BUCKETS - 1 - (int) Math.round(clamped * BUCKETS_PER_POINT);
+    }
+
+    public LeaderboardEntry entryOf(String playerId) {
+        lock.readLock().lock();
+        try {
+            Player p = players.get(playerId);
+            if (p == null) return null;
+            return new LeaderboardEntry(tree.countBefore(p.bucket()) + 1, p.playerId(), p.rating());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // O(log n) bis zur Startposition, auch mitten in einem vollen Bucket, dann O(limit)
+    public LeaderboardPage page(long fromRank, int limit) {
+        lock.readLock().lock();
+        try {
+            long total = players.size();
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, 1024));
+            if (fromRank < 1 || fromRank > total || limit <= 0) return new LeaderboardPage(total, fromRank, entries);
+
+            int[] bucket = {-1};
+            long[] bucketRank = {0};
+            ranked.forEachFrom(fromRank - 1, p -> {
+                if (p.bucket() != bucket[0]) {
+                    bucket[0] = p.bucket();
+                    bucketRank[0] = tree.countBefore(p.bucket()) + 1;
+                }
+                entries.add(new LeaderboardEntry(bucketRank[0], p.playerId(), p.rating()));
+                return entries.size() < limit;
+            });
+            return new LeaderboardPage(total, fromRank, entries);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return players.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Visits every player under the read lock, e.g. to write a snapshot. */
+    public void forEach(BiConsumer<String, Double> visitor) {
+        lock.readLock().lock();
+        try {
+            for (Player p : players.values()) visitor.accept(p.playerId(), p.rating());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
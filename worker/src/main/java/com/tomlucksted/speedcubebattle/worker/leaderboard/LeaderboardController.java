@@ -0,0 +1,33 @@
+package com.tomlucksted.speedcubebattle.worker.leaderboard;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final Leaderboard leaderboard;
+
+    public LeaderboardController(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    @GetMapping
+    public LeaderboardPage page(@RequestParam(defaultValue = "1") long fromRank,
+                                @RequestParam(defaultValue = "50") int limit) {
+        return leaderboard.page(fromRank, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
+    @GetMapping("/players/{playerId}")
+    public ResponseEntity<LeaderboardEntry> player(@PathVariable String playerId) {
+        LeaderboardEntry entry = leaderboard.entryOf(playerId);
+        return entry == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(entry);
+    }
+}
@@ -0,0 +1,3 @@
+package com.tomlucksted.speedcubebattle.worker.leaderboard;
+
+public record LeaderboardEntry(long rank, String playerId, double rating) {}
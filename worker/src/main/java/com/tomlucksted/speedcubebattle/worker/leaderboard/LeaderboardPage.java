@@ -0,0 +1,5 @@
+package com.tomlucksted.speedcubebattle.worker.leaderboard;
+
+import java.util.List;
+
+public record LeaderboardPage(long totalPlayers, long fromRank, List<LeaderboardEntry> entries) {}
@@ -0,0 +1,85 @@
+package com.tomlucksted.speedcubebattle.worker.leaderboard;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Repository
+public class LeaderboardSnapshotRepository {
+
+    public record Snapshot(Instant takenAt, Map<String, Double> ratings) {}
+
+    private final JdbcTemplate jdbc;
+
+    public LeaderboardSnapshotRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void save(Leaderboard leaderboard, Instant takenAt, int keep) {
+        int[] count = {0};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(leaderboard.size());
+            leaderboard.forEach((playerId, rating) -> {
+                try {
+                    out.writeUTF(playerId);
+                    out.writeFloat(rating.floatValue());
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        jdbc.update("INSERT INTO leaderboard_snapshots (taken_at, player_count, data) VALUES (?, ?, ?)",
+                Timestamp.from(takenAt), count[0], bytes.toByteArray());
+        jdbc.update("DELETE FROM leaderboard_snapshots WHERE id NOT IN (SELECT id FROM leaderboard_snapshots ORDER BY id DESC LIMIT ?)", keep);
+    }
+
+    public Snapshot loadLatest() {
+        var rows = jdbc.query(
+                "SELECT taken_at, data FROM leaderboard_snapshots ORDER BY id DESC LIMIT 1",
+                (rs, i) -> new Snapshot(rs.getTimestamp(1).toInstant(), decode(rs.getBytes(2)))
+        );
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    private static Map<String, Double> decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))) {
+            int n = in.readInt();
+            Map<String, Double> ratings = HashMap.newHashMap(n);
+            for (int i = 0; i < n; i++) {
+                ratings.put(in.readUTF(), (double) in.readFloat());
+            }
+            return ratings;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Ratings written after {@code since}, or all of them when {@code since} is null. */
+    public void loadRatingsUpdatedAfter(Instant since, Map<String, Double> target) {
+        if (since == null) {
+            jdbc.query("SELECT player_id, rating FROM player_ratings",
+                    rs -> { target.put(rs.getString(1), rs.getDouble(2)); });
+        } else {
+            jdbc.query("SELECT player_id, rating FROM player_ratings WHERE updated_at > ?",
+                    rs -> { target.put(rs.getString(1), rs.getDouble(2)); },
+                    Timestamp.from(since));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.tomlucksted.speedcubebattle.worker.leaderboard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class LeaderboardSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardSnapshotter.class);
+
+    // Ratings, die kurz vor dem Snapshot berechnet aber erst danach committed wurden, trotzdem nachladen
+    private static final Duration RECOVERY_OVERLAP = Duration.ofMinutes(5);
+    private static final int SNAPSHOTS_TO_KEEP = 3;
+
+    private final Leaderboard leaderboard;
+    private final LeaderboardSnapshotRepository repository;
+    private long snapshotVersion = -1;
+
+    public LeaderboardSnapshotter(Leaderboard leaderboard, LeaderboardSnapshotRepository repository) {
+        this.leaderboard = leaderboard;
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        long start = System.nanoTime();
+        var snapshot = repository.loadLatest();
+
+        Map<String, Double> ratings = snapshot == null ? new HashMap<>() : snapshot.ratings();
+        repository.loadRatingsUpdatedAfter(snapshot == null ? null : snapshot.takenAt().minus(RECOVERY_OVERLAP), ratings);
+        // Listener laufen schon: zusammenführen statt ersetzen, live Aktualisiertes bleibt
+        leaderboard.recover(ratings);
+        snapshotVersion = leaderboard.version();
+
+        log.info("Leaderboard recovered with {} players in {} ms ({})",
+                ratings.size(), (System.nanoTime() - start) / 1_000_000,
+                snapshot == null ? "full table scan" : "snapshot from " + snapshot.takenAt());
+    }
+
+    @Scheduled(fixedDelayString = "${scb.leaderboard.snapshot-interval-ms:300000}",
+            initialDelayString = "${scb.leaderboard.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        long version = leaderboard.version();
+        if (version == snapshotVersion) return;
+
+        repository.save(leaderboard, Instant.now(), SNAPSHOTS_TO_KEEP);
+        snapshotVersion = version;
+    }
+}
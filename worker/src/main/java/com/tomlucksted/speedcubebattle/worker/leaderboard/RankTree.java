@@ -0,0 +1,28 @@
+package com.tomlucksted.speedcubebattle.worker.leaderboard;
+
+/**
+ * Fenwick tree over rating buckets, ordered best bucket first. Gives the number
+ * of players in better buckets (= rank - 1) in O(log buckets), independent of
+ * the number of players.
+ */
+final class RankTree {
+
+    private final long[] tree;
+    private final int size;
+
+    RankTree(int size) {
+        this.size = size;
+        this.tree = new long[size + 1];
+    }
+
+    void add(int bucket, long delta) {
+        for (int i = bucket + 1; i <= size; i += i & -i) tree[i] += delta;
+    }
+
+    /** Players in buckets {@code [0, bucket)}. */
+    long countBefore(int bucket) {
+        long sum = 0;
+        for (int i = bucket; i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+}
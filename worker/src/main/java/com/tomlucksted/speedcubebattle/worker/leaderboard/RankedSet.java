@@ -0,0 +1,115 @@
+package com.tomlucksted.speedcubebattle.worker.leaderboard;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+/**
+ * Sorted set with subtree sizes (a treap). Insert and remove are O(log n), and
+ * an in-order walk can start at any position in O(log n), so a page deep inside
+ * one crowded rating bucket doesn't iterate everything before it. Not thread
+ * safe, {@link Leaderboard} guards it.
+ */
+final class RankedSet<T> {
+
+    private static final class Node<T> {
+        final T value;
+        final int priority;
+        Node<T> left;
+        Node<T> right;
+        int size = 1;
+
+        Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private record Split<T>(Node<T> left, Node<T> right) {}
+
+    private final Comparator<? super T> order;
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<T> root;
+
+    RankedSet(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    /** Adds a value that is not in the set yet. */
+    void add(T value) {
+        root = insert(root, new Node<>(value, random.nextInt()));
+    }
+
+    void remove(T value) {
+        root = remove(root, value);
+    }
+
+    /** Visits the values in order, starting at 0-based position {@code from}, until the visitor returns false. */
+    void forEachFrom(long from, Predicate<? super T> visitor) {
+        walk(root, from, visitor);
+    }
+
+    private boolean walk(Node<T> node, long skip, Predicate<? super T> visitor) {
+        if (node == null) return true;
+        int leftSize = size(node.left);
+        if (skip < leftSize && !walk(node.left, skip, visitor)) return false;
+        if (skip <= leftSize && !visitor.test(node.value)) return false;
+        return walk(node.right, Math.max(skip - leftSize - 1, 0), visitor);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> fresh) {
+        if (node == null) return fresh;
+        if (fresh.priority > node.priority) {
+            Split<T> parts = split(node, fresh.value);
+            fresh.left = parts.left();
+            fresh.right = parts.right();
+            return update(fresh);
+        }
+        if (order.compare(fresh.value, node.value) < 0) node.left = insert(node.left, fresh);
+        else node.right = insert(node.right, fresh);
+        return update(node);
+    }
+
+    private Node<T> remove(Node<T> node, T value) {
+        if (node == null) return null;
+        int c = order.compare(value, node.value);
+        if (c == 0) return merge(node.left, node.right);
+        if (c < 0) node.left = remove(node.left, value);
+        else node.right = remove(node.right, value);
+        return update(node);
+    }
+
+    // links: < value, rechts: >= value
+    private Split<T> split(Node<T> node, T value) {
+        if (node == null) return new Split<>(null, null);
+        if (order.compare(node.value, value) < 0) {
+            Split<T> parts = split(node.right, value);
+            node.right = parts.left();
+            return new Split<>(update(node), parts.right());
+        }
+        Split<T> parts = split(node.left, value);
+        node.left = parts.right();
+        return new Split<>(parts.left(), update(node));
+    }
+
+    // alle Werte in a liegen vor denen in b
+    private Node<T> merge(Node<T> a, Node<T> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            return update(a);
+        }
+        b.left = merge(a, b.left);
+        return update(b);
+    }
+
+    private static <T> Node<T> update(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
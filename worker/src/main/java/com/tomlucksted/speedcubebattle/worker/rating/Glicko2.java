@@ -0,0 +1,100 @@
+package com.tomlucksted.speedcubebattle.worker.rating;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Glicko-2 nach Glickman (2012). Jedes Match wird als eigene Rating-Periode
+ * gerechnet, wie bei Online-Spielen üblich.
+ */
+public final class Glicko2 {
+
+    public static final double DEFAULT_RATING = 1500.0;
+    public static final double DEFAULT_DEVIATION = 350.0;
+    public static final double DEFAULT_VOLATILITY = 0.06;
+
+    private static final double SCALE = 173.7178;
+    private static final double TAU = 0.5;
+    private static final double EPSILON = 0.000001;
+
+    private Glicko2() {}
+
+    /**
+     * @param opponents ratings of the opponents before the match
+     * @param scores    1 = win, 0.5 = draw, 0 = loss against the opponent at the same index
+     */
+    public static PlayerRating update(PlayerRating player, PlayerRating[] opponents, double[] scores) {
+        double mu = (player.rating() - DEFAULT_RATING) / SCALE;
+        double phi = player.deviation() / SCALE;
+        double sigma = player.volatility();
+
+        double vInv = 0;
+        double deltaSum = 0;
+        for (int j = 0; j < opponents.length; j++) {
+            double muJ = (opponents[j].rating() - DEFAULT_RATING) / SCALE;
+            double gJ = g(opponents[j].deviation() / SCALE);
+            double e = 1.0 / (1.0 + Math.exp(-gJ * (mu - muJ)));
+            vInv += gJ * gJ * e * (1 - e);
+            deltaSum += gJ * (scores[j] - e);
+        }
+        if (vInv == 0) return player;
+
+        double v = 1.0 / vInv;
+        double delta = v * deltaSum;
+        double sigmaNew = volatility(phi, sigma, v, delta);
+
+        double phiStar = Math.sqrt(phi * phi + sigmaNew * sigmaNew);
+        double phiNew = 1.0 / Math.sqrt(1.0 / (phiStar * phiStar) + 1.0 / v);
+        double muNew = mu + phiNew * phiNew * deltaSum;
+
+        return new PlayerRating(
+                player.playerId(),
+                muNew * SCALE + DEFAULT_RATING,
+                Math.min(phiNew * SCALE, DEFAULT_DEVIATION),
+                sigmaNew,
+                player.games() + 1
+        );
+    }
+
+    private static double g(double phi) {
+        return 1.0 / Math.sqrt(1.0 + 3.0 * phi * phi / (Math.PI * Math.PI));
+    }
+
+    // Illinois-Verfahren aus Schritt 5 des Papers
+    private static double volatility(double phi, double sigma, double v, double delta) {
+        double a = Math.log(sigma * sigma);
+        double phi2 = phi * phi;
+        double delta2 = delta * delta;
+
+        DoubleUnaryOperator f = x -> {
+            double ex = Math.exp(x);
+            double d = phi2 + v + ex;
+            return ex * (delta2 - phi2 - v - ex) / (2 * d * d) - (x - a) / (TAU * TAU);
+        };
+
+        double lo = a;
+        double hi;
+        if (delta2 > phi2 + v) {
+            hi = Math.log(delta2 - phi2 - v);
+        } else {
+            int k = 1;
+            while (f.applyAsDouble(a - k * TAU) < 0) k++;
+            hi = a - k * TAU;
+        }
+
+        double fLo = f.applyAsDouble(lo);
+        double fHi = f.applyAsDouble(hi);
+        while (Math.abs(hi - lo) > EPSILON) {
+            double c = lo + (lo - hi) * fLo / (fHi - fLo);
+            double fC = f.applyAsDouble(c);
+            if (fC * fHi <= 0) {
+                lo = hi;
+                fLo = fHi;
+            } else {
+                fLo = fLo / 2;
+            }
+            hi = c;
+            fHi = fC;
+        }
+        return Math.exp(lo / 2);
+    }
+}
@@ -0,0 +1,8 @@
+package com.tomlucksted.speedcubebattle.worker.rating;
+
+public record PlayerRating(String playerId, double rating, double deviation, double volatility, int games) {
+
+    public static PlayerRating initial(String playerId) {
+        return new PlayerRating(playerId, Glicko2.DEFAULT_RATING, Glicko2.DEFAULT_DEVIATION, Glicko2.DEFAULT_VOLATILITY, 0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.tomlucksted.speedcubebattle.worker.rating;
+
+import com.tomlucksted.speedcubebattle.worker.events.ConsumerMetrics;
+import com.tomlucksted.speedcubebattle.worker.events.MatchFinishedEvent;
+import com.tomlucksted.speedcubebattle.worker.leaderboard.Leaderboard;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class RatingListener {
+
+    private final RatingService ratingService;
+    private final Leaderboard leaderboard;
+    private final ConsumerMetrics metrics;
+
+    public RatingListener(RatingService ratingService, Leaderboard leaderboard, ConsumerMetrics metrics) {
+        this.ratingService = ratingService;
+        this.leaderboard = leaderboard;
+        this.metrics = metrics;
+    }
+
+    // Ack erst nach dem Commit; bei Fehler wird der ganze Batch erneut geliefert (idempotent per match id)
+    @RabbitListener(queues = "${scb.events.ratings-queue}", containerFactory = "batchListenerFactory")
+    public void onMatchesFinished(List<MatchFinishedEvent> events) {
+        long start = System.nanoTime();
+        var changed = ratingService.rateBatch(events);
+
+        Map<String, Double> ratings = HashMap.newHashMap(changed.size());
+        for (PlayerRating r : changed) ratings.put(r.playerId(), r.rating());
+        leaderboard.updateAll(ratings);
+        metrics.batchProcessed("ratings", events, start);
+    }
+}
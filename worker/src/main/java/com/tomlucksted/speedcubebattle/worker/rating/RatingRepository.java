@@ -0,0 +1,76 @@
+package com.tomlucksted.speedcubebattle.worker.rating;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class RatingRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public RatingRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Claims the given matches for rating and returns those that had not been rated before. */
+    public List<String> claimUnrated(List<String> matchIds, Instant now) {
+        int[] inserted = jdbc.batchUpdate(
+                "INSERT INTO rated_matches (match_id, rated_at) VALUES (?, ?) ON CONFLICT (match_id) DO NOTHING",
+                matchIds,
+                matchIds.size(),
+                (ps, id) -> {
+                    ps.setString(1, id);
+                    ps.setTimestamp(2, Timestamp.from(now));
+                }
+        )[0];
+
+        List<String> claimed = new ArrayList<>(matchIds.size());
+        for (int i = 0; i < matchIds.size(); i++) {
+            if (inserted[i] != 0) claimed.add(matchIds.get(i));
+        }
+        return claimed;
+    }
+
+    public void loadInto(Collection<String> playerIds, Map<String, PlayerRating> target) {
+        if (playerIds.isEmpty()) return;
+        jdbc.query(
+                "SELECT player_id, rating, deviation, volatility, games FROM player_ratings WHERE player_id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", playerIds.toArray())),
+                rs -> {
+                    target.put(rs.getString(1), new PlayerRating(rs.getString(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4), rs.getInt(5)));
+                }
+        );
+    }
+
+    public void upsertAll(Collection<PlayerRating> ratings, Instant now) {
+        if (ratings.isEmpty()) return;
+        jdbc.batchUpdate("""
+                INSERT INTO player_ratings (player_id, rating, deviation, volatility, games, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?)
+                ON CONFLICT (player_id) DO UPDATE SET
+                    rating = EXCLUDED.rating,
+                    deviation = EXCLUDED.deviation,
+                    volatility = EXCLUDED.volatility,
+                    games = EXCLUDED.games,
+                    updated_at = EXCLUDED.updated_at
+                """,
+                ratings,
+                ratings.size(),
+                (ps, r) -> {
+                    ps.setString(1, r.playerId());
+                    ps.setDouble(2, r.rating());
+                    ps.setDouble(3, r.deviation());
+                    ps.setDouble(4, r.volatility());
+                    ps.setInt(5, r.games());
+                    ps.setTimestamp(6, Timestamp.from(now));
+                }
+        );
+    }
+}
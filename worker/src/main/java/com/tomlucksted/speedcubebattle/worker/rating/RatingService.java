@@ -0,0 +1,122 @@
+package com.tomlucksted.speedcubebattle.worker.rating;
+
+import com.tomlucksted.speedcubebattle.worker.cache.CacheProperties;
+import com.tomlucksted.speedcubebattle.worker.cache.LruCache;
+import com.tomlucksted.speedcubebattle.worker.events.MatchFinishedEvent;
+import com.tomlucksted.speedcubebattle.worker.events.partition.PartitionedExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class RatingService {
+
+    private final RatingRepository repository;
+    private final TransactionTemplate tx;
+    private final PartitionedExecutor partitions;
+
+    // Cache der aktuellen Ratings; wird erst nach erfolgreichem Commit aktualisiert
+    private final LruCache<String, PlayerRating> cache;
+
+    public RatingService(RatingRepository repository, TransactionTemplate tx, PartitionedExecutor partitions, CacheProperties cacheProps) {
+        this.repository = repository;
+        this.tx = tx;
+        this.partitions = partitions;
+        this.cache = new LruCache<>(cacheProps.ratingsSize());
+    }
+
+    public PlayerRating ratingOf(String playerId) {
+        return cache.get(playerId, this::load);
+    }
+
+    private PlayerRating load(String playerId) {
+        Map<String, PlayerRating> loaded = new HashMap<>(2);
+        repository.loadInto(Set.of(playerId), loaded);
+        return loaded.get(playerId);
+    }
+
+    /**
+     * Rates a batch of finished matches in one transaction: one batched insert to
+     * claim the match ids, one query for uncached players and one batched upsert.
+     *
+     * @return the ratings that changed, in no particular order
+     */
+    public List<PlayerRating> rateBatch(List<MatchFinishedEvent> batch) {
+        Map<String, MatchFinishedEvent> byId = new LinkedHashMap<>();
+        // Ergebnisse enthalten auch DNFs; unter zwei gab es nie einen Gegner
+        for (MatchFinishedEvent event : batch) {
+            if (event.results() != null && event.results().size() >= 2) byId.putIfAbsent(event.matchId(), event);
+        }
+        if (byId.isEmpty()) return List.of();
+
+        Map<String, PlayerRating> changed = tx.execute(status -> {
+            Instant now = Instant.now();
+            List<String> claimed = repository.claimUnrated(new ArrayList<>(byId.keySet()), now);
+            if (claimed.isEmpty()) return Map.<String, PlayerRating>of();
+
+            Map<String, PlayerRating> working = new ConcurrentHashMap<>();
+            Set<String> missing = new HashSet<>();
+            for (String matchId : claimed) {
+                for (var result : byId.get(matchId).results()) {
+                    PlayerRating cached = cache.get(result.playerId());
+                    if (cached != null) working.put(result.playerId(), cached);
+                    else missing.add(result.playerId());
+                }
+            }
+            repository.loadInto(missing, working);
+
+            // pro Spieler in Reihenfolge, verschiedene Spieler parallel
+            Map<String, PlayerRating> updated = new ConcurrentHashMap<>();
+            partitions.runAll(
+                    claimed.stream().map(byId::get).toList(),
+                    event -> event.results().stream().map(MatchFinishedEvent.Result::playerId).toList(),
+                    event -> apply(event, working, updated)
+            );
+
+            repository.upsertAll(updated.values(), now);
+            return updated;
+        });
+
+        cache.putAll(changed);
+        return List.copyOf(changed.values());
+    }
+
+    // Jeder gegen jeden, Platzierung entscheidet (DNF liegt hinter allen Lösern, DNF gegen DNF ist remis);
+    // alle rechnen mit den Ratings von vor dem Match
+    private void apply(MatchFinishedEvent event, Map<String, PlayerRating> working, Map<String, PlayerRating> updated) {
+        var results = event.results();
+        int n = results.size();
+
+        PlayerRating[] before = new PlayerRating[n];
+        for (int i = 0; i < n; i++) {
+            String playerId = results.get(i).playerId();
+            before[i] = working.computeIfAbsent(playerId, PlayerRating::initial);
+        }
+
+        for (int i = 0; i < n; i++) {
+            PlayerRating[] opponents = new PlayerRating[n - 1];
+            double[] scores = new double[n - 1];
+            int k = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                opponents[k] = before[j];
+                int cmp = Integer.compare(results.get(i).placement(), results.get(j).placement());
+                scores[k] = cmp < 0 ? 1.0 : cmp == 0 ? 0.5 : 0.0;
+                k++;
+            }
+
+            PlayerRating after = Glicko2.update(before[i], opponents, scores);
+            working.put(after.playerId(), after);
+            updated.put(after.playerId(), after);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.tomlucksted.speedcubebattle.worker.stats;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Rolling statistics of one player, updated per solve in O(window) primitive
+ * work. Only the last {@link #HISTORY} solve times are kept; everything else is
+ * a running aggregate.
+ */
+public final class PlayerSolveStats {
+
+    static final int HISTORY = 100;
+
+    private final String playerId;
+
+    // Ringpuffer der letzten Zeiten (ms), ältester Eintrag bei head wenn voll
+    private final int[] recent = new int[HISTORY];
+    private int head = 0;
+    private int recentCount = 0;
+
+    private final TrimmedWindow ao5 = new TrimmedWindow(5, 1);
+    private final TrimmedWindow ao12 = new TrimmedWindow(12, 1);
+    private final TrimmedWindow ao100 = new TrimmedWindow(100, 5);
+
+    private long solveCount;
+    private int bestSingleMs = -1;
+    private int bestAo5Ms = -1;
+    private int bestAo12Ms = -1;
+    private int bestAo100Ms = -1;
+    private long totalTimeMs;
+    private long totalMoves;
+    private float bestTps;
+
+    PlayerSolveStats(String playerId) {
+        this.playerId = playerId;
+    }
+
+    public String playerId() { return playerId; }
+
+    synchronized void record(int solveTimeMs, int moveCount) {
+        if (solveTimeMs <= 0) return;
+
+        addToWindows(solveTimeMs);
+
+        solveCount++;
+        totalTimeMs += solveTimeMs;
+        totalMoves += moveCount;
+        bestSingleMs = best(bestSingleMs, solveTimeMs);
+        bestAo5Ms = best(bestAo5Ms, ao5.average());
+        bestAo12Ms = best(bestAo12Ms, ao12.average());
+        bestAo100Ms = best(bestAo100Ms, ao100.average());
+        bestTps = Math.max(bestTps, moveCount * 1000f / solveTimeMs);
+    }
+
+    private void addToWindows(int solveTimeMs) {
+        ao5.add(solveTimeMs, nthNewest(ao5.size()));
+        ao12.add(solveTimeMs, nthNewest(ao12.size()));
+        ao100.add(solveTimeMs, nthNewest(ao100.size()));
+
+        recent[head] = solveTimeMs;
+        head = (head + 1) % HISTORY;
+        if (recentCount < HISTORY) recentCount++;
+    }
+
+    // n-te jüngste Zeit vor dem Einfügen = die, die aus einem Fenster der Größe n herausfällt
+    private int nthNewest(int n) {
+        if (recentCount < n) return 0;
+        return recent[Math.floorMod(head - n, HISTORY)];
+    }
+
+    private static int best(int current, int candidate) {
+        if (candidate < 0) return current;
+        return current < 0 ? candidate : Math.min(current, candidate);
+    }
+
+    public synchronized PlayerStatsView view() {
+        return new PlayerStatsView(
+                playerId,
+                solveCount,
+                bestSingleMs,
+                ao5.average(), bestAo5Ms,
+                ao12.average(), bestAo12Ms,
+                ao100.average(), bestAo100Ms,
+                totalTimeMs == 0 ? 0 : totalMoves * 1000f / totalTimeMs,
+                bestTps
+        );
+    }
+
+    // --- Persistenz: Aggregate als Spalten, Historie als Varint-Blob ---
+
+    synchronized Row toRow() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(recentCount * 2 + 2);
+        writeVarint(out, recentCount);
+        for (int i = 0; i < recentCount; i++) {
+            writeVarint(out, recent[Math.floorMod(head - recentCount + i, HISTORY)]);
+        }
+        return new Row(playerId, solveCount, bestSingleMs, bestAo5Ms, bestAo12Ms, bestAo100Ms,
+                totalTimeMs, totalMoves, bestTps, out.toByteArray());
+    }
+
+    static PlayerSolveStats fromRow(Row row) {
+        PlayerSolveStats s = new PlayerSolveStats(row.playerId());
+        ByteBuffer in = ByteBuffer.wrap(row.recent());
+        int n = readVarint(in);
+        for (int i = 0; i < n; i++) s.addToWindows(readVarint(in));
+
+        s.solveCount = row.solveCount();
+        s.bestSingleMs = row.bestSingleMs();
+        s.bestAo5Ms = row.bestAo5Ms();
+        s.bestAo12Ms = row.bestAo12Ms();
+        s.bestAo100Ms = row.bestAo100Ms();
+        s.totalTimeMs = row.totalTimeMs();
+        s.totalMoves = row.totalMoves();
+        s.bestTps = row.bestTps();
+        return s;
+    }
+
+    record Row(String playerId, long solveCount, int bestSingleMs, int bestAo5Ms, int bestAo12Ms, int bestAo100Ms,
+               long totalTimeMs, long totalMoves, float bestTps, byte[] recent) {}
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+}
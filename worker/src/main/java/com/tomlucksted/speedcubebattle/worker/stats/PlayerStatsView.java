@@ -0,0 +1,16 @@
+package com.tomlucksted.speedcubebattle.worker.stats;
+
+// Alle Zeiten in ms, -1 = noch nicht genug Solves
+public record PlayerStatsView(
+        String playerId,
+        long solveCount,
+        int bestSingleMs,
+        int currentAo5Ms,
+        int bestAo5Ms,
+        int currentAo12Ms,
+        int bestAo12Ms,
+        int currentAo100Ms,
+        int bestAo100Ms,
+        float meanTps,
+        float bestTps
+) {}
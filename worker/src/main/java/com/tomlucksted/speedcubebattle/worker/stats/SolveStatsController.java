@@ -0,0 +1,24 @@
+package com.tomlucksted.speedcubebattle.worker.stats;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/players")
+public class SolveStatsController {
+
+    private final SolveStatsService statsService;
+
+    public SolveStatsController(SolveStatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping("/{playerId}/stats")
+    public ResponseEntity<PlayerStatsView> stats(@PathVariable String playerId) {
+        PlayerStatsView view = statsService.statsOf(playerId);
+        return view == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(view);
+    }
+}
@@ -0,0 +1,27 @@
+package com.tomlucksted.speedcubebattle.worker.stats;
+
+import com.tomlucksted.speedcubebattle.worker.events.ConsumerMetrics;
+import com.tomlucksted.speedcubebattle.worker.events.MatchFinishedEvent;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class SolveStatsListener {
+
+    private final SolveStatsService statsService;
+    private final ConsumerMetrics metrics;
+
+    public SolveStatsListener(SolveStatsService statsService, ConsumerMetrics metrics) {
+        this.statsService = statsService;
+        this.metrics = metrics;
+    }
+
+    @RabbitListener(queues = "${scb.events.stats-queue}", containerFactory = "batchListenerFactory")
+    public void onMatchesFinished(List<MatchFinishedEvent> events) {
+        long start = System.nanoTime();
+        statsService.recordBatch(events);
+        metrics.batchProcessed("stats", events, start);
+    }
+}
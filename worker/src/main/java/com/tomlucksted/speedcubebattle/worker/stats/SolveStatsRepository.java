@@ -0,0 +1,98 @@
+package com.tomlucksted.speedcubebattle.worker.stats;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class SolveStatsRepository {
+
+    private static final String COLUMNS = "player_id, solve_count, best_single_ms, best_ao5_ms, best_ao12_ms, best_ao100_ms, total_time_ms, total_moves, best_tps, recent";
+
+    private static final RowMapper<PlayerSolveStats.Row> ROW = (rs, i) -> new PlayerSolveStats.Row(
+            rs.getString(1), rs.getLong(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6),
+            rs.getLong(7), rs.getLong(8), rs.getFloat(9), rs.getBytes(10));
+
+    private final JdbcTemplate jdbc;
+
+    public SolveStatsRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<String> claimUnrecorded(List<String> matchIds, Instant now) {
+        int[] inserted = jdbc.batchUpdate(
+                "INSERT INTO stats_recorded_matches (match_id, recorded_at) VALUES (?, ?) ON CONFLICT (match_id) DO NOTHING",
+                matchIds,
+                matchIds.size(),
+                (ps, id) -> {
+                    ps.setString(1, id);
+                    ps.setTimestamp(2, Timestamp.from(now));
+                }
+        )[0];
+
+        List<String> claimed = new ArrayList<>(matchIds.size());
+        for (int i = 0; i < matchIds.size(); i++) {
+            if (inserted[i] != 0) claimed.add(matchIds.get(i));
+        }
+        return claimed;
+    }
+
+    public PlayerSolveStats.Row find(String playerId) {
+        var rows = jdbc.query("SELECT " + COLUMNS + " FROM player_solve_stats WHERE player_id = ?", ROW, playerId);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    public void loadInto(Collection<String> playerIds, Map<String, PlayerSolveStats> target) {
+        if (playerIds.isEmpty()) return;
+        jdbc.query(
+                "SELECT " + COLUMNS + " FROM player_solve_stats WHERE player_id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", playerIds.toArray())),
+                rs -> {
+                    var row = ROW.mapRow(rs, 0);
+                    target.put(row.playerId(), PlayerSolveStats.fromRow(row));
+                }
+        );
+    }
+
+    public void upsertAll(Collection<PlayerSolveStats.Row> rows, Instant now) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate("""
+                INSERT INTO player_solve_stats (%s, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (player_id) DO UPDATE SET
+                    solve_count = EXCLUDED.solve_count,
+                    best_single_ms = EXCLUDED.best_single_ms,
+                    best_ao5_ms = EXCLUDED.best_ao5_ms,
+                    best_ao12_ms = EXCLUDED.best_ao12_ms,
+                    best_ao100_ms = EXCLUDED.best_ao100_ms,
+                    total_time_ms = EXCLUDED.total_time_ms,
+                    total_moves = EXCLUDED.total_moves,
+                    best_tps = EXCLUDED.best_tps,
+                    recent = EXCLUDED.recent,
+                    updated_at = EXCLUDED.updated_at
+                """.formatted(COLUMNS),
+                rows,
+                rows.size(),
+                (ps, r) -> {
+                    ps.setString(1, r.playerId());
+                    ps.setLong(2, r.solveCount());
+                    ps.setInt(3, r.bestSingleMs());
+                    ps.setInt(4, r.bestAo5Ms());
+                    ps.setInt(5, r.bestAo12Ms());
+                    ps.setInt(6, r.bestAo100Ms());
+                    ps.setLong(7, r.totalTimeMs());
+                    ps.setLong(8, r.totalMoves());
+                    ps.setFloat(9, r.bestTps());
+                    ps.setBytes(10, r.recent());
+                    ps.setTimestamp(11, Timestamp.from(now));
+                }
+        );
+    }
+}
@@ -0,0 +1,103 @@
+package com.tomlucksted.speedcubebattle.worker.stats;
+
+import com.tomlucksted.speedcubebattle.worker.cache.CacheProperties;
+import com.tomlucksted.speedcubebattle.worker.cache.LruCache;
+import com.tomlucksted.speedcubebattle.worker.events.MatchFinishedEvent;
+import com.tomlucksted.speedcubebattle.worker.events.partition.PartitionedExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class SolveStatsService {
+
+    private final SolveStatsRepository repository;
+    private final TransactionTemplate tx;
+    private final PartitionedExecutor partitions;
+
+    // zuletzt aktive oder abgefragte Spieler; verdrängte werden aus der DB nachgeladen
+    private final LruCache<String, PlayerSolveStats> cache;
+
+    public SolveStatsService(SolveStatsRepository repository, TransactionTemplate tx, PartitionedExecutor partitions, CacheProperties cacheProps) {
+        this.repository = repository;
+        this.tx = tx;
+        this.partitions = partitions;
+        this.cache = new LruCache<>(cacheProps.statsSize());
+    }
+
+    public PlayerStatsView statsOf(String playerId) {
+        PlayerSolveStats stats = cache.get(playerId, id -> {
+            var row = repository.find(id);
+            return row == null ? null : PlayerSolveStats.fromRow(row);
+        });
+        return stats == null ? null : stats.view();
+    }
+
+    public void recordBatch(List<MatchFinishedEvent> batch) {
+        Map<String, MatchFinishedEvent> byId = new LinkedHashMap<>();
+        for (MatchFinishedEvent event : batch) {
+            if (event.results() != null && !event.results().isEmpty()) byId.putIfAbsent(event.matchId(), event);
+        }
+        if (byId.isEmpty()) return;
+
+        Set<String> touched = new HashSet<>();
+        try {
+            recordClaimed(byId, touched);
+        } catch (RuntimeException e) {
+            // Rollback: angefasste Spieler verwerfen, beim erneuten Zustellen wird aus der DB geladen
+            touched.forEach(cache::invalidate);
+            throw e;
+        }
+    }
+
+    private void recordClaimed(Map<String, MatchFinishedEvent> byId, Set<String> touched) {
+        tx.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            List<String> claimed = repository.claimUnrecorded(new ArrayList<>(byId.keySet()), now);
+            if (claimed.isEmpty()) return;
+
+            // DNFs haben keine Zeit und zählen nicht in die Solve-Statistik
+            List<MatchFinishedEvent.Result> results = new ArrayList<>();
+            for (String matchId : claimed) {
+                for (var result : byId.get(matchId).results()) {
+                    if (!result.dnf()) results.add(result);
+                }
+            }
+
+            // Arbeitskopie für den Batch: der Cache darf währenddessen verdrängen
+            Map<String, PlayerSolveStats> working = new ConcurrentHashMap<>();
+            Set<String> missing = new HashSet<>();
+            for (var result : results) {
+                PlayerSolveStats cached = cache.get(result.playerId());
+                if (cached != null) working.put(result.playerId(), cached);
+                else missing.add(result.playerId());
+            }
+            repository.loadInto(missing, working);
+
+            for (var result : results) touched.add(result.playerId());
+
+            // Statistiken sind pro Spieler unabhängig -> ein Task pro Ergebnis
+            Map<String, PlayerSolveStats> dirty = new ConcurrentHashMap<>();
+            partitions.runAll(
+                    results,
+                    result -> List.of(result.playerId()),
+                    result -> {
+                        PlayerSolveStats stats = working.computeIfAbsent(result.playerId(), PlayerSolveStats::new);
+                        stats.record((int) Math.min(result.solveTimeMs(), Integer.MAX_VALUE), result.moveCount());
+                        dirty.put(result.playerId(), stats);
+                    }
+            );
+
+            repository.upsertAll(dirty.values().stream().map(PlayerSolveStats::toRow).toList(), now);
+            cache.putAll(dirty);
+        });
+    }
+}
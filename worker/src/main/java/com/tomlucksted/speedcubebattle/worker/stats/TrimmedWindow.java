@@ -0,0 +1,58 @@
+package com.tomlucksted.speedcubebattle.worker.stats;
+
+import java.util.Arrays;
+
+/**
+ * WCA-style trimmed mean over the last {@code size} solves. The window is kept
+ * sorted in a primitive array next to a running sum, so a new solve costs two
+ * binary searches and an arraycopy, and the average only looks at the
+ * {@code trim} values on either end.
+ */
+final class TrimmedWindow {
+
+    private final int size;
+    private final int trim;
+    private final int[] sorted;
+    private int count = 0;
+    private long sum = 0;
+
+    TrimmedWindow(int size, int trim) {
+        this.size = size;
+        this.trim = trim;
+        this.sorted = new int[size];
+    }
+
+    /** @param evicted the solve leaving the window, only read once the window is full */
+    void add(int value, int evicted) {
+        if (count == size) {
+            int idx = Arrays.binarySearch(sorted, 0, count, evicted);
+            // sonst würde mit negativem Index kopiert und das Fenster still verfälscht
+            if (idx < 0) throw new IllegalArgumentException("evicted solve " + evicted + " is not in the window");
+            System.arraycopy(sorted, idx + 1, sorted, idx, count - idx - 1);
+            count--;
+            sum -= evicted;
+        }
+
+        int idx = Arrays.binarySearch(sorted, 0, count, value);
+        if (idx < 0) idx = -idx - 1;
+        System.arraycopy(sorted, idx, sorted, idx + 1, count - idx);
+        sorted[idx] = value;
+        count++;
+        sum += value;
+    }
+
+    /** Trimmed mean in ms, or -1 until the window is full. */
+    int average() {
+        if (count < size) return -1;
+        long trimmed = sum;
+        for (int i = 0; i < trim; i++) {
+            trimmed -= sorted[i];
+            trimmed -= sorted[count - 1 - i];
+        }
+        return (int) Math.round((double) trimmed / (size - 2 * trim));
+    }
+
+    int size() {
+        return size;
+    }
+}
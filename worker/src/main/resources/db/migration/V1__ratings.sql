@@ -0,0 +1,16 @@
+CREATE TABLE player_ratings (
+    player_id   VARCHAR(64) PRIMARY KEY,
+    rating      DOUBLE PRECISION NOT NULL,
+    deviation   DOUBLE PRECISION NOT NULL,
+    volatility  DOUBLE PRECISION NOT NULL,
+    games       INTEGER          NOT NULL,
+    updated_at  TIMESTAMPTZ      NOT NULL
+);
+
+CREATE INDEX idx_player_ratings_updated_at ON player_ratings (updated_at);
+
+-- Idempotenz: jedes Match wird genau einmal gewertet
+CREATE TABLE rated_matches (
+    match_id  VARCHAR(64) PRIMARY KEY,
+    rated_at  TIMESTAMPTZ NOT NULL
+);
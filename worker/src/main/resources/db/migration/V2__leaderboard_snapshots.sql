@@ -0,0 +1,7 @@
+-- Komprimierter Abzug des In-Memory-Leaderboards für schnellen Neustart
+CREATE TABLE leaderboard_snapshots (
+    id            BIGSERIAL PRIMARY KEY,
+    taken_at      TIMESTAMPTZ NOT NULL,
+    player_count  INTEGER     NOT NULL,
+    data          BYTEA       NOT NULL
+);
@@ -0,0 +1,18 @@
+CREATE TABLE player_solve_stats (
+    player_id       VARCHAR(64) PRIMARY KEY,
+    solve_count     BIGINT      NOT NULL,
+    best_single_ms  INTEGER     NOT NULL,
+    best_ao5_ms     INTEGER     NOT NULL,
+    best_ao12_ms    INTEGER     NOT NULL,
+    best_ao100_ms   INTEGER     NOT NULL,
+    total_time_ms   BIGINT      NOT NULL,
+    total_moves     BIGINT      NOT NULL,
+    best_tps        REAL        NOT NULL,
+    recent          BYTEA       NOT NULL,  -- letzte <= 100 Zeiten als Varints
+    updated_at      TIMESTAMPTZ NOT NULL
+);
+
+CREATE TABLE stats_recorded_matches (
+    match_id     VARCHAR(64) PRIMARY KEY,
+    recorded_at  TIMESTAMPTZ NOT NULL
+);
@@ -0,0 +1,44 @@
+package com.tomlucksted.speedcubebattle.worker.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LruCacheTest {
+
+    @Test
+    void sizeStaysBounded() {
+        LruCache<String, Integer> cache = new LruCache<>(160);
+        for (int i = 0; i < 10_000; i++) cache.put("p" + i, i);
+
+        assertThat(cache.size()).isLessThanOrEqualTo(160);
+        assertThat(cache.get("p9999")).isEqualTo(9999);
+    }
+
+    @Test
+    void evictedKeyIsLoadedAgain() {
+        // ein Eintrag pro Segment
+        LruCache<String, Integer> cache = new LruCache<>(16);
+        cache.put("a", 1);
+        for (int i = 0; i < 1_000; i++) cache.put("p" + i, i);
+        assertThat(cache.get("a")).isNull();
+
+        assertThat(cache.get("a", key -> 1)).isEqualTo(1);
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("unknown", key -> null)).isNull();
+    }
+
+    @Test
+    void loadDoesNotOverwriteAConcurrentPut() {
+        LruCache<String, Integer> cache = new LruCache<>(64);
+
+        // während des Ladens schreibt ein Batch den neuen Stand
+        Integer value = cache.get("a", key -> {
+            cache.put("a", 2);
+            return 1;
+        });
+
+        assertThat(value).isEqualTo(2);
+        assertThat(cache.get("a")).isEqualTo(2);
+    }
+}
@@ -0,0 +1,172 @@
+package com.tomlucksted.speedcubebattle.worker.events.partition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class PartitionedExecutorTest {
+
+    private final List<PartitionedExecutor> executors = new ArrayList<>();
+
+    private PartitionedExecutor executor(int partitions, int queueCapacity) {
+        PartitionedExecutor executor = new PartitionedExecutor(partitions, queueCapacity, new SimpleMeterRegistry());
+        executors.add(executor);
+        return executor;
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.forEach(PartitionedExecutor::close);
+    }
+
+    // je ein Schlüssel pro Lane, damit Multi-Lane-Tasks wirklich mehrere Lanes belegen
+    private static List<String> oneKeyPerLane(PartitionedExecutor executor) {
+        String[] keys = new String[executor.partitions()];
+        int found = 0;
+        for (int i = 0; found < keys.length; i++) {
+            String key = "p" + i;
+            int lane = executor.partitionOf(key);
+            if (keys[lane] == null) {
+                keys[lane] = key;
+                found++;
+            }
+        }
+        return List.of(keys);
+    }
+
+    @Test
+    void tasksOfOneKeyRunInSubmissionOrderUnderContention() throws Exception {
+        PartitionedExecutor executor = executor(4, 16);
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        // vier Einreicher gleichzeitig, jeder mit eigenen Schlüsseln, die sich Lanes teilen
+        List<CompletableFuture<Void>> submitters = new ArrayList<>();
+        for (int s = 0; s < 4; s++) {
+            int submitter = s;
+            submitters.add(CompletableFuture.runAsync(() -> {
+                try {
+                    for (int seq = 0; seq < 500; seq++) {
+                        String key = "s" + submitter + "-k" + (seq % 5);
+                        int value = seq;
+                        executor.submit(key, () -> seen.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(value));
+                    }
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        CompletableFuture.allOf(submitters.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        executor.submit(oneKeyPerLane(executor), () -> {}).get(10, TimeUnit.SECONDS);
+
+        assertThat(seen).hasSize(20);
+        seen.values().forEach(values -> assertThat(values).hasSize(100).isSorted());
+    }
+
+    @Test
+    void overlappingMultiLaneTasksCompleteWithoutDeadlock() {
+        PartitionedExecutor executor = executor(4, 8);
+        List<String> keys = oneKeyPerLane(executor);
+        Random random = new Random(7);
+
+        List<List<String>> matches = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int a = random.nextInt(keys.size());
+            int b = (a + 1 + random.nextInt(keys.size() - 1)) % keys.size();
+            matches.add(List.of(keys.get(a), keys.get(b)));
+        }
+        AtomicInteger ran = new AtomicInteger();
+        Map<String, Integer> active = new ConcurrentHashMap<>();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> executor.runAll(matches, m -> m, m -> {
+            // ein Schlüssel ist nie in zwei Tasks gleichzeitig aktiv
+            for (String key : m) assertThat(active.merge(key, 1, Integer::sum)).isEqualTo(1);
+            ran.incrementAndGet();
+            for (String key : m) active.merge(key, -1, Integer::sum);
+        }));
+
+        assertThat(ran).hasValue(2_000);
+    }
+
+    @Test
+    void fullLaneBlocksTheSubmitter() throws Exception {
+        PartitionedExecutor executor = executor(1, 2);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.submit("a", () -> {
+            running.countDown();
+            await(release);
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.submit("a", () -> {});
+        executor.submit("a", () -> {});
+
+        // Lane belegt, Queue voll: der nächste Einreicher muss warten
+        CompletableFuture<CompletableFuture<Void>> blocked = CompletableFuture.supplyAsync(() -> {
+            try {
+                return executor.submit("a", () -> {});
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(blocked).isNotDone();
+
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+        assertThat(executor.queuedTasks()).isZero();
+    }
+
+    @Test
+    void failingTaskReportsItsErrorAndTheLaneKeepsRunning() throws Exception {
+        PartitionedExecutor executor = executor(2, 8);
+        List<String> keys = oneKeyPerLane(executor);
+
+        CompletableFuture<Void> failed = executor.submit(keys.get(0), () -> {
+            throw new IllegalArgumentException("boom");
+        });
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+
+        // dieselbe Lane, auch als Multi-Lane-Task, läuft danach normal weiter
+        AtomicInteger ran = new AtomicInteger();
+        executor.submit(keys.get(0), ran::incrementAndGet).get(5, TimeUnit.SECONDS);
+        executor.submit(keys, ran::incrementAndGet).get(5, TimeUnit.SECONDS);
+        assertThat(ran).hasValue(2);
+
+        // runAll wartet auf alle und wirft den Fehler weiter
+        List<Integer> items = List.of(1, 2, 3);
+        List<Integer> done = new CopyOnWriteArrayList<>();
+        assertThatThrownBy(() -> executor.runAll(items, i -> List.of(keys.get(i % 2)), i -> {
+            if (i == 2) throw new IllegalStateException("item " + i);
+            done.add(i);
+        })).hasRootCauseInstanceOf(IllegalStateException.class).hasRootCauseMessage("item 2");
+        assertThat(done).containsExactlyInAnyOrder(1, 3);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
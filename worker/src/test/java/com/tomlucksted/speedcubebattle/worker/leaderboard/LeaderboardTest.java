@@ -0,0 +1,57 @@
+package com.tomlucksted.speedcubebattle.worker.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaderboardTest {
+
+    private final Leaderboard leaderboard = new Leaderboard();
+
+    @Test
+    void pageDeepInsideOneCrowdedBucket() {
+        // alle mit Startrating: ein einziger Bucket, ein Rang
+        Map<String, Double> ratings = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) ratings.put("p%05d".formatted(i), 1500.0);
+        leaderboard.updateAll(ratings);
+        leaderboard.update("top", 1800);
+
+        LeaderboardPage page = leaderboard.page(5_001, 3);
+
+        assertThat(page.entries()).extracting(LeaderboardEntry::playerId).containsExactly("p04999", "p05000", "p05001");
+        assertThat(page.entries()).extracting(LeaderboardEntry::rank).containsOnly(2L);
+    }
+
+    @Test
+    void pageSpansBucketsWithCompetitionRanks() {
+        leaderboard.updateAll(Map.of("a", 2000.0, "b", 1900.0, "c", 1900.0, "d", 1700.0));
+
+        LeaderboardPage page = leaderboard.page(2, 10);
+
+        assertThat(page.entries()).extracting(LeaderboardEntry::playerId).containsExactly("b", "c", "d");
+        assertThat(page.entries()).extracting(LeaderboardEntry::rank).containsExactly(2L, 2L, 4L);
+        assertThat(leaderboard.entryOf("d").rank()).isEqualTo(4);
+    }
+
+    @Test
+    void updateMovesThePlayer() {
+        leaderboard.updateAll(Map.of("a", 2000.0, "b", 1900.0));
+        leaderboard.update("b", 2100);
+
+        assertThat(leaderboard.page(1, 10).entries()).extracting(LeaderboardEntry::playerId).containsExactly("b", "a");
+        assertThat(leaderboard.size()).isEqualTo(2);
+    }
+
+    @Test
+    void recoveryDoesNotOverwriteLiveUpdates() {
+        leaderboard.update("live", 1900);
+
+        leaderboard.recover(Map.of("live", 1400.0, "other", 1600.0));
+
+        assertThat(leaderboard.entryOf("live").rating()).isEqualTo(1900);
+        assertThat(leaderboard.entryOf("other").rating()).isEqualTo(1600);
+    }
+}
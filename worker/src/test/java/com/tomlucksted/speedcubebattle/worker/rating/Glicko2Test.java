@@ -0,0 +1,50 @@
+package com.tomlucksted.speedcubebattle.worker.rating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class Glicko2Test {
+
+    @Test
+    void reproducesGlickmansWorkedExample() {
+        // Beispiel aus Glickman, "Example of the Glicko-2 system" (τ = 0.5)
+        PlayerRating player = new PlayerRating("p", 1500, 200, 0.06, 0);
+        PlayerRating[] opponents = {
+                new PlayerRating("a", 1400, 30, 0.06, 0),
+                new PlayerRating("b", 1550, 100, 0.06, 0),
+                new PlayerRating("c", 1700, 300, 0.06, 0)
+        };
+
+        PlayerRating after = Glicko2.update(player, opponents, new double[]{1, 0, 0});
+
+        assertThat(after.rating()).isCloseTo(1464.06, within(0.01));
+        assertThat(after.deviation()).isCloseTo(151.52, within(0.01));
+        assertThat(after.volatility()).isCloseTo(0.05999, within(0.00001));
+        assertThat(after.games()).isEqualTo(1);
+    }
+
+    @Test
+    void duelBetweenNewPlayersIsSymmetric() {
+        PlayerRating a = PlayerRating.initial("a");
+        PlayerRating b = PlayerRating.initial("b");
+
+        PlayerRating winner = Glicko2.update(a, new PlayerRating[]{b}, new double[]{1});
+        PlayerRating loser = Glicko2.update(b, new PlayerRating[]{a}, new double[]{0});
+
+        assertThat(winner.rating()).isGreaterThan(Glicko2.DEFAULT_RATING);
+        assertThat(winner.rating() - Glicko2.DEFAULT_RATING).isCloseTo(Glicko2.DEFAULT_RATING - loser.rating(), within(1e-9));
+        assertThat(winner.deviation()).isLessThan(Glicko2.DEFAULT_DEVIATION).isEqualTo(loser.deviation());
+    }
+
+    @Test
+    void drawBetweenEqualPlayersKeepsTheRating() {
+        PlayerRating a = new PlayerRating("a", 1600, 80, 0.06, 10);
+        PlayerRating b = new PlayerRating("b", 1600, 80, 0.06, 10);
+
+        PlayerRating after = Glicko2.update(a, new PlayerRating[]{b}, new double[]{0.5});
+
+        assertThat(after.rating()).isCloseTo(1600, within(1e-9));
+    }
+}
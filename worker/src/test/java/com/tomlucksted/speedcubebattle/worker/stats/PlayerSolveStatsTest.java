@@ -0,0 +1,50 @@
+package com.tomlucksted.speedcubebattle.worker.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlayerSolveStatsTest {
+
+    @Test
+    void rowRoundTripKeepsHistoryAndAggregates() {
+        PlayerSolveStats stats = new PlayerSolveStats("alice");
+        Random random = new Random(3);
+        for (int i = 0; i < 150; i++) {
+            // 1- bis 4-Byte-Varints: unter 128 ms bis über 2^21 ms
+            int time = switch (i % 4) {
+                case 0 -> 50 + random.nextInt(70);
+                case 1 -> 9_000 + random.nextInt(2_000);
+                case 2 -> 20_000 + random.nextInt(10_000);
+                default -> 3_000_000 + random.nextInt(1_000);
+            };
+            stats.record(time, 40 + random.nextInt(30));
+        }
+
+        PlayerSolveStats.Row row = stats.toRow();
+        PlayerSolveStats restored = PlayerSolveStats.fromRow(row);
+
+        assertThat(restored.view()).isEqualTo(stats.view());
+        assertThat(restored.toRow()).usingRecursiveComparison().isEqualTo(row);
+
+        // nach dem Laden rechnen die Fenster genauso weiter
+        stats.record(7_000, 50);
+        restored.record(7_000, 50);
+        assertThat(restored.view()).isEqualTo(stats.view());
+    }
+
+    @Test
+    void shortHistoryRoundTrips() {
+        PlayerSolveStats stats = new PlayerSolveStats("bob");
+        stats.record(12_345, 55);
+        stats.record(11_111, 50);
+
+        PlayerSolveStats restored = PlayerSolveStats.fromRow(stats.toRow());
+
+        assertThat(restored.view()).isEqualTo(stats.view());
+        assertThat(restored.view().currentAo5Ms()).isEqualTo(-1);
+        assertThat(restored.view().bestSingleMs()).isEqualTo(11_111);
+    }
+}
@@ -0,0 +1,61 @@
+package com.tomlucksted.speedcubebattle.worker.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrimmedWindowTest {
+
+    // Referenz: letzte size Zeiten sortieren, trim an beiden Enden weglassen
+    private static int bruteForce(List<Integer> times, int size, int trim) {
+        if (times.size() < size) return -1;
+        int[] last = times.subList(times.size() - size, times.size()).stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(last);
+        long sum = 0;
+        for (int i = trim; i < size - trim; i++) sum += last[i];
+        return (int) Math.round((double) sum / (size - 2 * trim));
+    }
+
+    private static void matchesBruteForce(int size, int trim) {
+        TrimmedWindow window = new TrimmedWindow(size, trim);
+        Random random = new Random(size);
+        List<Integer> times = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            // enger Wertebereich, damit es Duplikate gibt
+            int time = 8_000 + random.nextInt(400);
+            window.add(time, times.size() >= size ? times.get(times.size() - size) : 0);
+            times.add(time);
+
+            assertThat(window.average()).as("after %d solves", times.size()).isEqualTo(bruteForce(times, size, trim));
+        }
+    }
+
+    @Test
+    void ao5MatchesBruteForce() {
+        matchesBruteForce(5, 1);
+    }
+
+    @Test
+    void ao12MatchesBruteForce() {
+        matchesBruteForce(12, 1);
+    }
+
+    @Test
+    void ao100MatchesBruteForce() {
+        matchesBruteForce(100, 5);
+    }
+
+    @Test
+    void evictingAValueNotInTheWindowFails() {
+        TrimmedWindow window = new TrimmedWindow(5, 1);
+        for (int i = 1; i <= 5; i++) window.add(i * 1_000, 0);
+
+        assertThatThrownBy(() -> window.add(9_000, 42)).isInstanceOf(IllegalArgumentException.class);
+    }
+}